@@ -0,0 +1,83 @@
+#!/usr/bin/env bash
+# Builds the jvm, cds and native Docker targets and measures, for each, the time from `docker run` to the first
+# successful GET /api/todos and the resident set size right after it. Needs Docker and curl.
+#
+# Usage: scripts/measure-startup.sh [runs] [variants...]
+#   scripts/measure-startup.sh            3 runs each of jvm, cds and native
+#   scripts/measure-startup.sh 5 jvm cds  5 runs each of jvm and cds
+set -euo pipefail
+
+RUNS=${1:-3}
+shift || true
+if (( $# > 0 )); then
+  VARIANTS=("$@")
+else
+  VARIANTS=(jvm cds native)
+fi
+
+NETWORK=todoapi-startup
+DB=todoapi-startup-db
+APP=todoapi-startup-app
+PORT=18080
+DB_ENV=(
+  -e SPRING_DATASOURCE_URL=jdbc:postgresql://$DB:5432/todoapi
+  -e SPRING_DATASOURCE_USERNAME=todo
+  -e SPRING_DATASOURCE_PASSWORD=todo
+)
+
+cleanup() {
+  docker rm -f "$APP" "$DB" > /dev/null 2>&1 || true
+  docker network rm "$NETWORK" > /dev/null 2>&1 || true
+}
+trap cleanup EXIT
+
+now_ms() {
+  date +%s%3N
+}
+
+wait_for_first_request() {
+  local deadline=$(( $(now_ms) + 120000 ))
+  until curl -sf -o /dev/null "http://localhost:$PORT/api/todos"; do
+    if (( $(now_ms) > deadline )); then
+      echo "No successful request within 120s" >&2
+      docker logs "$APP" >&2
+      return 1
+    fi
+    sleep 0.05
+  done
+}
+
+cd "$(dirname "$0")/.."
+
+for variant in "${VARIANTS[@]}"; do
+  echo "Building $variant image" >&2
+  docker build -q --target "$variant" -t "todoapi:$variant" . > /dev/null
+done
+
+cleanup
+docker network create "$NETWORK" > /dev/null
+docker run -d --name "$DB" --network "$NETWORK" \
+  -e POSTGRES_DB=todoapi -e POSTGRES_USER=todo -e POSTGRES_PASSWORD=todo postgres:16 > /dev/null
+until docker exec "$DB" pg_isready -U todo -d todoapi > /dev/null 2>&1; do
+  sleep 0.5
+done
+
+# The prod profile only validates the schema, so let one JVM run create it first
+echo "Creating schema" >&2
+docker run -d --name "$APP" --network "$NETWORK" -p "$PORT:8080" "${DB_ENV[@]}" \
+  -e SPRING_JPA_HIBERNATE_DDL_AUTO=update "todoapi:${VARIANTS[0]}" > /dev/null
+wait_for_first_request
+docker rm -f "$APP" > /dev/null
+
+printf '%-8s %4s %12s %10s\n' variant run first_req_ms rss_mb
+for variant in "${VARIANTS[@]}"; do
+  for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    docker run -d --name "$APP" --network "$NETWORK" -p "$PORT:8080" "${DB_ENV[@]}" "todoapi:$variant" > /dev/null
+    wait_for_first_request
+    elapsed=$(( $(now_ms) - start ))
+    rss_kb=$(docker exec "$APP" sh -c "grep VmRSS /proc/1/status" | awk '{print $2}')
+    printf '%-8s %4d %12d %10d\n' "$variant" "$run" "$elapsed" $(( rss_kb / 1024 ))
+    docker rm -f "$APP" > /dev/null
+  done
+done
@@ -0,0 +1,32 @@
+package com.bt7878.todoapi.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+
+import java.io.IOException;
+
+/**
+ * JSON encoding of audit events in the log. Independent of the API's mapper settings, so that the file format
+ * only changes on purpose.
+ */
+final class AuditCodec {
+
+    private static final ObjectMapper JSON = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private AuditCodec() {
+    }
+
+    static byte[] encode(AuditEvent event) throws IOException {
+        return JSON.writeValueAsBytes(event);
+    }
+
+    static AuditEvent decode(byte[] json) throws IOException {
+        return JSON.readValue(json, AuditEvent.class);
+    }
+
+}
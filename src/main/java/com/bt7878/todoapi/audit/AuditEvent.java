@@ -0,0 +1,37 @@
+package com.bt7878.todoapi.audit;
+
+import com.bt7878.todoapi.model.Todo;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * One committed create, update or delete of a todo. Deletes only carry the id. Updates made without a version
+ * check carry no version, since the new one is not known without reading the row again.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record AuditEvent(Instant at, Action action, String owner, Long todoId, String title, Boolean completed,
+                         Long version) {
+
+    public enum Action {
+        CREATE, UPDATE, DELETE
+    }
+
+    public static AuditEvent created(String owner, Todo todo) {
+        return of(Action.CREATE, owner, todo);
+    }
+
+    public static AuditEvent updated(String owner, Todo todo) {
+        return of(Action.UPDATE, owner, todo);
+    }
+
+    public static AuditEvent deleted(String owner, Long todoId) {
+        return new AuditEvent(Instant.now(), Action.DELETE, owner, todoId, null, null, null);
+    }
+
+    private static AuditEvent of(Action action, String owner, Todo todo) {
+        return new AuditEvent(Instant.now(), action, owner, todo.getId(), todo.getTitle(), todo.isCompleted(),
+                todo.getVersion());
+    }
+
+}
@@ -0,0 +1,29 @@
+package com.bt7878.todoapi.audit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+import java.io.IOException;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.audit.enabled", havingValue = "true")
+@EnableConfigurationProperties(AuditLogProperties.class)
+class AuditLogConfig {
+
+    @Bean
+    TodoAuditLog todoAuditLog(AuditLogProperties properties) {
+        return new TodoAuditLog(properties.capacity(), properties.overflowPolicy(), properties.sampleRate());
+    }
+
+    @Bean
+    AuditLogFlusher auditLogFlusher(TodoAuditLog todoAuditLog, AuditLogProperties properties) throws IOException {
+        AuditSegmentWriter writer = new AuditSegmentWriter(properties.directory(),
+                Math.toIntExact(properties.segmentSize().toBytes()), properties.maxSegments(), properties.fsync());
+        return new AuditLogFlusher(todoAuditLog, writer, properties.batchSize());
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.bt7878.todoapi.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drains the {@link TodoAuditLog} on a dedicated thread and appends the events to the log in batches of up to
+ * {@code batchSize}. The thread parks briefly while there is nothing to write.
+ * <p>
+ * Stops after the web server has stopped accepting requests, and writes everything still buffered first.
+ */
+@Slf4j
+class AuditLogFlusher implements SmartLifecycle, MeterBinder {
+
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+
+    private final TodoAuditLog auditLog;
+    private final AuditSegmentWriter writer;
+    private final int batchSize;
+    private final List<AuditEvent> batch;
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private volatile boolean running;
+    private Thread thread;
+
+    AuditLogFlusher(TodoAuditLog auditLog, AuditSegmentWriter writer, int batchSize) {
+        this.auditLog = auditLog;
+        this.writer = writer;
+        this.batchSize = batchSize;
+        this.batch = new ArrayList<>(batchSize);
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("todo-audit-log").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Writes what was buffered before the web server stopped
+        while (auditLog.depth() > 0) {
+            flush();
+        }
+        writer.close();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Web servers stop at {@code DEFAULT_PHASE - 2048}, so no new events arrive once this stops.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.audit.events", written, LongAdder::sum)
+                .description("Audit events by what happened to them")
+                .tag("result", "written")
+                .register(registry);
+        FunctionCounter.builder("todo.audit.events", failed, LongAdder::sum)
+                .description("Audit events by what happened to them")
+                .tag("result", "failed")
+                .register(registry);
+    }
+
+    private void run() {
+        while (running) {
+            if (flush() == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+    }
+
+    /**
+     * Writes one batch. Events that cannot be written are counted as failed and not retried, so that a full disk
+     * does not stall the pipeline.
+     *
+     * @return the number of events taken from the buffer
+     */
+    int flush() {
+        batch.clear();
+        int drained = auditLog.drainTo(batch, batchSize);
+        if (drained == 0) {
+            return 0;
+        }
+        int appended = 0;
+        try {
+            for (AuditEvent event : batch) {
+                writer.append(AuditCodec.encode(event));
+                appended++;
+            }
+            writer.sync();
+        } catch (IOException | RuntimeException e) {
+            failed.add(drained - appended);
+            log.error("Failed to write {} audit events", drained - appended, e);
+        }
+        written.add(appended);
+        return drained;
+    }
+
+}
@@ -0,0 +1,31 @@
+package com.bt7878.todoapi.audit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+
+/**
+ * @param enabled        record every create, update and delete in the audit log
+ * @param directory      directory of the log segments
+ * @param capacity       number of events the ring buffer holds, rounded up to a power of two
+ * @param overflowPolicy what happens to an event when the ring buffer is full
+ * @param sampleRate     with {@link AuditOverflowPolicy#SAMPLE}, keep one in this many overflowing events
+ * @param batchSize      maximum number of events written at once
+ * @param segmentSize    size of each log segment
+ * @param maxSegments    number of segments kept; older ones are deleted
+ * @param fsync          force every batch to disk instead of leaving it to the operating system
+ */
+@ConfigurationProperties("todo.audit")
+public record AuditLogProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("audit") Path directory,
+        @DefaultValue("65536") int capacity,
+        @DefaultValue("BLOCK") AuditOverflowPolicy overflowPolicy,
+        @DefaultValue("10") int sampleRate,
+        @DefaultValue("512") int batchSize,
+        @DefaultValue("64MB") DataSize segmentSize,
+        @DefaultValue("100") int maxSegments,
+        @DefaultValue("false") boolean fsync) {
+}
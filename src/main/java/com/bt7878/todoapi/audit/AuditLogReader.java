@@ -0,0 +1,82 @@
+package com.bt7878.todoapi.audit;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Reads the segments written by {@link AuditSegmentWriter}, oldest first. Reading a segment stops at its end
+ * marker or at the first record that fails its checksum, which is where a crash cut it short.
+ */
+public final class AuditLogReader {
+
+    private static final Pattern SEGMENT_NAME = Pattern.compile("audit-(\\d{20})\\.log");
+
+    private AuditLogReader() {
+    }
+
+    /**
+     * Hands every event in {@code directory} to {@code consumer} in the order it was written.
+     */
+    public static void read(Path directory, Consumer<AuditEvent> consumer) throws IOException {
+        for (Path segment : segments(directory)) {
+            readSegment(segment, consumer);
+        }
+    }
+
+    static void readSegment(Path segment, Consumer<AuditEvent> consumer) throws IOException {
+        ByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        CRC32C crc = new CRC32C();
+        while (buffer.remaining() >= AuditSegmentWriter.HEADER_SIZE) {
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length <= 0 || length > buffer.remaining()) {
+                return;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            crc.reset();
+            crc.update(payload);
+            if ((int) crc.getValue() != checksum) {
+                return;
+            }
+            consumer.accept(AuditCodec.decode(payload));
+        }
+    }
+
+    static List<Path> segments(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> SEGMENT_NAME.matcher(file.getFileName().toString()).matches())
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    static String segmentName(long index) {
+        return "audit-%020d.log".formatted(index);
+    }
+
+    static long segmentIndex(Path segment) {
+        Matcher matcher = SEGMENT_NAME.matcher(segment.getFileName().toString());
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not an audit log segment: " + segment);
+        }
+        return Long.parseLong(matcher.group(1));
+    }
+
+}
@@ -0,0 +1,64 @@
+package com.bt7878.todoapi.audit;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Predicate;
+
+/**
+ * Prints the events of an audit log directory as JSON lines, oldest first, optionally only those of one owner or
+ * todo, or those after a point in time:
+ * <pre>
+ * java -cp app.jar -Dloader.main=com.bt7878.todoapi.audit.AuditLogReplay \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher audit --owner=alice --since=2025-05-01T00:00:00Z
+ * </pre>
+ */
+public final class AuditLogReplay {
+
+    private AuditLogReplay() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: AuditLogReplay <directory> [--owner=<owner>] [--todo=<id>] [--since=<instant>]");
+            System.exit(2);
+        }
+        replay(Path.of(args[0]), filter(args), System.out);
+    }
+
+    static void replay(Path directory, Predicate<AuditEvent> filter, PrintStream out) throws IOException {
+        AuditLogReader.read(directory, event -> {
+            if (filter.test(event)) {
+                try {
+                    out.println(new String(AuditCodec.encode(event), StandardCharsets.UTF_8));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        });
+    }
+
+    static Predicate<AuditEvent> filter(String[] args) {
+        Predicate<AuditEvent> filter = event -> true;
+        for (int i = 1; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--owner=")) {
+                String owner = arg.substring("--owner=".length());
+                filter = filter.and(event -> owner.equals(event.owner()));
+            } else if (arg.startsWith("--todo=")) {
+                Long todoId = Long.valueOf(arg.substring("--todo=".length()));
+                filter = filter.and(event -> todoId.equals(event.todoId()));
+            } else if (arg.startsWith("--since=")) {
+                Instant since = Instant.parse(arg.substring("--since=".length()));
+                filter = filter.and(event -> !event.at().isBefore(since));
+            } else {
+                throw new IllegalArgumentException("Unknown option " + arg);
+            }
+        }
+        return filter;
+    }
+
+}
@@ -0,0 +1,24 @@
+package com.bt7878.todoapi.audit;
+
+/**
+ * What happens to an audit event when the ring buffer is full.
+ */
+public enum AuditOverflowPolicy {
+
+    /**
+     * The writing request waits until the event fits. No event is lost, but a slow disk slows down writes.
+     */
+    BLOCK,
+
+    /**
+     * The event is dropped and counted.
+     */
+    DROP,
+
+    /**
+     * One in every {@code sample-rate} overflowing events waits as with {@link #BLOCK}, the others are dropped, so
+     * that the log keeps a sample of the events during an overload.
+     */
+    SAMPLE
+
+}
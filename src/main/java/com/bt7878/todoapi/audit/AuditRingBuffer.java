@@ -0,0 +1,89 @@
+package com.bt7878.todoapi.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded lock-free queue for many producers and one consumer. Every slot has a sequence number telling whether
+ * it is free for the producer claiming position {@code p} ({@code sequence == p}) or holds the event of position
+ * {@code p} for the consumer ({@code sequence == p + 1}). Producers claim positions with compare-and-set on the
+ * tail, and the consumer hands slots back by advancing their sequence by the capacity.
+ */
+class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+
+    /**
+     * @param capacity rounded up to a power of two
+     */
+    AuditRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) * 2 - 1);
+        this.slots = new AuditEvent[size];
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * @return {@code false} if the buffer is full
+     */
+    boolean offer(AuditEvent event) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    // The volatile sequence write publishes the plain slot write to the consumer
+                    slots[index] = event;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Moves up to {@code max} events to {@code batch} in the order they were offered. Only one thread may drain.
+     *
+     * @return the number of events moved
+     */
+    int drainTo(List<AuditEvent> batch, int max) {
+        long position = head.get();
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) position & mask;
+            if (sequences.get(index) != position + 1) {
+                break;
+            }
+            batch.add(slots[index]);
+            slots[index] = null;
+            sequences.set(index, position + slots.length);
+            position++;
+            drained++;
+        }
+        head.set(position);
+        return drained;
+    }
+
+    int size() {
+        return (int) Math.max(0, tail.get() - head.get());
+    }
+
+    int capacity() {
+        return slots.length;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.bt7878.todoapi.audit;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Appends records to memory-mapped segment files of a fixed size. A record is its length, a CRC32C of its payload
+ * and the payload. The unwritten rest of a segment stays zero, so a length of {@code 0} marks the end, and a record
+ * cut short by a crash fails its checksum.
+ * <p>
+ * A new segment is started when a record does not fit, and on every start, so existing segments are never written
+ * again. Only the newest {@code maxSegments} segments are kept. Not thread-safe.
+ */
+@Slf4j
+class AuditSegmentWriter implements Closeable {
+
+    static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxSegments;
+    private final boolean fsync;
+    private final CRC32C crc = new CRC32C();
+    private long segmentIndex;
+    private MappedByteBuffer segment;
+
+    /**
+     * @param fsync force every batch to disk; without it the operating system writes the pages back on its own,
+     *              which survives a crash of the process but not of the machine
+     */
+    AuditSegmentWriter(Path directory, int segmentSize, int maxSegments, boolean fsync) throws IOException {
+        this.directory = Files.createDirectories(directory);
+        this.segmentSize = segmentSize;
+        this.maxSegments = maxSegments;
+        this.fsync = fsync;
+        List<Path> existing = AuditLogReader.segments(directory);
+        this.segmentIndex = existing.isEmpty() ? 0 : AuditLogReader.segmentIndex(existing.getLast());
+    }
+
+    /**
+     * @throws IllegalArgumentException if the record is larger than a segment
+     */
+    void append(byte[] payload) throws IOException {
+        int recordSize = HEADER_SIZE + payload.length;
+        if (recordSize > segmentSize) {
+            throw new IllegalArgumentException("Audit record of " + recordSize + " bytes exceeds the segment size");
+        }
+        if (segment == null || segment.remaining() < recordSize) {
+            rotate();
+        }
+        crc.reset();
+        crc.update(payload);
+        segment.putInt(payload.length).putInt((int) crc.getValue()).put(payload);
+    }
+
+    /**
+     * Ends a batch of appends, forcing it to disk if configured.
+     */
+    void sync() {
+        if (fsync && segment != null) {
+            segment.force();
+        }
+    }
+
+    @Override
+    public void close() {
+        if (segment != null) {
+            segment.force();
+            segment = null;
+        }
+    }
+
+    private void rotate() throws IOException {
+        close();
+        segmentIndex++;
+        Path path = directory.resolve(AuditLogReader.segmentName(segmentIndex));
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed, and extends the file to the segment size
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        }
+        deleteOldSegments();
+    }
+
+    private void deleteOldSegments() throws IOException {
+        List<Path> segments = AuditLogReader.segments(directory);
+        for (int i = 0; i < segments.size() - maxSegments; i++) {
+            Files.delete(segments.get(i));
+            log.info("Deleted audit log segment {}", segments.get(i).getFileName());
+        }
+    }
+
+}
@@ -0,0 +1,100 @@
+package com.bt7878.todoapi.audit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Entry point of the audit pipeline. Writers hand their events to a lock-free ring buffer, which the
+ * {@link AuditLogFlusher} drains on its own thread, so serializing and writing the log never happens on the
+ * request thread. What happens when the buffer is full is decided by the {@link AuditOverflowPolicy}.
+ */
+public class TodoAuditLog implements MeterBinder {
+
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final AuditRingBuffer buffer;
+    private final AuditOverflowPolicy overflowPolicy;
+    private final int sampleRate;
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicLong overflowed = new AtomicLong();
+
+    public TodoAuditLog(int capacity, AuditOverflowPolicy overflowPolicy, int sampleRate) {
+        this.buffer = new AuditRingBuffer(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.sampleRate = Math.max(1, sampleRate);
+    }
+
+    /**
+     * Records the events once the current transaction commits, or at once outside a transaction. Events of a
+     * rolled back transaction are discarded.
+     */
+    public void recordAfterCommit(List<AuditEvent> events) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            events.forEach(this::record);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                events.forEach(TodoAuditLog.this::record);
+            }
+        });
+    }
+
+    void record(AuditEvent event) {
+        if (buffer.offer(event)) {
+            accepted.increment();
+            return;
+        }
+        boolean wait = switch (overflowPolicy) {
+            case BLOCK -> true;
+            case DROP -> false;
+            case SAMPLE -> overflowed.incrementAndGet() % sampleRate == 0;
+        };
+        if (!wait) {
+            dropped.increment();
+            return;
+        }
+        while (!buffer.offer(event)) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+        }
+        accepted.increment();
+    }
+
+    int drainTo(List<AuditEvent> batch, int max) {
+        return buffer.drainTo(batch, max);
+    }
+
+    int depth() {
+        return buffer.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.audit.queue.depth", buffer, AuditRingBuffer::size)
+                .description("Audit events waiting to be written")
+                .register(registry);
+        Gauge.builder("todo.audit.queue.capacity", buffer, AuditRingBuffer::capacity)
+                .description("Capacity of the audit event ring buffer")
+                .register(registry);
+        FunctionCounter.builder("todo.audit.events", accepted, LongAdder::sum)
+                .description("Audit events by what happened to them")
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("todo.audit.events", dropped, LongAdder::sum)
+                .description("Audit events by what happened to them")
+                .tag("result", "dropped")
+                .register(registry);
+    }
+
+}
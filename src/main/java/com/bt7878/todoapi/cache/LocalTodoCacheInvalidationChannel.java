@@ -0,0 +1,24 @@
+package com.bt7878.todoapi.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * In-process channel that delivers every invalidation synchronously to all subscribers.
+ */
+public class LocalTodoCacheInvalidationChannel implements TodoCacheInvalidationChannel {
+
+    private final List<Consumer<Long>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(Long id) {
+        listeners.forEach(listener -> listener.accept(id));
+    }
+
+    @Override
+    public void subscribe(Consumer<Long> listener) {
+        listeners.add(listener);
+    }
+
+}
@@ -0,0 +1,142 @@
+package com.bt7878.todoapi.cache;
+
+import com.bt7878.todoapi.model.Todo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of todos by id. Evictions are broadcast through the
+ * {@link TodoCacheInvalidationChannel} so that every node drops its copy.
+ * <p>
+ * Every eviction, local or received from another node, also advances the {@link #changeTag() change tag},
+ * which tells whether any todo may have changed since an earlier read.
+ * <p>
+ * When reads are served by replicas, a read that races with a write can load the old row from a replica that has
+ * not caught up yet and cache it after the eviction. {@link TodoCacheProperties#reevictAfter()} repeats every
+ * eviction once the replicas have caught up, which also advances the change tag again.
+ */
+@Component
+public class TodoCache implements MeterBinder {
+
+    private final Cache<Long, Todo> cache;
+    private final TodoCacheInvalidationChannel invalidationChannel;
+    private final String epoch = Long.toHexString(ThreadLocalRandom.current().nextLong());
+    private final AtomicLong changes = new AtomicLong();
+    private final Executor reevictions;
+    private final List<Consumer<Long>> evictionListeners = new CopyOnWriteArrayList<>();
+
+    public TodoCache(TodoCacheProperties properties, TodoCacheInvalidationChannel invalidationChannel) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfterWrite(properties.expireAfterWrite())
+                .recordStats()
+                .build();
+        this.invalidationChannel = invalidationChannel;
+        this.reevictions = properties.reevictAfter().isPositive()
+                ? CompletableFuture.delayedExecutor(properties.reevictAfter().toMillis(), TimeUnit.MILLISECONDS)
+                : null;
+        invalidationChannel.subscribe(id -> {
+            cache.invalidate(id);
+            changes.incrementAndGet();
+            evictionListeners.forEach(listener -> listener.accept(id));
+        });
+    }
+
+    /**
+     * Returns the cached todo, or loads it with {@code loader} and caches it if found.
+     * Missing todos are not cached.
+     * <p>
+     * The load runs inside the cache's atomic compute for {@code id}. An eviction of the same id waits for a running
+     * load and then removes what it cached, so a row read before a write commits cannot outlive that write's
+     * eviction. Other lookups of the same id wait for the running load too.
+     */
+    public Optional<Todo> get(Long id, Function<Long, Optional<Todo>> loader) {
+        return Optional.ofNullable(cache.get(id, key -> loader.apply(key).orElse(null)));
+    }
+
+    public void evict(Long id) {
+        evictAll(List.of(id));
+    }
+
+    /**
+     * Evicts the todos on this node and on every other node. Inside a transaction the eviction is deferred
+     * until after commit, so that a concurrent read cannot cache the old row again: a load that started earlier
+     * finishes before the eviction removes its result, and one that starts later reads the committed row.
+     */
+    public void evictAll(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            List<Long> pending = List.copyOf(ids);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    broadcast(pending);
+                }
+            });
+        } else {
+            broadcast(ids);
+        }
+    }
+
+    /**
+     * Calls {@code listener} with the id of every todo evicted on this node, whether by a local write or by one on
+     * another node. A todo may be reported more than once per eviction.
+     */
+    public void addEvictionListener(Consumer<Long> listener) {
+        evictionListeners.add(listener);
+    }
+
+    /**
+     * Opaque tag that changes whenever a todo is created, updated or deleted on any node. Tags are node-local:
+     * two nodes, or one node before and after a restart, never hand out the same tag for different data.
+     * Read it before the data it describes, so that a concurrent commit can only make the tag older than the data.
+     */
+    public String changeTag() {
+        return epoch + "-" + changes.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "todos");
+    }
+
+    long size() {
+        return cache.estimatedSize();
+    }
+
+    private void broadcast(Collection<Long> ids) {
+        invalidate(ids);
+        if (reevictions != null) {
+            List<Long> pending = List.copyOf(ids);
+            reevictions.execute(() -> invalidate(pending));
+        }
+    }
+
+    private void invalidate(Collection<Long> ids) {
+        cache.invalidateAll(ids);
+        changes.incrementAndGet();
+        evictionListeners.forEach(ids::forEach);
+        ids.forEach(invalidationChannel::publish);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.bt7878.todoapi.cache;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(TodoCacheProperties.class)
+class TodoCacheConfig {
+
+    @Bean
+    @ConditionalOnMissingBean
+    TodoCacheInvalidationChannel todoCacheInvalidationChannel() {
+        return new LocalTodoCacheInvalidationChannel();
+    }
+
+}
@@ -0,0 +1,16 @@
+package com.bt7878.todoapi.cache;
+
+import java.util.function.Consumer;
+
+/**
+ * Broadcasts todo cache invalidations to every API node. Implementations backed by a message broker let
+ * several nodes keep their local caches consistent; {@link LocalTodoCacheInvalidationChannel} is used when
+ * no other implementation is configured.
+ */
+public interface TodoCacheInvalidationChannel {
+
+    void publish(Long id);
+
+    void subscribe(Consumer<Long> listener);
+
+}
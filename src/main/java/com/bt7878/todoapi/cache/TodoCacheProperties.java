@@ -0,0 +1,17 @@
+package com.bt7878.todoapi.cache;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param reevictAfter if positive, every eviction is repeated after this delay, so that a row read from a lagging
+ *                     replica and cached in between is dropped again; {@code 0} turns this off
+ */
+@ConfigurationProperties("todo.cache")
+public record TodoCacheProperties(
+        @DefaultValue("10000") long maximumSize,
+        @DefaultValue("10m") Duration expireAfterWrite,
+        @DefaultValue("0s") Duration reevictAfter) {
+}
@@ -0,0 +1,98 @@
+package com.bt7878.todoapi.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerCodecConfigurer;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+import org.springframework.web.reactive.accept.RequestedContentTypeResolverBuilder;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Runs the reactive stack on Netty. Tomcat is on the classpath for the servlet stack and would otherwise be
+ * picked as the reactive server too. Also resolves {@link Tenant} parameters, like {@link TenantConfig} does for
+ * the servlet stack, and adds CBOR and Smile like {@link BinaryFormatConfig}.
+ */
+@Configuration
+@Profile("reactive")
+class ReactiveServerConfig implements WebFluxConfigurer {
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders;
+
+    ReactiveServerConfig(ObjectProvider<Jackson2ObjectMapperBuilder> objectMapperBuilders) {
+        this.objectMapperBuilders = objectMapperBuilders;
+    }
+
+    @Bean
+    NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new ReactiveTenantArgumentResolver());
+    }
+
+    @Override
+    public void configureContentTypeResolver(RequestedContentTypeResolverBuilder builder) {
+        // Custom writers such as CBOR come before the default JSON one, and the first writer would otherwise win for
+        // Accept: */* or no Accept header. Anything else is still allowed, so NDJSON exports need no Accept header.
+        builder.headerResolver();
+        builder.fixedResolver(MediaType.APPLICATION_JSON, MediaType.ALL);
+    }
+
+    @Override
+    public void configureHttpMessageCodecs(ServerCodecConfigurer configurer) {
+        // The mapper-taking constructors default to the JSON media types, so the binary ones are passed explicitly
+        ObjectMapper cbor = objectMapperBuilders.getObject().factory(new CBORFactory()).build();
+        configurer.customCodecs().register(new CborEncoder(cbor));
+        configurer.customCodecs().register(new Jackson2CborDecoder(cbor, MediaType.APPLICATION_CBOR));
+        ObjectMapper smile = objectMapperBuilders.getObject().factory(new SmileFactory()).build();
+        configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smile, APPLICATION_SMILE));
+        configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smile, APPLICATION_SMILE));
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} only implements {@code encodeValue}, but {@code EncoderHttpMessageWriter} always
+     * calls {@code encode}, so single values are passed through here. Streams of values are still not supported.
+     */
+    private static class CborEncoder extends Jackson2CborEncoder {
+
+        CborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> value) {
+                return value.map(v -> encodeValue(v, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+
+    }
+
+}
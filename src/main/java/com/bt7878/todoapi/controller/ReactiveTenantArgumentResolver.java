@@ -0,0 +1,26 @@
+package com.bt7878.todoapi.controller;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.HandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+/**
+ * Resolves {@link Tenant} parameters on the reactive stack.
+ */
+class ReactiveTenantArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(Tenant.class);
+    }
+
+    @Override
+    public Mono<Object> resolveArgument(MethodParameter parameter, BindingContext bindingContext,
+                                        ServerWebExchange exchange) {
+        return Mono.fromCallable(() -> TenantArgumentResolver.owner(
+                exchange.getRequest().getHeaders().getFirst(Tenant.HEADER)));
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.service.ReactiveTodoService;
+import com.bt7878.todoapi.service.TodoService;
+import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+
+/**
+ * WebFlux counterpart of {@link TodoController}, served instead of it under the {@code reactive} profile.
+ */
+@RestController
+@RequestMapping("/api/todos")
+@Profile("reactive")
+class ReactiveTodoController {
+
+    private final ReactiveTodoService todoService;
+
+    public ReactiveTodoController(ReactiveTodoService todoService) {
+        this.todoService = todoService;
+    }
+
+    @GetMapping
+    public Mono<TodoPage> getTodos(@Tenant String owner,
+                                   @RequestParam(defaultValue = "0") long after,
+                                   @RequestParam(required = false) Boolean completed,
+                                   @RequestParam(required = false) String titlePrefix,
+                                   @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE) int limit) {
+        return todoService.getTodos(owner, after, completed, titlePrefix, limit);
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Todo> exportTodos(@Tenant String owner) {
+        return todoService.exportTodos(owner);
+    }
+
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> getTodoById(@Tenant String owner, @PathVariable Long id) {
+        return todoService.getTodoById(owner, id)
+                .map(ReactiveTodoController::withETag)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @PostMapping
+    public Mono<Todo> createTodo(@Tenant String owner, @Valid @RequestBody Todo todo) {
+        return todoService.createTodo(owner, todo);
+    }
+
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Todo>> updateTodo(@Tenant String owner, @PathVariable Long id,
+                                                 @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                                 @Valid @RequestBody Todo todo) {
+        Long version = TodoController.ifMatchVersion(ifMatch);
+        Mono<Todo> updatedTodo = version == null
+                ? todoService.updateTodo(owner, id, todo)
+                : todoService.updateTodo(owner, id, todo, version);
+        return updatedTodo
+                .map(ReactiveTodoController::withETag)
+                .defaultIfEmpty(ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteTodo(@Tenant String owner, @PathVariable Long id,
+                                                 @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        Long version = TodoController.ifMatchVersion(ifMatch);
+        Mono<Boolean> result = version == null
+                ? todoService.deleteTodo(owner, id)
+                : todoService.deleteTodo(owner, id, version);
+        return result
+                .map(deleted -> deleted
+                        ? ResponseEntity.noContent().<Void>build()
+                        : ResponseEntity.notFound().<Void>build());
+    }
+
+    private static ResponseEntity<Todo> withETag(Todo todo) {
+        String eTag = todo.getVersion() == null ? null : todo.getVersion().toString();
+        return ResponseEntity.ok().eTag(eTag).body(todo);
+    }
+
+}
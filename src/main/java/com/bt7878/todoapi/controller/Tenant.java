@@ -0,0 +1,22 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.Todo;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Binds a {@code String} handler parameter to the owner named by the {@value #HEADER} request header, or to
+ * {@link Todo#DEFAULT_OWNER} if the header is absent.
+ *
+ * @see TenantArgumentResolver
+ */
+@Target(ElementType.PARAMETER)
+@Retention(RetentionPolicy.RUNTIME)
+@interface Tenant {
+
+    String HEADER = "X-Tenant-Id";
+
+}
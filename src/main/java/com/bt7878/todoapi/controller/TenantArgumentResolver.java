@@ -0,0 +1,44 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.exception.InvalidTenantException;
+import com.bt7878.todoapi.model.Todo;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+import java.util.regex.Pattern;
+
+/**
+ * Resolves {@link Tenant} parameters on the servlet stack.
+ */
+class TenantArgumentResolver implements HandlerMethodArgumentResolver {
+
+    private static final Pattern VALID_TENANT = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.hasParameterAnnotation(Tenant.class);
+    }
+
+    @Override
+    public String resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+                                  NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        return owner(webRequest.getHeader(Tenant.HEADER));
+    }
+
+    /**
+     * @throws InvalidTenantException if the header is not 1 to 64 letters, digits, dots, dashes or underscores
+     */
+    static String owner(String header) {
+        if (header == null) {
+            return Todo.DEFAULT_OWNER;
+        }
+        if (!VALID_TENANT.matcher(header).matches()) {
+            throw new InvalidTenantException();
+        }
+        return header;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoBulkJob;
+import com.bt7878.todoapi.model.TodoBulkJob.Operation;
+import com.bt7878.todoapi.service.TodoBulkService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * Bulk operations over all todos of the owner. They run in the background and answer {@code 202 Accepted} with
+ * the job, whose {@code Location} can be polled for progress and deleted to cancel it.
+ */
+@RestController
+@RequestMapping("/api/todos")
+@Profile("!reactive")
+class TodoBulkController {
+
+    private final TodoBulkService todoBulkService;
+
+    public TodoBulkController(TodoBulkService todoBulkService) {
+        this.todoBulkService = todoBulkService;
+    }
+
+    @PostMapping("/complete-all")
+    public ResponseEntity<TodoBulkJob> completeAll(@Tenant String owner, UriComponentsBuilder uriBuilder) {
+        return accepted(todoBulkService.start(owner, Operation.COMPLETE_ALL), uriBuilder);
+    }
+
+    /**
+     * Deletes all completed todos. Only {@code completed=true} is supported.
+     */
+    @DeleteMapping(params = "completed")
+    public ResponseEntity<TodoBulkJob> deleteCompleted(@Tenant String owner, @RequestParam boolean completed,
+                                                       UriComponentsBuilder uriBuilder) {
+        if (!completed) {
+            return ResponseEntity.badRequest().build();
+        }
+        return accepted(todoBulkService.start(owner, Operation.DELETE_COMPLETED), uriBuilder);
+    }
+
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<TodoBulkJob> getJob(@Tenant String owner, @PathVariable String id) {
+        return ResponseEntity.of(todoBulkService.get(owner, id));
+    }
+
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<TodoBulkJob> cancelJob(@Tenant String owner, @PathVariable String id) {
+        return ResponseEntity.of(todoBulkService.cancel(owner, id));
+    }
+
+    private static ResponseEntity<TodoBulkJob> accepted(TodoBulkJob job, UriComponentsBuilder uriBuilder) {
+        return ResponseEntity.accepted()
+                .location(uriBuilder.path("/api/todos/jobs/{id}").buildAndExpand(job.id()).toUri())
+                .body(job);
+    }
+
+}
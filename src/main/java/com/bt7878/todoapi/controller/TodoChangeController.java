@@ -0,0 +1,47 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.service.TodoChangeService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/todos/changes")
+@Profile("!reactive")
+class TodoChangeController {
+
+    private final TodoChangeService todoChangeService;
+    private final TodoChangeStream todoChangeStream;
+
+    public TodoChangeController(TodoChangeService todoChangeService, TodoChangeStream todoChangeStream) {
+        this.todoChangeService = todoChangeService;
+        this.todoChangeStream = todoChangeStream;
+    }
+
+    @GetMapping
+    public TodoChangePage getChanges(@Tenant String owner,
+                                     @RequestParam(defaultValue = "0") long since,
+                                     @RequestParam(defaultValue = "" + TodoChangeService.DEFAULT_PAGE_SIZE) int limit) {
+        return todoChangeService.getChanges(owner, since, limit);
+    }
+
+    @GetMapping("/cursor")
+    public TodoChangePage getCursor() {
+        return new TodoChangePage(List.of(), todoChangeService.getCursor());
+    }
+
+    /**
+     * Server-Sent Events stream of changes. Browsers reconnect with {@code Last-Event-ID}, which takes precedence
+     * over {@code since}.
+     */
+    @GetMapping("/stream")
+    public SseEmitter streamChanges(@Tenant String owner,
+                                    @RequestParam(defaultValue = "0") long since,
+                                    @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        return todoChangeStream.subscribe(owner, lastEventId != null ? lastEventId : since);
+    }
+
+}
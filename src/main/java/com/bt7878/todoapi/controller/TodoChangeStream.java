@@ -0,0 +1,202 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.service.TodoChangeProperties;
+import com.bt7878.todoapi.service.TodoChangeService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pushes the change feed to Server-Sent Events subscribers. One poller per node reads new changes and fans them
+ * out, so the database load does not grow with the number of subscribers.
+ * <p>
+ * The poller remembers which changes it has sent since its settled cursor, so that changes committing late with a
+ * lower {@code seq} are still sent, and earlier ones are not sent twice. It only queues changes; each subscriber
+ * sends its queue on a virtual thread of its own, so a slow client cannot hold up the poller or the other
+ * subscribers. While no stream is open, the poller does not query at all.
+ */
+@Component
+@Profile("!reactive")
+class TodoChangeStream implements MeterBinder {
+
+    private final TodoChangeService todoChangeService;
+    private final TodoChangeProperties properties;
+    private final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+
+    // Only accessed by the poller thread
+    private final Set<Long> sent = new HashSet<>();
+    private long settled = -1;
+
+    TodoChangeStream(TodoChangeService todoChangeService, TodoChangeProperties properties) {
+        this.todoChangeService = todoChangeService;
+        this.properties = properties;
+    }
+
+    /**
+     * Opens a stream of changes to the todos of {@code owner} that first replays the changes after {@code since}
+     * and then follows new ones. Replayed and live changes can overlap; each event carries its {@code seq} as the
+     * event id.
+     */
+    SseEmitter subscribe(String owner, long since) {
+        todoChangeService.checkRetained(since);
+        // Taken before the replay, so that an idle poller starting from it does not miss changes committed meanwhile
+        Subscriber subscriber = new Subscriber(owner, todoChangeService.getCursor());
+        subscriber.emitter.onCompletion(() -> subscribers.remove(subscriber));
+        subscriber.emitter.onError(e -> subscribers.remove(subscriber));
+        // Registered before the replay, so that changes committed meanwhile are not missed
+        subscribers.add(subscriber);
+        // Replayed off the request thread: events sent before the handler returns are buffered in memory
+        Thread.ofVirtual().name("todo-change-stream").start(() -> subscriber.replay(since));
+        return subscriber.emitter;
+    }
+
+    @Scheduled(initialDelayString = "${todo.changes.poll-interval:500ms}",
+            fixedDelayString = "${todo.changes.poll-interval:500ms}")
+    void poll() {
+        if (subscribers.isEmpty()) {
+            settled = -1;
+            sent.clear();
+            return;
+        }
+        if (settled < 0) {
+            // Every subscriber registered after the poller went idle; start where the earliest of them did
+            settled = subscribers.stream().mapToLong(Subscriber::start).min().orElse(-1);
+            if (settled < 0) {
+                return;
+            }
+        }
+        long cursor = settled;
+        long nextSettled = settled;
+        TodoChangePage page;
+        do {
+            page = todoChangeService.getAllChanges(cursor, TodoChangeService.MAX_PAGE_SIZE);
+            for (TodoChange change : page.changes()) {
+                if (sent.add(change.getSeq())) {
+                    broadcast(change);
+                }
+                cursor = change.getSeq();
+            }
+            nextSettled = Math.max(nextSettled, page.next());
+        } while (page.changes().size() == TodoChangeService.MAX_PAGE_SIZE);
+
+        settled = nextSettled;
+        sent.removeIf(seq -> seq <= settled);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.changes.subscribers", subscribers, List::size)
+                .description("Open change feed event streams")
+                .register(registry);
+    }
+
+    private void broadcast(TodoChange change) {
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.owner.equals(change.getOwner())) {
+                subscriber.offer(change);
+            }
+        }
+    }
+
+    private static SseEmitter.SseEventBuilder event(TodoChange change) {
+        return SseEmitter.event()
+                .id(change.getSeq().toString())
+                .name("change")
+                .data(change, MediaType.APPLICATION_JSON);
+    }
+
+    /**
+     * One open stream. Live changes wait in a queue of {@code todo.changes.sse-buffer} changes, which one virtual
+     * thread at a time sends, after the replay.
+     */
+    private final class Subscriber {
+
+        private final String owner;
+        private final long start;
+        private final SseEmitter emitter = new SseEmitter(properties.sseTimeout().toMillis());
+        private final BlockingQueue<TodoChange> queue = new ArrayBlockingQueue<>(properties.sseBuffer());
+        // Set while a thread sends to the client; the replay holds it from the start
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+
+        Subscriber(String owner, long start) {
+            this.owner = owner;
+            this.start = start;
+        }
+
+        long start() {
+            return start;
+        }
+
+        /**
+         * Queues a live change. A subscriber that falls a full queue behind is disconnected, so that it reconnects
+         * from its last event id instead of holding changes in memory.
+         */
+        void offer(TodoChange change) {
+            if (!queue.offer(change)) {
+                subscribers.remove(this);
+                emitter.complete();
+                return;
+            }
+            if (sending.compareAndSet(false, true)) {
+                Thread.ofVirtual().name("todo-change-stream").start(this::sendQueued);
+            }
+        }
+
+        void replay(long since) {
+            long cursor = since;
+            List<TodoChange> changes;
+            try {
+                do {
+                    changes = todoChangeService.getChanges(owner, cursor, TodoChangeService.MAX_PAGE_SIZE).changes();
+                    for (TodoChange change : changes) {
+                        emitter.send(event(change));
+                        cursor = change.getSeq();
+                    }
+                } while (changes.size() == TodoChangeService.MAX_PAGE_SIZE);
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                return;
+            } catch (RuntimeException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            }
+            sendQueued();
+        }
+
+        private void sendQueued() {
+            do {
+                TodoChange change;
+                while ((change = queue.poll()) != null) {
+                    try {
+                        emitter.send(event(change));
+                    } catch (IOException | IllegalStateException e) {
+                        // The client went away; the emitter's error callback may not run until the next write
+                        subscribers.remove(this);
+                        return;
+                    }
+                }
+                sending.set(false);
+                // A change queued after the last poll but before the flag was cleared found no thread to send it
+            } while (!queue.isEmpty() && sending.compareAndSet(false, true));
+        }
+
+    }
+
+}
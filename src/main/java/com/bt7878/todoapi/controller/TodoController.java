@@ -1,58 +1,187 @@
 package com.bt7878.todoapi.controller;
 
+import com.bt7878.todoapi.model.BatchItemResult;
 import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoPatch;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.service.TodoIdempotencyService;
 import com.bt7878.todoapi.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.validation.Valid;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ETag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Optional;
 
+import static org.springframework.http.HttpHeaders.IF_MATCH;
+
 @RestController
 @RequestMapping("/api/todos")
+@Profile("!reactive")
 class TodoController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final TodoService todoService;
+    private final TodoIdempotencyService todoIdempotencyService;
+    private final ObjectMapper objectMapper;
 
-    public TodoController(TodoService todoService) {
+    public TodoController(TodoService todoService, TodoIdempotencyService todoIdempotencyService,
+                          ObjectMapper objectMapper) {
         this.todoService = todoService;
+        this.todoIdempotencyService = todoIdempotencyService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
-    public List<Todo> getAllTodos() {
-        return todoService.getAllTodos();
+    public TodoPage getTodos(@Tenant String owner,
+                             @RequestParam(defaultValue = "0") long after,
+                             @RequestParam(required = false) Boolean completed,
+                             @RequestParam(required = false) String titlePrefix,
+                             @RequestParam(defaultValue = "" + TodoService.DEFAULT_PAGE_SIZE) int limit,
+                             WebRequest request) {
+        // The change tag is checked before querying, so an unchanged list costs no database read. The ETag is weak
+        // because the server compresses large responses, and it does not compress those with a strong ETag.
+        if (request.checkNotModified("W/\"" + todoService.getChangeTag() + "\"")) {
+            return null;
+        }
+        return todoService.getTodos(owner, after, completed, titlePrefix, limit);
+    }
+
+    @GetMapping("/stats")
+    public TodoStats getStats(@Tenant String owner, WebRequest request) {
+        // Stats only change when some todo does, so they are revalidated with the same tag as list pages
+        if (request.checkNotModified("W/\"" + todoService.getChangeTag() + "\"")) {
+            return null;
+        }
+        return todoService.getStats(owner);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTodos(@Tenant String owner,
+                                                             @RequestParam(defaultValue = "ndjson") String format) {
+        return switch (format) {
+            case "ndjson" -> ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_NDJSON)
+                    .body(out -> export(owner, TodoExportWriter.ndjson(objectMapper, out)));
+            case "csv" -> ResponseEntity.ok()
+                    .contentType(TEXT_CSV)
+                    .body(out -> export(owner, TodoExportWriter.csv(out)));
+            default -> ResponseEntity.badRequest().build();
+        };
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Todo> getTodoById(@PathVariable Long id) {
-        Optional<Todo> todo = todoService.getTodoById(id);
-        return todo.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Todo> getTodoById(@Tenant String owner, @PathVariable Long id) {
+        Optional<Todo> todo = todoService.getTodoById(owner, id);
+        return todo.map(TodoController::withETag).orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping
-    public Todo createTodo(@Valid @RequestBody Todo todo) {
-        return todoService.saveTodo(todo);
+    public Todo createTodo(@Tenant String owner,
+                           @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+                           @Valid @RequestBody Todo todo) {
+        if (idempotencyKey != null) {
+            return todoIdempotencyService.saveTodo(owner, idempotencyKey, todo);
+        }
+        return todoService.saveTodo(owner, todo);
     }
 
     @PutMapping("/{id}")
-    public ResponseEntity<Todo> updateTodo(@PathVariable Long id, @Valid @RequestBody Todo todo) {
-        Optional<Todo> existingTodo = todoService.getTodoById(id);
-        if (existingTodo.isEmpty()) {
-            return ResponseEntity.notFound().build();
-        }
-        todo.setId(id);
-        return ResponseEntity.ok(todoService.saveTodo(todo));
+    public ResponseEntity<Todo> updateTodo(@Tenant String owner,
+                                           @PathVariable Long id,
+                                           @RequestHeader(value = IF_MATCH, required = false) String ifMatch,
+                                           @Valid @RequestBody Todo todo) {
+        Long version = ifMatchVersion(ifMatch);
+        Optional<Todo> updatedTodo = version == null
+                ? todoService.updateTodo(owner, id, todo)
+                : todoService.updateTodo(owner, id, todo, version);
+        return updatedTodo.map(TodoController::withETag).orElse(ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteTodo(@PathVariable Long id) {
-        Optional<Todo> existingTodo = todoService.getTodoById(id);
-        if (existingTodo.isEmpty()) {
+    public ResponseEntity<Void> deleteTodo(@Tenant String owner,
+                                           @PathVariable Long id,
+                                           @RequestHeader(value = IF_MATCH, required = false) String ifMatch) {
+        Long version = ifMatchVersion(ifMatch);
+        boolean deleted = version == null
+                ? todoService.deleteTodo(owner, id)
+                : todoService.deleteTodo(owner, id, version);
+        if (!deleted) {
             return ResponseEntity.notFound().build();
         }
-        todoService.deleteTodo(id);
         return ResponseEntity.noContent().build();
     }
 
+    @PostMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> createTodos(@Tenant String owner, @RequestBody List<Todo> todos) {
+        if (todos.size() > TodoService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(todoService.createTodos(owner, todos));
+    }
+
+    @PatchMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> updateTodos(@Tenant String owner,
+                                                             @RequestBody List<TodoPatch> patches) {
+        if (patches.size() > TodoService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(todoService.updateTodos(owner, patches));
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<List<BatchItemResult>> deleteTodos(@Tenant String owner, @RequestBody List<Long> ids) {
+        if (ids.size() > TodoService.MAX_BATCH_SIZE) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(todoService.deleteTodos(owner, ids));
+    }
+
+    private void export(String owner, TodoExportWriter writer) throws IOException {
+        try (writer) {
+            todoService.exportTodos(owner, writer);
+        }
+    }
+
+    /**
+     * Strong ETag of a todo, derived from its version. Spring answers {@code If-None-Match} on GET with
+     * {@code 304 Not Modified} when it matches.
+     */
+    private static ResponseEntity<Todo> withETag(Todo todo) {
+        String eTag = todo.getVersion() == null ? null : todo.getVersion().toString();
+        return ResponseEntity.ok().eTag(eTag).body(todo);
+    }
+
+    /**
+     * Version named by an {@code If-Match} header, or {@code null} if the header is absent or {@code *}.
+     * Weak, malformed or multiple tags map to {@code -1}, which never matches a current version.
+     */
+    static Long ifMatchVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.getFirst().isWildcard()) {
+            return null;
+        }
+        if (tags.size() != 1 || tags.getFirst().weak()) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(tags.getFirst().tag());
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
 }
@@ -0,0 +1,114 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.Todo;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * Writes exported todos to a response body one row at a time. The first row is flushed immediately so
+ * the client starts receiving data straight away; after that the output is flushed every {@link #FLUSH_INTERVAL} rows.
+ */
+abstract class TodoExportWriter implements Consumer<Todo>, Closeable {
+
+    private static final int FLUSH_INTERVAL = 1000;
+
+    private long rows;
+
+    static TodoExportWriter ndjson(ObjectMapper objectMapper, OutputStream out) throws IOException {
+        return new NdjsonWriter(objectMapper, out);
+    }
+
+    static TodoExportWriter csv(OutputStream out) throws IOException {
+        return new CsvWriter(out);
+    }
+
+    @Override
+    public void accept(Todo todo) {
+        try {
+            write(todo);
+            if (rows++ % FLUSH_INTERVAL == 0) {
+                flush();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    protected abstract void write(Todo todo) throws IOException;
+
+    protected abstract void flush() throws IOException;
+
+    private static final class NdjsonWriter extends TodoExportWriter {
+
+        private final JsonGenerator generator;
+        private final ObjectWriter writer;
+
+        private NdjsonWriter(ObjectMapper objectMapper, OutputStream out) throws IOException {
+            // Rows are separated by the newline written after each one, not by Jackson's default space
+            this.generator = objectMapper.getFactory().createGenerator(out).setRootValueSeparator(null);
+            this.writer = objectMapper.writerFor(Todo.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+
+        @Override
+        protected void write(Todo todo) throws IOException {
+            writer.writeValue(generator, todo);
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            generator.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.close();
+        }
+
+    }
+
+    private static final class CsvWriter extends TodoExportWriter {
+
+        private final Writer writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writer.write("id,title,completed\n");
+        }
+
+        @Override
+        protected void write(Todo todo) throws IOException {
+            writer.write(String.valueOf(todo.getId()));
+            writer.write(',');
+            writer.write(escape(todo.getTitle()));
+            writer.write(',');
+            writer.write(String.valueOf(todo.isCompleted()));
+            writer.write('\n');
+        }
+
+        @Override
+        protected void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+
+    }
+
+}
@@ -0,0 +1,42 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoSearchPage;
+import com.bt7878.todoapi.search.TodoSearchIndex.Cursor;
+import com.bt7878.todoapi.search.TodoSearchService;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/todos/search")
+@Profile("!reactive")
+class TodoSearchController {
+
+    private final TodoSearchService todoSearchService;
+
+    public TodoSearchController(TodoSearchService todoSearchService) {
+        this.todoSearchService = todoSearchService;
+    }
+
+    @GetMapping
+    public ResponseEntity<TodoSearchPage> search(
+            @Tenant String owner,
+            @RequestParam String q,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "" + TodoSearchService.DEFAULT_PAGE_SIZE) int limit) {
+        if (q.isBlank()) {
+            return ResponseEntity.badRequest().build();
+        }
+        Optional<Cursor> cursor = after == null ? Optional.empty() : Cursor.parse(after);
+        if (after != null && cursor.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(todoSearchService.search(owner, q, cursor.orElse(null), limit));
+    }
+
+}
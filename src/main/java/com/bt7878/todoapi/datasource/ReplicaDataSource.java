@@ -0,0 +1,164 @@
+package com.bt7878.todoapi.datasource;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hands out connections to the replicas in turn, skipping replicas that failed their last health check or were
+ * further behind the primary than the allowed lag. Falls back to the primary when no replica is usable.
+ * <p>
+ * Replicas start out unusable until {@link #checkHealth()} has checked them.
+ */
+@Slf4j
+public class ReplicaDataSource extends AbstractDataSource implements MeterBinder, AutoCloseable {
+
+    private static final int CHECK_TIMEOUT_SECONDS = 2;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final String lagQuery;
+    private final AtomicInteger next = new AtomicInteger();
+    private final LongAdder fallbacks = new LongAdder();
+
+    /**
+     * @param replicas replica data sources by name, in the order they are tried
+     * @param lagQuery query returning a replica's lag in seconds, or blank to only check connectivity
+     */
+    public ReplicaDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream().map(e -> new Replica(e.getKey(), e.getValue())).toList();
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(replicas.size(), 1));
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (replica.healthy) {
+                try {
+                    return replica.dataSource.getConnection();
+                } catch (SQLException e) {
+                    markDown(replica, e.getMessage());
+                }
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("Replica connections use the configured credentials");
+    }
+
+    /**
+     * Checks every replica's connectivity and lag, and makes it usable or unusable accordingly.
+     */
+    @Scheduled(fixedDelayString = "${todo.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        replicas.forEach(this::check);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Replica replica : replicas) {
+            Gauge.builder("todo.replicas.healthy", replica, r -> r.healthy ? 1 : 0)
+                    .description("Whether the replica currently serves reads")
+                    .tag("replica", replica.name)
+                    .register(registry);
+            Gauge.builder("todo.replicas.lag", replica, r -> r.lagSeconds)
+                    .description("Replica lag at the last health check")
+                    .tag("replica", replica.name)
+                    .baseUnit("seconds")
+                    .register(registry);
+        }
+        FunctionCounter.builder("todo.replicas.fallbacks", fallbacks, LongAdder::sum)
+                .description("Read-only connections taken from the primary because no replica was usable")
+                .register(registry);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void check(Replica replica) {
+        try (Connection connection = replica.dataSource.getConnection()) {
+            double lagSeconds = lagSeconds(connection);
+            replica.lagSeconds = lagSeconds;
+            if (lagSeconds * 1000 > maxLag.toMillis()) {
+                markDown(replica, "lag of " + lagSeconds + "s exceeds " + maxLag);
+            } else if (!replica.healthy) {
+                replica.healthy = true;
+                log.info("Replica {} is serving reads", replica.name);
+            }
+        } catch (SQLException | RuntimeException e) {
+            replica.lagSeconds = Double.NaN;
+            markDown(replica, e.getMessage());
+        }
+    }
+
+    private double lagSeconds(Connection connection) throws SQLException {
+        if (lagQuery.isBlank()) {
+            if (!connection.isValid(CHECK_TIMEOUT_SECONDS)) {
+                throw new SQLException("Connection is not valid");
+            }
+            return 0;
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.setQueryTimeout(CHECK_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = statement.executeQuery(lagQuery)) {
+                if (!resultSet.next()) {
+                    throw new SQLException("Lag query returned no rows");
+                }
+                return resultSet.getDouble(1);
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Replica {} stopped serving reads: {}", replica.name, reason);
+        }
+    }
+
+    private static final class Replica {
+
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy;
+        private volatile double lagSeconds = Double.NaN;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+    }
+
+}
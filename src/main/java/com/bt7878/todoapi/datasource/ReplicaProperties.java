@@ -0,0 +1,30 @@
+package com.bt7878.todoapi.datasource;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * @param enabled  send read-only transactions to the replicas
+ * @param nodes    the replicas, tried in turn
+ * @param maxLag   replicas further behind the primary than this are skipped until they catch up
+ * @param lagQuery query returning how many seconds a replica is behind the primary; if blank, only connectivity is
+ *                 checked
+ */
+@ConfigurationProperties("todo.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<Node> nodes,
+        @DefaultValue("5s") Duration maxLag,
+        @DefaultValue("") String lagQuery) {
+
+    /**
+     * @param username defaults to {@code spring.datasource.username}
+     * @param password defaults to {@code spring.datasource.password}
+     */
+    public record Node(String url, String username, String password) {
+    }
+
+}
@@ -0,0 +1,84 @@
+package com.bt7878.todoapi.datasource;
+
+import com.bt7878.todoapi.cache.TodoCacheProperties;
+import com.bt7878.todoapi.service.TodoChangeProperties;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends read-only transactions to the replicas in {@link ReplicaProperties} and all other work to the primary
+ * configured by {@code spring.datasource.*}.
+ * <p>
+ * The {@link LazyConnectionDataSourceProxy} only takes a connection when the first statement runs, after the
+ * transaction manager has marked the connection read-only, so it can pick the data source by that flag.
+ */
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.replicas.enabled", havingValue = "true")
+@EnableConfigurationProperties(ReplicaProperties.class)
+class ReplicaRoutingConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    ReplicaDataSource replicaDataSource(HikariDataSource primaryDataSource, DataSourceProperties dataSourceProperties,
+                                        ReplicaProperties properties, TodoChangeProperties changeProperties,
+                                        TodoCacheProperties cacheProperties) {
+        checkLagCovered(properties.maxLag(), changeProperties.grace(), "todo.changes.grace");
+        checkLagCovered(properties.maxLag(), cacheProperties.reevictAfter(), "todo.cache.reevict-after");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        List<ReplicaProperties.Node> nodes = properties.nodes();
+        for (int i = 0; i < nodes.size(); i++) {
+            ReplicaProperties.Node node = nodes.get(i);
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(node.url())
+                    .username(node.username() != null ? node.username() : dataSourceProperties.determineUsername())
+                    .password(node.password() != null ? node.password() : dataSourceProperties.determinePassword())
+                    .build();
+            replica.setPoolName("replica-" + i);
+            replica.setReadOnly(true);
+            replicas.put(replica.getPoolName(), replica);
+        }
+        return new ReplicaDataSource(primaryDataSource, replicas, properties.maxLag(), properties.lagQuery());
+    }
+
+    @Bean
+    @Primary
+    DataSource dataSource(HikariDataSource primaryDataSource, ReplicaDataSource replicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(replicaDataSource);
+        return dataSource;
+    }
+
+    /**
+     * A replica may serve data up to {@code maxLag} old. The change feed and the cache must allow for that, or feed
+     * cursors skip changes that a replica has not shown yet and the cache keeps rows that were already replaced.
+     */
+    private static void checkLagCovered(Duration maxLag, Duration allowance, String property) {
+        if (allowance.compareTo(maxLag) < 0) {
+            throw new IllegalStateException(
+                    property + " (" + allowance + ") must be at least todo.replicas.max-lag (" + maxLag + ")");
+        }
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.bt7878.todoapi.datasource;
+
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Keeps the migrations in the native executable. Spring Boot only registers the files directly in
+ * {@code db/migration}, and ours are in one folder per database vendor.
+ */
+class SchemaMigrationHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        hints.resources().registerPattern("db/migration/**/*.sql");
+    }
+
+}
@@ -1,11 +1,15 @@
 package com.bt7878.todoapi.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -15,8 +19,83 @@ public class GlobalExceptionHandler {
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Object> handleValidationExceptions(MethodArgumentNotValidException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Object> handleReactiveValidationExceptions(WebExchangeBindException ex) {
+        return validationErrors(ex.getBindingResult());
+    }
+
+    @ExceptionHandler(InvalidTenantException.class)
+    public ResponseEntity<Object> handleInvalidTenant(InvalidTenantException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<Object> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.BAD_REQUEST);
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyReused(IdempotencyKeyReusedException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.UNPROCESSABLE_ENTITY);
+    }
+
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<Object> handleIdempotencyKeyInProgress(IdempotencyKeyInProgressException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TodoVersionMismatchException.class)
+    public ResponseEntity<Object> handleVersionMismatch(TodoVersionMismatchException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @ExceptionHandler(TodoChangesExpiredException.class)
+    public ResponseEntity<Object> handleChangesExpired(TodoChangesExpiredException ex) {
+        return new ResponseEntity<>(Map.of("error", ex.getMessage()), HttpStatus.GONE);
+    }
+
+    @ExceptionHandler(TodoWriteBehindFullException.class)
+    public ResponseEntity<Object> handleWriteBehindFull(TodoWriteBehindFullException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<Object> handleRateLimitExceeded(RateLimitExceededException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ServerOverloadedException.class)
+    public ResponseEntity<Object> handleServerOverloaded(ServerOverloadedException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(TodoBulkJobRunningException.class)
+    public ResponseEntity<Object> handleBulkJobRunning(TodoBulkJobRunningException ex) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .header(HttpHeaders.LOCATION, "/api/todos/jobs/" + ex.getJobId())
+                .body(Map.of("error", ex.getMessage()));
+    }
+
+    @ExceptionHandler(ObjectOptimisticLockingFailureException.class)
+    public ResponseEntity<Object> handleOptimisticLockingFailure(ObjectOptimisticLockingFailureException ex) {
+        return new ResponseEntity<>(Map.of("error", "Todo " + ex.getIdentifier() + " was modified concurrently"),
+                HttpStatus.CONFLICT);
+    }
+
+    private ResponseEntity<Object> validationErrors(BindingResult bindingResult) {
         Map<String, String> errors = new HashMap<>();
-        ex.getBindingResult().getAllErrors().forEach((error) -> {
+        bindingResult.getAllErrors().forEach((error) -> {
             String fieldName = ((FieldError) error).getField();
             String errorMessage = error.getDefaultMessage();
             errors.put(fieldName, errorMessage);
@@ -24,4 +103,4 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(errors, HttpStatus.BAD_REQUEST);
     }
 
-}
\ No newline at end of file
+}
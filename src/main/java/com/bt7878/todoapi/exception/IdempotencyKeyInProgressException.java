@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when a retry with an {@code Idempotency-Key} gives up waiting for the first request with that key.
+ */
+public class IdempotencyKeyInProgressException extends RuntimeException {
+
+    public IdempotencyKeyInProgressException() {
+        super("A request with this Idempotency-Key is still in progress");
+    }
+
+}
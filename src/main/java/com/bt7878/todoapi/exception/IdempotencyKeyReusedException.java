@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when an {@code Idempotency-Key} is sent again with a different request body.
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException() {
+        super("Idempotency-Key was already used for a different request");
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when the {@code Idempotency-Key} header is empty or too long.
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+
+    public InvalidIdempotencyKeyException() {
+        super("Invalid Idempotency-Key header");
+    }
+
+}
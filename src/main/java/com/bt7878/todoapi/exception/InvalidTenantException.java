@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when the tenant header names no valid owner.
+ */
+public class InvalidTenantException extends RuntimeException {
+
+    public InvalidTenantException() {
+        super("Invalid X-Tenant-Id header");
+    }
+
+}
@@ -0,0 +1,13 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when a request is turned away because the server already has as many requests in flight as the database
+ * can currently serve.
+ */
+public class ServerOverloadedException extends RuntimeException {
+
+    public ServerOverloadedException() {
+        super("Server overloaded, retry later");
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when a bulk operation is started while another one is still running for the same owner.
+ */
+public class TodoBulkJobRunningException extends RuntimeException {
+
+    private final String jobId;
+
+    public TodoBulkJobRunningException(String jobId) {
+        super("Bulk operation " + jobId + " is still running");
+        this.jobId = jobId;
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+}
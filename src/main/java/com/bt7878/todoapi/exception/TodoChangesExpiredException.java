@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when a change feed cursor is older than the retained changes. The client has to reload all todos.
+ */
+public class TodoChangesExpiredException extends RuntimeException {
+
+    public TodoChangesExpiredException(long since) {
+        super("Changes since " + since + " are no longer available");
+    }
+
+}
@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when a conditional write names a version of a todo that is no longer current.
+ */
+public class TodoVersionMismatchException extends RuntimeException {
+
+    public TodoVersionMismatchException(Long id) {
+        super("Todo " + id + " has been modified");
+    }
+
+}
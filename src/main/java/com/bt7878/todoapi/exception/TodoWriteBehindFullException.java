@@ -0,0 +1,12 @@
+package com.bt7878.todoapi.exception;
+
+/**
+ * Thrown when the write-behind buffer holds its maximum number of todos and cannot accept another one.
+ */
+public class TodoWriteBehindFullException extends RuntimeException {
+
+    public TodoWriteBehindFullException() {
+        super("Too many pending updates, retry later");
+    }
+
+}
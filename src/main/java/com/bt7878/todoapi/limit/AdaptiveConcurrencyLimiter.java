@@ -0,0 +1,107 @@
+package com.bt7878.todoapi.limit;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Limits the number of requests in flight, adapting the limit to the time requests wait for a database connection.
+ * <p>
+ * While the wait stays within {@code maxPoolWait} the limit grows by one per {@link #adjust(Duration) adjustment},
+ * up to {@code maxLimit}. When the wait exceeds it the limit drops by a quarter, down to {@code minLimit}, so that
+ * excess requests are turned away at once instead of queueing for the pool behind everyone else.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter implements MeterBinder {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Duration maxPoolWait;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private volatile int limit;
+    private volatile Duration poolWait = Duration.ZERO;
+
+    public AdaptiveConcurrencyLimiter(int minLimit, int maxLimit, Duration maxPoolWait) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.maxPoolWait = maxPoolWait;
+        this.limit = maxLimit;
+    }
+
+    /**
+     * Admits a request if fewer than the current limit are in flight. Every admitted request must be
+     * {@link #release() released}.
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                rejected.increment();
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        allowed.increment();
+        return true;
+    }
+
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Lowers or raises the limit according to the recent connection pool wait.
+     */
+    public void adjust(Duration poolWait) {
+        this.poolWait = poolWait;
+        int current = limit;
+        if (poolWait.compareTo(maxPoolWait) > 0) {
+            limit = Math.max(minLimit, current - Math.max(1, current / 4));
+            if (current != limit) {
+                log.warn("Connection pool wait of {}ms, lowering the concurrency limit to {}",
+                        poolWait.toMillis(), limit);
+            }
+        } else {
+            limit = Math.min(maxLimit, current + 1);
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.load-shedding.limit", this, AdaptiveConcurrencyLimiter::limit)
+                .description("Current limit of requests in flight")
+                .register(registry);
+        Gauge.builder("todo.load-shedding.in-flight", this, AdaptiveConcurrencyLimiter::inFlight)
+                .description("Requests in flight")
+                .register(registry);
+        Gauge.builder("todo.load-shedding.pool-wait", this, l -> l.poolWait.toNanos() / 1e9)
+                .description("Connection pool wait the limit was last adjusted to")
+                .baseUnit("seconds")
+                .register(registry);
+        FunctionCounter.builder("todo.load-shedding.requests", allowed, LongAdder::sum)
+                .description("Requests checked against the concurrency limit")
+                .tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("todo.load-shedding.requests", rejected, LongAdder::sum)
+                .description("Requests checked against the concurrency limit")
+                .tag("result", "rejected")
+                .register(registry);
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.bt7878.todoapi.limit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Token bucket per client. Each client may send {@code burst} requests at once and then one request every
+ * {@code 1 / requestsPerSecond} seconds.
+ * <p>
+ * A bucket is a single {@link AtomicLong} holding the time at which it is full again, updated with compare-and-set,
+ * so clients never wait on a lock. A bucket left alone until it is full is the same as no bucket, so buckets expire
+ * after that time and at most {@code maxClients} are kept.
+ */
+public class ClientRateLimiter implements MeterBinder {
+
+    private final long interval;
+    private final long tolerance;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public ClientRateLimiter(double requestsPerSecond, int burst, long maxClients) {
+        this(requestsPerSecond, burst, maxClients, Ticker.systemTicker());
+    }
+
+    ClientRateLimiter(double requestsPerSecond, int burst, long maxClients, Ticker ticker) {
+        this.interval = (long) (Duration.ofSeconds(1).toNanos() / requestsPerSecond);
+        this.tolerance = interval * burst;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(tolerance))
+                .ticker(ticker)
+                .build();
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return {@code 0} if the request may proceed, otherwise the nanoseconds until the bucket has a token again
+     */
+    public long tryAcquire(String client) {
+        AtomicLong fullAt = buckets.get(client, c -> new AtomicLong(Long.MIN_VALUE));
+        while (true) {
+            long now = ticker.read();
+            long current = fullAt.get();
+            long next = Math.max(current, now) + interval;
+            long wait = next - now - tolerance;
+            if (wait > 0) {
+                rejected.increment();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                allowed.increment();
+                return 0;
+            }
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.rate-limit.requests", allowed, LongAdder::sum)
+                .description("Requests checked against the per-client rate limit")
+                .tag("result", "allowed")
+                .register(registry);
+        FunctionCounter.builder("todo.rate-limit.requests", rejected, LongAdder::sum)
+                .description("Requests checked against the per-client rate limit")
+                .tag("result", "rejected")
+                .register(registry);
+    }
+
+}
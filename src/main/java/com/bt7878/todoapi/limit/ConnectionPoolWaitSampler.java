@@ -0,0 +1,70 @@
+package com.bt7878.todoapi.limit;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically feeds the {@link AdaptiveConcurrencyLimiter} the mean time requests waited for a connection since
+ * the previous sample, taken from the {@code hikaricp.connections.acquire} timers of every pool. The pool with the
+ * longest wait counts. A pool with waiting threads that handed out no connection at all counts as having made them
+ * wait for the whole interval.
+ */
+class ConnectionPoolWaitSampler {
+
+    static final String ACQUIRE_TIMER = "hikaricp.connections.acquire";
+    static final String PENDING_GAUGE = "hikaricp.connections.pending";
+
+    private final MeterRegistry meterRegistry;
+    private final AdaptiveConcurrencyLimiter limiter;
+    private final Map<String, Sample> lastSamples = new HashMap<>();
+    private long lastSampledAt = System.nanoTime();
+
+    ConnectionPoolWaitSampler(MeterRegistry meterRegistry, AdaptiveConcurrencyLimiter limiter) {
+        this.meterRegistry = meterRegistry;
+        this.limiter = limiter;
+    }
+
+    @Scheduled(fixedDelayString = "${todo.load-shedding.sample-interval:1s}")
+    synchronized void sample() {
+        long now = System.nanoTime();
+        long elapsed = now - lastSampledAt;
+        lastSampledAt = now;
+
+        long worstWait = 0;
+        for (Timer timer : meterRegistry.find(ACQUIRE_TIMER).timers()) {
+            String pool = timer.getId().getTag("pool");
+            Sample current = new Sample(timer.count(), timer.totalTime(TimeUnit.NANOSECONDS));
+            Sample last = lastSamples.getOrDefault(pool, Sample.NONE);
+            lastSamples.put(pool, current);
+
+            long acquired = current.count - last.count;
+            long wait;
+            if (acquired > 0) {
+                wait = (long) ((current.totalNanos - last.totalNanos) / acquired);
+            } else {
+                wait = pending(pool) > 0 ? elapsed : 0;
+            }
+            worstWait = Math.max(worstWait, wait);
+        }
+        limiter.adjust(Duration.ofNanos(worstWait));
+    }
+
+    private double pending(String pool) {
+        Gauge gauge = meterRegistry.find(PENDING_GAUGE).tag("pool", pool).gauge();
+        return gauge == null ? 0 : gauge.value();
+    }
+
+    private record Sample(long count, double totalNanos) {
+
+        static final Sample NONE = new Sample(0, 0);
+
+    }
+
+}
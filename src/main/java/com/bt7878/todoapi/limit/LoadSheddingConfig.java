@@ -0,0 +1,42 @@
+package com.bt7878.todoapi.limit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.load-shedding.enabled", havingValue = "true")
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+class LoadSheddingConfig implements WebMvcConfigurer {
+
+    private final LoadSheddingProperties properties;
+
+    LoadSheddingConfig(LoadSheddingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    AdaptiveConcurrencyLimiter adaptiveConcurrencyLimiter() {
+        return new AdaptiveConcurrencyLimiter(properties.minLimit(), properties.maxLimit(), properties.maxPoolWait());
+    }
+
+    @Bean
+    ConnectionPoolWaitSampler connectionPoolWaitSampler(MeterRegistry meterRegistry) {
+        return new ConnectionPoolWaitSampler(meterRegistry, adaptiveConcurrencyLimiter());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new LoadSheddingInterceptor(adaptiveConcurrencyLimiter()))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE + 1);
+    }
+
+}
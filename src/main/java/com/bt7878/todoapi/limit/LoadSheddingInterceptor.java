@@ -0,0 +1,55 @@
+package com.bt7878.todoapi.limit;
+
+import com.bt7878.todoapi.exception.ServerOverloadedException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Admits requests through the {@link AdaptiveConcurrencyLimiter} and rejects the rest with
+ * {@link ServerOverloadedException}. Streaming responses give up their slot once the handler has returned, so that
+ * long-lived change streams and exports do not hold it.
+ */
+class LoadSheddingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = LoadSheddingInterceptor.class.getName() + ".permit";
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    LoadSheddingInterceptor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        if (!limiter.tryAcquire()) {
+            throw new ServerOverloadedException();
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, Boolean.TRUE);
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        release(request);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        release(request);
+    }
+
+    private void release(HttpServletRequest request) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) != null) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            limiter.release();
+        }
+    }
+
+}
@@ -0,0 +1,21 @@
+package com.bt7878.todoapi.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled     turn away {@code /api/**} requests with {@code 503} while the database connection pool is
+ *                    overloaded
+ * @param maxPoolWait mean connection wait above which the concurrency limit is lowered
+ * @param minLimit    lowest concurrency limit
+ * @param maxLimit    highest concurrency limit, and the limit at startup
+ */
+@ConfigurationProperties("todo.load-shedding")
+public record LoadSheddingProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50ms") Duration maxPoolWait,
+        @DefaultValue("10") int minLimit,
+        @DefaultValue("200") int maxLimit) {
+}
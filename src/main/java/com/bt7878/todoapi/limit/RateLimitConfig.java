@@ -0,0 +1,38 @@
+package com.bt7878.todoapi.limit;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.rate-limit.enabled", havingValue = "true")
+@EnableConfigurationProperties(RateLimitProperties.class)
+class RateLimitConfig implements WebMvcConfigurer {
+
+    private final RateLimitProperties properties;
+
+    RateLimitConfig(RateLimitProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    ClientRateLimiter clientRateLimiter() {
+        return new ClientRateLimiter(properties.requestsPerSecond(), properties.burst(), properties.maxClients());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // Runs before load shedding, so that a client over its rate does not take a slot from the others
+        registry.addInterceptor(new RateLimitInterceptor(clientRateLimiter(), properties.clientHeader(),
+                        properties.apiKeys()))
+                .addPathPatterns("/api/**")
+                .order(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+}
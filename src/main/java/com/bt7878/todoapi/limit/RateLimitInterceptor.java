@@ -0,0 +1,49 @@
+package com.bt7878.todoapi.limit;
+
+import com.bt7878.todoapi.exception.RateLimitExceededException;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Rejects requests of clients that have used up their rate with {@link RateLimitExceededException}. Clients are
+ * identified by the configured header if it carries one of the known API keys, and otherwise by remote address.
+ * The header is not authenticated, so unknown values must not get buckets of their own: a client could send a new
+ * value with every request and never be limited.
+ */
+class RateLimitInterceptor implements HandlerInterceptor {
+
+    private final ClientRateLimiter limiter;
+    private final String clientHeader;
+    private final Set<String> apiKeys;
+
+    RateLimitInterceptor(ClientRateLimiter limiter, String clientHeader, Set<String> apiKeys) {
+        this.limiter = limiter;
+        this.clientHeader = clientHeader;
+        this.apiKeys = Set.copyOf(apiKeys);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The request was counted when it was first dispatched
+        if (request.getDispatcherType() == DispatcherType.ASYNC) {
+            return true;
+        }
+        long wait = limiter.tryAcquire(client(request));
+        if (wait > 0) {
+            long nanosPerSecond = Duration.ofSeconds(1).toNanos();
+            throw new RateLimitExceededException((wait + nanosPerSecond - 1) / nanosPerSecond);
+        }
+        return true;
+    }
+
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(clientHeader);
+        return key != null && apiKeys.contains(key) ? "key:" + key : "addr:" + request.getRemoteAddr();
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.bt7878.todoapi.limit;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.util.Set;
+
+/**
+ * @param enabled           rate limit {@code /api/**} requests per client
+ * @param clientHeader      request header identifying the client, usually an API key; requests without it are
+ *                          limited by remote address
+ * @param apiKeys           values of {@code clientHeader} that get a bucket of their own; requests with any other
+ *                          value are limited by remote address
+ * @param requestsPerSecond sustained requests per second allowed for each client
+ * @param burst             requests a client may send at once after being idle
+ * @param maxClients        maximum number of clients tracked at once
+ */
+@ConfigurationProperties("todo.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("X-Api-Key") String clientHeader,
+        @DefaultValue Set<String> apiKeys,
+        @DefaultValue("50") double requestsPerSecond,
+        @DefaultValue("100") int burst,
+        @DefaultValue("100000") long maxClients) {
+}
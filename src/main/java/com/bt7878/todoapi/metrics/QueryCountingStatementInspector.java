@@ -0,0 +1,27 @@
+package com.bt7878.todoapi.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread, so they can be attributed to the request
+ * being handled on it.
+ */
+class QueryCountingStatementInspector implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    static int count() {
+        return COUNT.get()[0];
+    }
+
+}
@@ -0,0 +1,35 @@
+package com.bt7878.todoapi.metrics;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.metrics.request-queries.enabled", havingValue = "true")
+class RequestQueryMetricsConfig implements WebMvcConfigurer {
+
+    private final MeterRegistry meterRegistry;
+
+    RequestQueryMetricsConfig(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    HibernatePropertiesCustomizer queryCountingStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCountingStatementInspector());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new RequestQueryCountInterceptor(meterRegistry)).addPathPatterns("/api/**");
+    }
+
+}
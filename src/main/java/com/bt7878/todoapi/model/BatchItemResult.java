@@ -0,0 +1,30 @@
+package com.bt7878.todoapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * Outcome of one item in a batch request. {@code index} is the item's position in the request array,
+ * and {@code errors} maps field names to validation messages for {@link Status#INVALID} items.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchItemResult(int index, Long id, Status status, Map<String, String> errors) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        DELETED,
+        NOT_FOUND,
+        INVALID
+    }
+
+    public static BatchItemResult of(int index, Long id, Status status) {
+        return new BatchItemResult(index, id, status, null);
+    }
+
+    public static BatchItemResult invalid(int index, Long id, Map<String, String> errors) {
+        return new BatchItemResult(index, id, Status.INVALID, errors);
+    }
+
+}
@@ -0,0 +1,103 @@
+package com.bt7878.todoapi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * The todo created by a {@code POST /api/todos} with an {@code Idempotency-Key}, kept so that retries with the same
+ * key get the same todo back. Records are only ever inserted, so that two nodes racing on the same key collide on
+ * the primary key instead of both creating a todo.
+ */
+@Data
+@Entity
+@Table(name = "idempotency_key", indexes = @Index(name = "idx_idempotency_key_created_at", columnList = "created_at"))
+@IdClass(IdempotencyRecord.Key.class)
+public class IdempotencyRecord implements Persistable<IdempotencyRecord.Key> {
+
+    @Id
+    @Column(length = 64)
+    private String owner;
+
+    @Id
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
+    /**
+     * SHA-256 digest of the request body, hex-encoded, to tell a retry from a different request that reuses the key.
+     */
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Column(nullable = false)
+    private Long todoId;
+
+    private String title;
+
+    private boolean completed;
+
+    private Long version;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    public static IdempotencyRecord of(String owner, String idempotencyKey, String requestHash, Todo todo,
+                                       Instant createdAt) {
+        IdempotencyRecord record = new IdempotencyRecord();
+        record.setOwner(owner);
+        record.setIdempotencyKey(idempotencyKey);
+        record.setRequestHash(requestHash);
+        record.setTodoId(todo.getId());
+        record.setTitle(todo.getTitle());
+        record.setCompleted(todo.isCompleted());
+        record.setVersion(todo.getVersion());
+        record.setCreatedAt(createdAt);
+        return record;
+    }
+
+    /**
+     * The todo as it was returned to the first request.
+     */
+    public Todo toTodo() {
+        Todo todo = new Todo();
+        todo.setId(todoId);
+        todo.setOwner(owner);
+        todo.setTitle(title);
+        todo.setCompleted(completed);
+        todo.setVersion(version);
+        return todo;
+    }
+
+    @Override
+    public Key getId() {
+        return new Key(owner, idempotencyKey);
+    }
+
+    @Override
+    @Transient
+    public boolean isNew() {
+        return true;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+
+        private String owner;
+        private String idempotencyKey;
+
+    }
+
+}
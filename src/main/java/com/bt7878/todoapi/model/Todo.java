@@ -1,25 +1,64 @@
 package com.bt7878.todoapi.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 @Data
 @Entity
+@Table(indexes = {
+        @Index(name = "idx_todo_owner_id", columnList = "owner, id"),
+        @Index(name = "idx_todo_owner_completed_id", columnList = "owner, completed, id"),
+        @Index(name = "idx_todo_owner_title", columnList = "owner, title")
+})
 public class Todo {
 
+    /**
+     * Owner of todos created without a tenant, and of all todos that existed before todos had owners.
+     */
+    public static final String DEFAULT_OWNER = "default";
+
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @org.springframework.data.annotation.Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "todo_seq")
+    @SequenceGenerator(name = "todo_seq", sequenceName = "todo_seq", allocationSize = 50)
     private Long id;
 
+    /**
+     * Tenant the todo belongs to. Every query is scoped to one owner, and it never changes after creation.
+     */
+    @Column(nullable = false, length = 64, updatable = false)
+    @JsonIgnore
+    private String owner = DEFAULT_OWNER;
+
     @NotEmpty
     @Size(max = 255)
     private String title;
 
     private boolean completed;
 
+    /**
+     * Incremented on every write and used as the todo's ETag. Assigned by the server only; it is {@code null}
+     * in responses whose version is not known without reading the row again.
+     * <p>
+     * Only JPA treats it as a version: Spring Data JPA rejects its own {@code @Version} on entities, so the
+     * reactive repository compares versions in its statements instead.
+     */
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long version;
+
 }
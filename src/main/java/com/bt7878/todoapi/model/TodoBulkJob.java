@@ -0,0 +1,32 @@
+package com.bt7878.todoapi.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.Instant;
+
+/**
+ * Progress of a bulk operation over all todos of one owner. {@code processed} counts the todos written so far;
+ * {@code finishedAt} and {@code error} are only set once the job has stopped.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record TodoBulkJob(String id, Operation operation, State state, long processed, Instant startedAt,
+                          Instant finishedAt, String error) {
+
+    public enum Operation {
+        COMPLETE_ALL,
+        DELETE_COMPLETED
+    }
+
+    public enum State {
+        RUNNING,
+        CANCELLING,
+        COMPLETED,
+        CANCELLED,
+        FAILED;
+
+        public boolean isFinished() {
+            return this != RUNNING && this != CANCELLING;
+        }
+    }
+
+}
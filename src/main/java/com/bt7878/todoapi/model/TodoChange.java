@@ -0,0 +1,61 @@
+package com.bt7878.todoapi.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * One entry of the change feed: the state of a todo right after a write, or a tombstone if it was deleted.
+ * Changes to the same todo get increasing {@code seq} values in commit order, so a client applies a change only
+ * if its {@code seq} is higher than the last one it applied to that todo.
+ */
+@Data
+@Entity
+@Table(name = "todo_change", indexes = {
+        @Index(name = "idx_todo_change_owner_seq", columnList = "owner, seq"),
+        @Index(name = "idx_todo_change_changed_at", columnList = "changed_at")
+})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class TodoChange {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long seq;
+
+    @Column(nullable = false)
+    private Long todoId;
+
+    @Column(nullable = false, length = 64)
+    @JsonIgnore
+    private String owner;
+
+    private String title;
+
+    private Boolean completed;
+
+    private Long version;
+
+    private boolean deleted;
+
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    public static TodoChange tombstone(String owner, Long todoId, Instant changedAt) {
+        TodoChange change = new TodoChange();
+        change.setTodoId(todoId);
+        change.setOwner(owner);
+        change.setDeleted(true);
+        change.setChangedAt(changedAt);
+        return change;
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.bt7878.todoapi.model;
+
+import java.util.List;
+
+/**
+ * Changes in {@code seq} order. {@code next} is passed back as {@code since} to continue the feed. It can be lower
+ * than the last change in the page while recent transactions may still commit, in which case those changes are
+ * sent again.
+ */
+public record TodoChangePage(List<TodoChange> changes, long next) {
+}
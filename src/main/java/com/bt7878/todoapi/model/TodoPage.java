@@ -0,0 +1,10 @@
+package com.bt7878.todoapi.model;
+
+import java.util.List;
+
+/**
+ * One page of todos. {@code nextCursor} is passed back as {@code after} to fetch the next page
+ * and is {@code null} on the last page.
+ */
+public record TodoPage(List<TodoView> items, Long nextCursor) {
+}
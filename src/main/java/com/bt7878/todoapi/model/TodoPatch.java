@@ -0,0 +1,13 @@
+package com.bt7878.todoapi.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+/**
+ * Partial update of a single todo. Fields left {@code null} keep their current value.
+ */
+public record TodoPatch(
+        @NotNull Long id,
+        @Size(min = 1, max = 255) String title,
+        Boolean completed) {
+}
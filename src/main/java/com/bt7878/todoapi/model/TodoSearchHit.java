@@ -0,0 +1,7 @@
+package com.bt7878.todoapi.model;
+
+/**
+ * A todo matching a search, with its relevance score. Higher scores rank first.
+ */
+public record TodoSearchHit(Long id, String title, boolean completed, double score) {
+}
@@ -0,0 +1,10 @@
+package com.bt7878.todoapi.model;
+
+import java.util.List;
+
+/**
+ * One page of search hits, best first. {@code next} is passed back as {@code after} to fetch the next page
+ * and is {@code null} on the last page.
+ */
+public record TodoSearchPage(List<TodoSearchHit> hits, String next) {
+}
@@ -0,0 +1,7 @@
+package com.bt7878.todoapi.model;
+
+/**
+ * Number of an owner's todos, and how many of them are completed.
+ */
+public record TodoStats(long total, long completed) {
+}
@@ -0,0 +1,34 @@
+package com.bt7878.todoapi.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Stored {@link TodoStats} of one owner. Every write adjusts its owner's row in the writing transaction, so all
+ * nodes read the same counts.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "todo_stats")
+public class TodoStatsSummary {
+
+    @Id
+    @Column(length = 64)
+    private String owner;
+
+    private long total;
+
+    private long completed;
+
+    public TodoStats toStats() {
+        return new TodoStats(total, completed);
+    }
+
+}
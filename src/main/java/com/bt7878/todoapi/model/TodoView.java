@@ -0,0 +1,61 @@
+package com.bt7878.todoapi.model;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+/**
+ * Immutable todo in a list page. Pages are selected into it with a constructor expression, so reading one creates
+ * no entities and leaves nothing in the persistence context to track.
+ * <p>
+ * Serializes to the same fields as {@link Todo}, with a {@link Serializer} that writes them directly instead of
+ * going through bean introspection and per-property writers.
+ */
+@JsonSerialize(using = TodoView.Serializer.class)
+public record TodoView(Long id, String title, boolean completed, Long version) {
+
+    public static TodoView of(Todo todo) {
+        return new TodoView(todo.getId(), todo.getTitle(), todo.isCompleted(), todo.getVersion());
+    }
+
+    public static final class Serializer extends StdSerializer<TodoView> {
+
+        // Pre-encoded once, so JSON writes the quoted names as bytes without escaping them per todo
+        private static final SerializableString ID = new SerializedString("id");
+        private static final SerializableString TITLE = new SerializedString("title");
+        private static final SerializableString COMPLETED = new SerializedString("completed");
+        private static final SerializableString VERSION = new SerializedString("version");
+
+        public Serializer() {
+            super(TodoView.class);
+        }
+
+        @Override
+        public void serialize(TodoView todo, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject(todo);
+            generator.writeFieldName(ID);
+            if (todo.id() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeNumber(todo.id());
+            }
+            generator.writeFieldName(TITLE);
+            generator.writeString(todo.title());
+            generator.writeFieldName(COMPLETED);
+            generator.writeBoolean(todo.completed());
+            // Like Todo, the version is left out when it is not known
+            if (todo.version() != null) {
+                generator.writeFieldName(VERSION);
+                generator.writeNumber(todo.version());
+            }
+            generator.writeEndObject();
+        }
+
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.bt7878.todoapi.repository;
+
+import com.bt7878.todoapi.model.TodoChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface TodoChangeRepository extends JpaRepository<TodoChange, Long> {
+
+    List<TodoChange> findBySeqGreaterThanOrderBySeq(long seq, Limit limit);
+
+    List<TodoChange> findByOwnerAndSeqGreaterThanOrderBySeq(String owner, long seq, Limit limit);
+
+    /**
+     * Most recent change recorded at or before {@code changedAt}.
+     */
+    Optional<TodoChange> findFirstByChangedAtLessThanEqualOrderByChangedAtDesc(Instant changedAt);
+
+    @Query("select min(c.seq) from TodoChange c")
+    Long findMinSeq();
+
+    /**
+     * Records the current state of the given todos with one {@code INSERT ... SELECT}. Pending changes to those
+     * todos are flushed first.
+     *
+     * @return the number of recorded changes
+     */
+    @Modifying
+    @Query("""
+            insert into TodoChange (todoId, owner, title, completed, version, deleted, changedAt)
+            select t.id, t.owner, t.title, t.completed, t.version, false, :changedAt from Todo t where t.id in :ids""")
+    int recordUpserts(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+
+    /**
+     * Records tombstones for the given todos with one {@code INSERT ... SELECT}. Must run before they are deleted.
+     *
+     * @return the number of recorded tombstones
+     */
+    @Modifying
+    @Query("""
+            insert into TodoChange (todoId, owner, deleted, changedAt)
+            select t.id, t.owner, true, :changedAt from Todo t where t.id in :ids""")
+    int recordDeletes(@Param("ids") Collection<Long> ids, @Param("changedAt") Instant changedAt);
+
+    /**
+     * Deletes changes recorded before {@code cutoff}, except the most recent change, so that the lowest
+     * retained {@code seq} always tells which cursors are still valid.
+     */
+    @Modifying
+    @Query("""
+            delete from TodoChange c
+            where c.changedAt < :cutoff and c.seq < (select max(m.seq) from TodoChange m)""")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+
+}
@@ -0,0 +1,26 @@
+package com.bt7878.todoapi.repository;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.data.jpa.JpaRepositoriesAutoConfiguration;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernateJpaAutoConfiguration;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+
+import javax.sql.DataSource;
+
+/**
+ * Scans the JPA repositories in place of Spring Boot's scan, which would also claim the R2DBC repositories in
+ * {@code repository.reactive} because {@link com.bt7878.todoapi.model.Todo} is a JPA entity, and fail on them.
+ * <p>
+ * Registered as an auto-configuration, also for {@code @DataJpaTest}, so that it only runs where JPA is set up and
+ * Spring Boot's scan backs off.
+ */
+@AutoConfiguration(after = HibernateJpaAutoConfiguration.class, before = JpaRepositoriesAutoConfiguration.class)
+@ConditionalOnBean(DataSource.class)
+@EnableJpaRepositories(basePackageClasses = TodoRepository.class, excludeFilters = @ComponentScan.Filter(
+        type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveCrudRepository.class))
+public class TodoJpaRepositoriesAutoConfiguration {
+}
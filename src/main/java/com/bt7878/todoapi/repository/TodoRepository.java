@@ -1,7 +1,246 @@
 package com.bt7878.todoapi.repository;
 
 import com.bt7878.todoapi.model.Todo;
-import org.springframework.data.repository.CrudRepository;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoStatsSummary;
+import com.bt7878.todoapi.model.TodoView;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Todo queries. Apart from the {@link JpaRepository} methods, {@link #streamAll()} and {@link #countStatsByOwner()},
+ * every query is scoped to one owner and can be answered from the {@code (owner, id)} indexes.
+ */
+public interface TodoRepository extends JpaRepository<Todo, Long> {
+
+    /**
+     * Keyset page of an owner's todos ordered by id. Filters are optional: pass {@code null} to skip them.
+     * {@code titlePrefix} is matched with {@code LIKE} and must already have its wildcards escaped with {@code \}.
+     * <p>
+     * Each combination of filters has a query of its own, so that every query only carries the predicates it uses
+     * and the database can plan it for the matching index. A single query with {@code :param is null or ...}
+     * predicates gets a generic plan that cannot use them.
+     * <p>
+     * Rows are selected straight into {@link TodoView}s, so no entities are created, snapshotted or flushed.
+     */
+    default List<TodoView> findPage(String owner, long after, Boolean completed, String titlePrefix, Limit limit) {
+        if (titlePrefix == null) {
+            return completed == null
+                    ? findPageAfter(owner, after, limit)
+                    : findPageAfterByCompleted(owner, after, completed, limit);
+        }
+        return completed == null
+                ? findPageAfterByTitlePrefix(owner, after, titlePrefix, limit)
+                : findPageAfterByCompletedAndTitlePrefix(owner, after, completed, titlePrefix, limit);
+    }
+
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoView(t.id, t.title, t.completed, t.version)
+            from Todo t
+            where t.owner = :owner and t.id > :after
+            order by t.id""")
+    List<TodoView> findPageAfter(@Param("owner") String owner, @Param("after") long after, Limit limit);
+
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoView(t.id, t.title, t.completed, t.version)
+            from Todo t
+            where t.owner = :owner and t.completed = :completed and t.id > :after
+            order by t.id""")
+    List<TodoView> findPageAfterByCompleted(@Param("owner") String owner, @Param("after") long after,
+                                            @Param("completed") boolean completed, Limit limit);
+
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoView(t.id, t.title, t.completed, t.version)
+            from Todo t
+            where t.owner = :owner and t.title like concat(:titlePrefix, '%') escape '\\' and t.id > :after
+            order by t.id""")
+    List<TodoView> findPageAfterByTitlePrefix(@Param("owner") String owner, @Param("after") long after,
+                                              @Param("titlePrefix") String titlePrefix, Limit limit);
+
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoView(t.id, t.title, t.completed, t.version)
+            from Todo t
+            where t.owner = :owner and t.completed = :completed
+              and t.title like concat(:titlePrefix, '%') escape '\\' and t.id > :after
+            order by t.id""")
+    List<TodoView> findPageAfterByCompletedAndTitlePrefix(@Param("owner") String owner, @Param("after") long after,
+                                                          @Param("completed") boolean completed,
+                                                          @Param("titlePrefix") String titlePrefix, Limit limit);
+
+    Optional<Todo> findByOwnerAndId(String owner, Long id);
+
+    List<Todo> findByOwnerAndIdIn(String owner, Collection<Long> ids);
+
+    boolean existsByOwnerAndId(String owner, Long id);
+
+    /**
+     * Streams an owner's todos in id order through a server-side cursor. Must be consumed inside a transaction,
+     * and the stream must be closed afterwards.
+     */
+    @Query("select t from Todo t where t.owner = :owner order by t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Todo> streamByOwner(@Param("owner") String owner);
+
+    /**
+     * Streams the todos of all owners, like {@link #streamByOwner(String)}.
+     */
+    @Query("select t from Todo t order by t.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Todo> streamAll();
+
+    @Query("select t.id from Todo t where t.owner = :owner and t.id in :ids")
+    List<Long> findExistingIds(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Locks the next todos of an owner after id {@code after} whose completed flag is {@code completed}, in id order,
+     * so that a bulk operation can write exactly these rows in the same transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("""
+            select t.id from Todo t
+            where t.owner = :owner and t.completed = :completed and t.id > :after
+            order by t.id""")
+    List<Long> lockIdsAfter(@Param("owner") String owner, @Param("completed") boolean completed,
+                            @Param("after") long after, Limit limit);
+
+    /**
+     * Loads and locks the todos among {@code ids}, in id order, so that concurrent writers lock them in the same
+     * order.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select t from Todo t where t.id in :ids order by t.id")
+    List<Todo> lockAllById(@Param("ids") Collection<Long> ids);
+
+    @Query("select count(t) from Todo t where t.owner = :owner and t.completed = true and t.id in :ids")
+    long countCompleted(@Param("owner") String owner, @Param("ids") Collection<Long> ids);
+
+    /**
+     * Counts an owner's todos, from the {@code (owner, completed, id)} index.
+     */
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoStats(count(t),
+                coalesce(sum(case when t.completed = true then 1L else 0L end), 0L))
+            from Todo t where t.owner = :owner""")
+    TodoStats countStats(@Param("owner") String owner);
+
+    /**
+     * Counts the todos of every owner that has any.
+     */
+    @Query("""
+            select new com.bt7878.todoapi.model.TodoStatsSummary(t.owner, count(t),
+                sum(case when t.completed = true then 1L else 0L end))
+            from Todo t group by t.owner""")
+    List<TodoStatsSummary> countStatsByOwner();
+
+    /**
+     * Overwrites a todo with a single {@code UPDATE}, without loading it first.
+     *
+     * @return the number of updated rows, {@code 0} if the owner has no todo with this id
+     */
+    @Modifying
+    @Query("""
+            update Todo t set t.title = :title, t.completed = :completed, t.version = t.version + 1
+            where t.owner = :owner and t.id = :id""")
+    int updateTodo(@Param("owner") String owner, @Param("id") Long id, @Param("title") String title,
+                   @Param("completed") boolean completed);
+
+    /**
+     * Like {@link #updateTodo(String, Long, String, boolean)}, but only if the todo is still at {@code version}.
+     *
+     * @return the number of updated rows, {@code 0} if the owner has no todo with this id and version
+     */
+    @Modifying
+    @Query("""
+            update Todo t set t.title = :title, t.completed = :completed, t.version = t.version + 1
+            where t.owner = :owner and t.id = :id and t.version = :version""")
+    int updateTodo(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version,
+                   @Param("title") String title, @Param("completed") boolean completed);
+
+    /**
+     * Like {@link #updateTodo(String, Long, String, boolean)}, but only if the todo's completed flag is
+     * {@code current}, so that the caller knows whether the update changed it.
+     */
+    @Modifying
+    @Query("""
+            update Todo t set t.title = :title, t.completed = :completed, t.version = t.version + 1
+            where t.owner = :owner and t.id = :id and t.completed = :current""")
+    int updateTodoIfCompleted(@Param("owner") String owner, @Param("id") Long id, @Param("current") boolean current,
+                              @Param("title") String title, @Param("completed") boolean completed);
+
+    /**
+     * Like {@link #updateTodo(String, Long, long, String, boolean)}, but only if the todo's completed flag is
+     * {@code current}.
+     */
+    @Modifying
+    @Query("""
+            update Todo t set t.title = :title, t.completed = :completed, t.version = t.version + 1
+            where t.owner = :owner and t.id = :id and t.version = :version and t.completed = :current""")
+    int updateTodoIfCompleted(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version,
+                              @Param("current") boolean current, @Param("title") String title,
+                              @Param("completed") boolean completed);
+
+    /**
+     * Completes the given todos with a single {@code UPDATE}.
+     *
+     * @return the number of todos that were not completed before
+     */
+    @Modifying
+    @Query("update Todo t set t.completed = true, t.version = t.version + 1 where t.id in :ids and t.completed = false")
+    int completeAll(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes a todo with a single {@code DELETE}, without loading it first.
+     *
+     * @return the number of deleted rows, {@code 0} if the owner has no todo with this id
+     */
+    @Modifying
+    @Query("delete from Todo t where t.owner = :owner and t.id = :id")
+    int deleteTodo(@Param("owner") String owner, @Param("id") Long id);
+
+    /**
+     * Like {@link #deleteTodo(String, Long)}, but only if the todo is still at {@code version}.
+     *
+     * @return the number of deleted rows, {@code 0} if the owner has no todo with this id and version
+     */
+    @Modifying
+    @Query("delete from Todo t where t.owner = :owner and t.id = :id and t.version = :version")
+    int deleteTodo(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version);
+
+    /**
+     * Like {@link #deleteTodo(String, Long)}, but only if the todo's completed flag is {@code current}, so that
+     * the caller knows whether it deleted a completed todo.
+     */
+    @Modifying
+    @Query("delete from Todo t where t.owner = :owner and t.id = :id and t.completed = :current")
+    int deleteTodoIfCompleted(@Param("owner") String owner, @Param("id") Long id, @Param("current") boolean current);
+
+    /**
+     * Like {@link #deleteTodo(String, Long, long)}, but only if the todo's completed flag is {@code current}.
+     */
+    @Modifying
+    @Query("""
+            delete from Todo t
+            where t.owner = :owner and t.id = :id and t.version = :version and t.completed = :current""")
+    int deleteTodoIfCompleted(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version,
+                              @Param("current") boolean current);
 
-public interface TodoRepository extends CrudRepository<Todo, Long> {
 }
@@ -0,0 +1,49 @@
+package com.bt7878.todoapi.repository;
+
+import com.bt7878.todoapi.model.TodoStatsSummary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+public interface TodoStatsRepository extends JpaRepository<TodoStatsSummary, String> {
+
+    /**
+     * Adds to an owner's counts with one {@code UPDATE}, which locks the owner's row until the transaction ends.
+     *
+     * @return {@code 0} if the owner has no summary yet
+     */
+    @Modifying
+    @Query("""
+            update TodoStatsSummary s set s.total = s.total + :total, s.completed = s.completed + :completed
+            where s.owner = :owner""")
+    int add(@Param("owner") String owner, @Param("total") long total, @Param("completed") long completed);
+
+    /**
+     * Sets every summary whose counts are off to the counts of its owner's todos.
+     *
+     * @return the number of corrected summaries
+     */
+    @Modifying
+    @Query("""
+            update TodoStatsSummary s
+            set s.total = (select count(t) from Todo t where t.owner = s.owner),
+                s.completed = (select count(t) from Todo t where t.owner = s.owner and t.completed = true)
+            where s.total <> (select count(t) from Todo t where t.owner = s.owner)
+               or s.completed <> (select count(t) from Todo t where t.owner = s.owner and t.completed = true)""")
+    int reconcile();
+
+    /**
+     * Creates the summaries of owners that have todos but no summary yet.
+     *
+     * @return the number of created summaries
+     */
+    @Modifying
+    @Query("""
+            insert into TodoStatsSummary (owner, total, completed)
+            select t.owner, count(t), sum(case when t.completed = true then 1L else 0L end) from Todo t
+            where not exists (select 1 from TodoStatsSummary s where s.owner = t.owner)
+            group by t.owner""")
+    int insertMissing();
+
+}
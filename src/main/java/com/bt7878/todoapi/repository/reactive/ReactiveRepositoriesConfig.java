@@ -0,0 +1,15 @@
+package com.bt7878.todoapi.repository.reactive;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * Scans only this package for R2DBC repositories, the JPA repositories being disabled by the {@code reactive}
+ * profile.
+ */
+@Configuration
+@Profile("reactive")
+@EnableR2dbcRepositories(basePackageClasses = ReactiveTodoRepository.class)
+class ReactiveRepositoriesConfig {
+}
@@ -0,0 +1,105 @@
+package com.bt7878.todoapi.repository.reactive;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.repository.TodoRepository;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import org.springframework.data.repository.query.Param;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * R2DBC counterpart of {@link TodoRepository}, used by the {@code reactive} profile.
+ */
+public interface ReactiveTodoRepository extends R2dbcRepository<Todo, Long> {
+
+    /**
+     * Keyset page of an owner's todos ordered by id, with the same optional filters as
+     * {@link TodoRepository#findPage}, and like it with one query per combination of filters.
+     */
+    default Flux<Todo> findPage(String owner, long after, Boolean completed, String titlePrefix, int limit) {
+        if (titlePrefix == null) {
+            return completed == null
+                    ? findPageAfter(owner, after, limit)
+                    : findPageAfterByCompleted(owner, after, completed, limit);
+        }
+        return completed == null
+                ? findPageAfterByTitlePrefix(owner, after, titlePrefix, limit)
+                : findPageAfterByCompletedAndTitlePrefix(owner, after, completed, titlePrefix, limit);
+    }
+
+    @Query("SELECT * FROM todo WHERE owner = :owner AND id > :after ORDER BY id LIMIT :limit")
+    Flux<Todo> findPageAfter(@Param("owner") String owner, @Param("after") long after, @Param("limit") int limit);
+
+    @Query("""
+            SELECT * FROM todo
+            WHERE owner = :owner AND completed = :completed AND id > :after
+            ORDER BY id
+            LIMIT :limit""")
+    Flux<Todo> findPageAfterByCompleted(@Param("owner") String owner, @Param("after") long after,
+                                        @Param("completed") boolean completed, @Param("limit") int limit);
+
+    @Query("""
+            SELECT * FROM todo
+            WHERE owner = :owner AND title LIKE :titlePrefix || '%' ESCAPE '\\' AND id > :after
+            ORDER BY id
+            LIMIT :limit""")
+    Flux<Todo> findPageAfterByTitlePrefix(@Param("owner") String owner, @Param("after") long after,
+                                          @Param("titlePrefix") String titlePrefix, @Param("limit") int limit);
+
+    @Query("""
+            SELECT * FROM todo
+            WHERE owner = :owner AND completed = :completed
+              AND title LIKE :titlePrefix || '%' ESCAPE '\\' AND id > :after
+            ORDER BY id
+            LIMIT :limit""")
+    Flux<Todo> findPageAfterByCompletedAndTitlePrefix(@Param("owner") String owner, @Param("after") long after,
+                                                      @Param("completed") boolean completed,
+                                                      @Param("titlePrefix") String titlePrefix,
+                                                      @Param("limit") int limit);
+
+    /**
+     * Takes a value from {@code todo_seq}. Hibernate's pooled optimizer treats each value as the upper end of
+     * a block of 50 ids that only its caller may use, so using the value itself as an id cannot collide with
+     * ids allocated by the JPA stack.
+     */
+    @Query("SELECT nextval('todo_seq')")
+    Mono<Long> nextId();
+
+    Mono<Todo> findByOwnerAndId(String owner, Long id);
+
+    Flux<Todo> findByOwner(String owner, Sort sort);
+
+    @Modifying
+    @Query("""
+            UPDATE todo SET title = :title, completed = :completed, version = version + 1
+            WHERE owner = :owner AND id = :id""")
+    Mono<Integer> updateTodo(@Param("owner") String owner, @Param("id") Long id, @Param("title") String title,
+                             @Param("completed") boolean completed);
+
+    /**
+     * Like {@link #updateTodo(String, Long, String, boolean)}, but only if the todo is still at {@code version}.
+     */
+    @Modifying
+    @Query("""
+            UPDATE todo SET title = :title, completed = :completed, version = version + 1
+            WHERE owner = :owner AND id = :id AND version = :version""")
+    Mono<Integer> updateTodo(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version,
+                             @Param("title") String title, @Param("completed") boolean completed);
+
+    @Modifying
+    @Query("DELETE FROM todo WHERE owner = :owner AND id = :id")
+    Mono<Integer> deleteTodo(@Param("owner") String owner, @Param("id") Long id);
+
+    /**
+     * Like {@link #deleteTodo(String, Long)}, but only if the todo is still at {@code version}.
+     */
+    @Modifying
+    @Query("DELETE FROM todo WHERE owner = :owner AND id = :id AND version = :version")
+    Mono<Integer> deleteTodo(@Param("owner") String owner, @Param("id") Long id, @Param("version") long version);
+
+    Mono<Boolean> existsByOwnerAndId(String owner, Long id);
+
+}
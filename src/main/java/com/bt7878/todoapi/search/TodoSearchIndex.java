@@ -0,0 +1,183 @@
+package com.bt7878.todoapi.search;
+
+import com.bt7878.todoapi.model.TodoSearchHit;
+import com.bt7878.todoapi.model.TodoSearchPage;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over todo titles. Titles are split into lowercase letter and digit runs, a search
+ * matches todos containing every term of the query, and hits are ranked by BM25.
+ * <p>
+ * Writes are serialised and ignore entries older than the one already indexed for the same todo, so changes can be
+ * applied more than once. Searches run concurrently with writes and may see a write half-applied.
+ */
+public class TodoSearchIndex {
+
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final Comparator<TodoSearchHit> RANKING = Comparator.comparingDouble(TodoSearchHit::score)
+            .reversed()
+            .thenComparing(TodoSearchHit::id);
+
+    /**
+     * Position after a hit, in ranking order.
+     */
+    public record Cursor(double score, long id) {
+
+        public static Optional<Cursor> parse(String value) {
+            int separator = value.lastIndexOf(':');
+            try {
+                return Optional.of(new Cursor(Double.parseDouble(value.substring(0, separator)),
+                        Long.parseLong(value.substring(separator + 1))));
+            } catch (RuntimeException e) {
+                return Optional.empty();
+            }
+        }
+
+        boolean isBefore(double score, long id) {
+            return score < this.score || (score == this.score && id > this.id);
+        }
+
+        @Override
+        public String toString() {
+            return score + ":" + id;
+        }
+
+    }
+
+    private record Document(long seq, String title, boolean completed, int length) {
+    }
+
+    private final Map<Long, Document> documents = new ConcurrentHashMap<>();
+    private final Map<String, Map<Long, Integer>> postings = new ConcurrentHashMap<>();
+    private final AtomicLong totalLength = new AtomicLong();
+
+    /**
+     * Indexes the title of a todo as of change {@code seq}, replacing an older entry.
+     */
+    public synchronized void put(long id, long seq, String title, boolean completed) {
+        Document old = documents.get(id);
+        if (old != null && old.seq() >= seq) {
+            return;
+        }
+        if (old != null) {
+            unindex(id, old);
+        }
+        Map<String, Integer> terms = termFrequencies(title);
+        Document document = new Document(seq, title, completed,
+                terms.values().stream().mapToInt(Integer::intValue).sum());
+        documents.put(id, document);
+        totalLength.addAndGet(document.length());
+        terms.forEach((term, frequency) ->
+                postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(id, frequency));
+    }
+
+    /**
+     * Removes a todo deleted by change {@code seq}, unless a newer entry is indexed.
+     */
+    public synchronized void remove(long id, long seq) {
+        Document old = documents.get(id);
+        if (old != null && old.seq() < seq) {
+            unindex(id, old);
+        }
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    /**
+     * Todos whose title contains every term of {@code query}, best first, starting after {@code after}.
+     * Only the postings of the rarest term are scanned.
+     */
+    public TodoSearchPage search(String query, Cursor after, int limit) {
+        List<Map<Long, Integer>> lists = new ArrayList<>();
+        for (String term : termFrequencies(query).keySet()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list == null) {
+                return new TodoSearchPage(List.of(), null);
+            }
+            lists.add(list);
+        }
+        if (lists.isEmpty()) {
+            return new TodoSearchPage(List.of(), null);
+        }
+        lists.sort(Comparator.comparingInt(Map::size));
+
+        int count = Math.max(documents.size(), 1);
+        double averageLength = Math.max((double) totalLength.get() / count, 1);
+        double[] idf = new double[lists.size()];
+        for (int i = 0; i < idf.length; i++) {
+            int frequency = lists.get(i).size();
+            idf[i] = Math.log(1 + (count - frequency + 0.5) / (frequency + 0.5));
+        }
+
+        // Keeps the best limit + 1 hits, worst at the head, to find out whether there is a next page
+        PriorityQueue<TodoSearchHit> top = new PriorityQueue<>(limit + 1, RANKING.reversed());
+        candidates:
+        for (Long id : lists.getFirst().keySet()) {
+            Document document = documents.get(id);
+            if (document == null) {
+                continue;
+            }
+            double norm = K1 * (1 - B + B * document.length() / averageLength);
+            double score = 0;
+            for (int i = 0; i < idf.length; i++) {
+                Integer frequency = lists.get(i).get(id);
+                if (frequency == null) {
+                    continue candidates;
+                }
+                score += idf[i] * frequency * (K1 + 1) / (frequency + norm);
+            }
+            if (after != null && !after.isBefore(score, id)) {
+                continue;
+            }
+            top.add(new TodoSearchHit(id, document.title(), document.completed(), score));
+            if (top.size() > limit + 1) {
+                top.poll();
+            }
+        }
+
+        List<TodoSearchHit> hits = new ArrayList<>(top);
+        hits.sort(RANKING);
+        if (hits.size() <= limit) {
+            return new TodoSearchPage(hits, null);
+        }
+        List<TodoSearchHit> page = hits.subList(0, limit);
+        TodoSearchHit last = page.getLast();
+        return new TodoSearchPage(page, new Cursor(last.score(), last.id()).toString());
+    }
+
+    private void unindex(long id, Document document) {
+        documents.remove(id);
+        totalLength.addAndGet(-document.length());
+        for (String term : termFrequencies(document.title()).keySet()) {
+            Map<Long, Integer> list = postings.get(term);
+            if (list != null) {
+                list.remove(id);
+                if (list.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    static Map<String, Integer> termFrequencies(String text) {
+        Map<String, Integer> terms = new HashMap<>();
+        if (text == null) {
+            return terms;
+        }
+        for (String term : SEPARATORS.split(text.toLowerCase(Locale.ROOT))) {
+            if (!term.isEmpty()) {
+                terms.merge(term, 1, Integer::sum);
+            }
+        }
+        return terms;
+    }
+
+}
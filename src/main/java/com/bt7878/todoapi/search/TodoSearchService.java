@@ -0,0 +1,111 @@
+package com.bt7878.todoapi.search;
+
+import com.bt7878.todoapi.exception.TodoChangesExpiredException;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.model.TodoSearchPage;
+import com.bt7878.todoapi.search.TodoSearchIndex.Cursor;
+import com.bt7878.todoapi.service.TodoChangeService;
+import com.bt7878.todoapi.service.TodoService;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Full-text search over todo titles, served from one {@link TodoSearchIndex} per owner on every node, so search
+ * latency depends on the size of the owner's todo list and not on the number of owners.
+ * <p>
+ * The index is built from all todos when the application starts, before it reports itself ready, and then follows
+ * the change feed. Searches therefore lag writes by up to {@code todo.search.refresh-interval}, and by the change
+ * feed grace period on other nodes.
+ */
+@Service
+@Profile("!reactive")
+@Timed("todo.search")
+public class TodoSearchService implements MeterBinder {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final TodoService todoService;
+    private final TodoChangeService todoChangeService;
+    private volatile Map<String, TodoSearchIndex> indexes = new ConcurrentHashMap<>();
+    private long cursor;
+
+    public TodoSearchService(TodoService todoService, TodoChangeService todoChangeService) {
+        this.todoService = todoService;
+        this.todoChangeService = todoChangeService;
+    }
+
+    public TodoSearchPage search(String owner, String query, Cursor after, int limit) {
+        TodoSearchIndex index = indexes.get(owner);
+        if (index == null) {
+            return new TodoSearchPage(List.of(), null);
+        }
+        return index.search(query, after, Math.clamp(limit, 1, MAX_PAGE_SIZE));
+    }
+
+    /**
+     * Builds new indexes from all todos and swaps them in. Searches keep using the old indexes until then.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        // Taken first, so that changes committed while the todos are read are applied again afterwards
+        long start = todoChangeService.getCursor();
+        Map<String, TodoSearchIndex> fresh = new ConcurrentHashMap<>();
+        todoService.exportAllTodos(todo -> fresh.computeIfAbsent(todo.getOwner(), owner -> new TodoSearchIndex())
+                .put(todo.getId(), start, todo.getTitle(), todo.isCompleted()));
+        indexes = fresh;
+        cursor = start;
+    }
+
+    /**
+     * Applies the changes recorded since the last refresh, or rebuilds the index if they have been pruned.
+     */
+    @Scheduled(initialDelayString = "${todo.search.refresh-interval:1s}",
+            fixedDelayString = "${todo.search.refresh-interval:1s}")
+    public synchronized void refresh() {
+        try {
+            TodoChangePage page;
+            do {
+                page = todoChangeService.getAllChanges(cursor, TodoChangeService.MAX_PAGE_SIZE);
+                page.changes().forEach(this::apply);
+                if (page.next() == cursor) {
+                    break;
+                }
+                cursor = page.next();
+            } while (page.changes().size() == TodoChangeService.MAX_PAGE_SIZE);
+        } catch (TodoChangesExpiredException e) {
+            rebuild();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.search.documents", this,
+                        service -> service.indexes.values().stream().mapToInt(TodoSearchIndex::size).sum())
+                .description("Todos in the search index")
+                .register(registry);
+    }
+
+    private void apply(TodoChange change) {
+        TodoSearchIndex index = indexes.computeIfAbsent(change.getOwner(), owner -> new TodoSearchIndex());
+        if (change.isDeleted()) {
+            index.remove(change.getTodoId(), change.getSeq());
+        } else {
+            index.put(change.getTodoId(), change.getSeq(), change.getTitle(),
+                    Boolean.TRUE.equals(change.getCompleted()));
+        }
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoVersionMismatchException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.repository.reactive.ReactiveTodoRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link TodoService}, used by the {@code reactive} profile.
+ */
+@Service
+@Profile("reactive")
+public class ReactiveTodoService {
+
+    private final ReactiveTodoRepository todoRepository;
+    private final R2dbcEntityTemplate entityTemplate;
+
+    public ReactiveTodoService(ReactiveTodoRepository todoRepository, R2dbcEntityTemplate entityTemplate) {
+        this.todoRepository = todoRepository;
+        this.entityTemplate = entityTemplate;
+    }
+
+    public Mono<TodoPage> getTodos(String owner, long after, Boolean completed, String titlePrefix, int limit) {
+        int pageSize = TodoService.pageSize(limit);
+        return todoRepository.findPage(owner, after, completed, TodoService.escapeLike(titlePrefix), pageSize + 1)
+                .map(TodoView::of)
+                .collectList()
+                .map(todos -> TodoService.toPage(todos, pageSize));
+    }
+
+    public Flux<Todo> exportTodos(String owner) {
+        return todoRepository.findByOwner(owner, Sort.by("id"));
+    }
+
+    public Mono<Todo> getTodoById(String owner, Long id) {
+        return todoRepository.findByOwnerAndId(owner, id);
+    }
+
+    public Mono<Todo> createTodo(String owner, Todo todo) {
+        // The id is assigned up front, so insert explicitly; save() would treat the todo as an update
+        return todoRepository.nextId().flatMap(id -> {
+            todo.setId(id);
+            // Todo's version is only a version to JPA, so R2DBC inserts whatever value it holds
+            todo.setVersion(0L);
+            todo.setOwner(owner);
+            return entityTemplate.insert(todo);
+        });
+    }
+
+    public Mono<Todo> updateTodo(String owner, Long id, Todo todo) {
+        return todoRepository.updateTodo(owner, id, todo.getTitle(), todo.isCompleted())
+                .filter(updated -> updated > 0)
+                .map(updated -> {
+                    todo.setId(id);
+                    todo.setOwner(owner);
+                    return todo;
+                });
+    }
+
+    /**
+     * Updates a todo only if it is still at {@code version}, like {@link TodoService#updateTodo(String, Long, Todo,
+     * long)}. Errors with {@link TodoVersionMismatchException} if the todo exists at another version.
+     */
+    public Mono<Todo> updateTodo(String owner, Long id, Todo todo, long version) {
+        return todoRepository.updateTodo(owner, id, version, todo.getTitle(), todo.isCompleted())
+                .flatMap(updated -> {
+                    if (updated == 0) {
+                        return failIfExists(owner, id);
+                    }
+                    todo.setId(id);
+                    todo.setOwner(owner);
+                    todo.setVersion(version + 1);
+                    return Mono.just(todo);
+                });
+    }
+
+    public Mono<Boolean> deleteTodo(String owner, Long id) {
+        return todoRepository.deleteTodo(owner, id).map(deleted -> deleted > 0);
+    }
+
+    /**
+     * Deletes a todo only if it is still at {@code version}. Errors with {@link TodoVersionMismatchException} if
+     * the todo exists at another version.
+     */
+    public Mono<Boolean> deleteTodo(String owner, Long id, long version) {
+        return todoRepository.deleteTodo(owner, id, version)
+                .flatMap(deleted -> deleted > 0 ? Mono.just(true) : failIfExists(owner, id).thenReturn(false));
+    }
+
+    private <T> Mono<T> failIfExists(String owner, Long id) {
+        return todoRepository.existsByOwnerAndId(owner, id)
+                .flatMap(exists -> exists ? Mono.error(new TodoVersionMismatchException(id)) : Mono.empty());
+    }
+
+}
@@ -0,0 +1,11 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@EnableConfigurationProperties(TodoBulkProperties.class)
+class TodoBulkConfig {
+}
@@ -0,0 +1,22 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param chunkSize  todos written per transaction, which bounds how long rows stay locked and how much WAL one
+ *                   commit produces
+ * @param chunkPause pause between chunks, to leave room for other writes and for replicas to catch up
+ * @param retention  how long a finished job can still be looked up
+ * @param maxJobs    maximum number of jobs kept for lookup on each node; beyond it, finished jobs can be dropped
+ *                   before their retention ends
+ */
+@ConfigurationProperties("todo.bulk")
+public record TodoBulkProperties(
+        @DefaultValue("1000") int chunkSize,
+        @DefaultValue("0ms") Duration chunkPause,
+        @DefaultValue("1h") Duration retention,
+        @DefaultValue("10000") long maxJobs) {
+}
@@ -0,0 +1,215 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoBulkJobRunningException;
+import com.bt7878.todoapi.model.TodoBulkJob;
+import com.bt7878.todoapi.model.TodoBulkJob.Operation;
+import com.bt7878.todoapi.model.TodoBulkJob.State;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs operations over all todos of an owner in the background, one chunk of {@code todo.bulk.chunk-size} todos
+ * per transaction in id order. Each chunk is a single statement, so rows are only locked for one chunk and a huge
+ * table does not produce one huge transaction. Chunks that committed stay committed when a job is cancelled or
+ * fails.
+ * <p>
+ * Jobs are kept in memory on the node that runs them, and one owner runs at most one job at a time. A job only
+ * covers todos that match when it reaches their ids; todos completed behind it are left alone.
+ */
+@Slf4j
+@Service
+@Profile("!reactive")
+public class TodoBulkService implements MeterBinder {
+
+    private static final Duration SHUTDOWN_TIMEOUT = Duration.ofSeconds(10);
+
+    private final TodoService todoService;
+    private final AsyncTaskExecutor taskExecutor;
+    private final TodoBulkProperties properties;
+    // Every finished chunk writes its job again, so running jobs never expire. They can still be evicted by size,
+    // but stay reachable through running
+    private final Cache<String, Job> jobs;
+    private final Map<String, Job> running = new ConcurrentHashMap<>();
+    private final LongAdder processed = new LongAdder();
+
+    public TodoBulkService(TodoService todoService,
+                           @Qualifier(TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+                           AsyncTaskExecutor taskExecutor,
+                           TodoBulkProperties properties) {
+        this.todoService = todoService;
+        this.taskExecutor = taskExecutor;
+        this.properties = properties;
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(properties.maxJobs())
+                .expireAfterWrite(properties.retention())
+                .build();
+    }
+
+    /**
+     * Starts {@code operation} over the todos of {@code owner}.
+     *
+     * @throws TodoBulkJobRunningException if the owner already has a running job
+     */
+    public TodoBulkJob start(String owner, Operation operation) {
+        Job job = new Job(UUID.randomUUID().toString(), owner, operation);
+        Job existing = running.putIfAbsent(owner, job);
+        if (existing != null) {
+            throw new TodoBulkJobRunningException(existing.id);
+        }
+        jobs.put(job.id, job);
+        try {
+            taskExecutor.execute(() -> run(job));
+        } catch (RuntimeException e) {
+            running.remove(owner, job);
+            job.finish(State.FAILED, e.getMessage());
+            job.done.countDown();
+            throw e;
+        }
+        return job.snapshot();
+    }
+
+    public Optional<TodoBulkJob> get(String owner, String id) {
+        return find(owner, id).map(Job::snapshot);
+    }
+
+    /**
+     * Asks a job to stop after its current chunk. Cancelling a finished job has no effect.
+     *
+     * @return the job, or empty if the owner has no job with this id
+     */
+    public Optional<TodoBulkJob> cancel(String owner, String id) {
+        return find(owner, id).map(job -> {
+            job.cancel();
+            return job.snapshot();
+        });
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.bulk.running", running, Map::size)
+                .description("Bulk operations currently running")
+                .register(registry);
+        FunctionCounter.builder("todo.bulk.processed", processed, LongAdder::sum)
+                .description("Todos written by bulk operations")
+                .register(registry);
+    }
+
+    /**
+     * Stops running jobs after their current chunk before the data source is closed.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running.values().forEach(Job::cancel);
+        long deadline = System.nanoTime() + SHUTDOWN_TIMEOUT.toNanos();
+        for (Job job : List.copyOf(running.values())) {
+            if (!job.done.await(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                log.warn("Bulk operation {} did not stop in time", job.id);
+            }
+        }
+    }
+
+    private Optional<Job> find(String owner, String id) {
+        return Optional.ofNullable(jobs.getIfPresent(id))
+                .or(() -> Optional.ofNullable(running.get(owner)).filter(job -> job.id.equals(id)))
+                .filter(job -> job.owner.equals(owner));
+    }
+
+    private void run(Job job) {
+        long after = 0;
+        try {
+            while (!job.isCancelling()) {
+                List<Long> ids = switch (job.operation) {
+                    case COMPLETE_ALL -> todoService.completeNext(job.owner, after, properties.chunkSize());
+                    case DELETE_COMPLETED -> todoService.deleteNextCompleted(job.owner, after, properties.chunkSize());
+                };
+                if (ids.isEmpty()) {
+                    job.finish(State.COMPLETED, null);
+                    return;
+                }
+                after = ids.getLast();
+                job.processed += ids.size();
+                processed.add(ids.size());
+                jobs.put(job.id, job);
+                if (properties.chunkPause().isPositive()) {
+                    Thread.sleep(properties.chunkPause());
+                }
+            }
+            job.finish(State.CANCELLED, null);
+        } catch (InterruptedException e) {
+            job.finish(State.CANCELLED, null);
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Bulk operation {} failed after {} todos", job.id, job.processed, e);
+            job.finish(State.FAILED, e.getMessage());
+        } finally {
+            // Retention counts from the end of the job
+            jobs.put(job.id, job);
+            running.remove(job.owner, job);
+            job.done.countDown();
+        }
+    }
+
+    private static final class Job {
+
+        private final String id;
+        private final String owner;
+        private final Operation operation;
+        private final Instant startedAt = Instant.now();
+        private final CountDownLatch done = new CountDownLatch(1);
+        // Only written by the thread running the job
+        private volatile long processed;
+        private State state = State.RUNNING;
+        private Instant finishedAt;
+        private String error;
+
+        private Job(String id, String owner, Operation operation) {
+            this.id = id;
+            this.owner = owner;
+            this.operation = operation;
+        }
+
+        synchronized boolean isCancelling() {
+            return state == State.CANCELLING;
+        }
+
+        synchronized void cancel() {
+            if (state == State.RUNNING) {
+                state = State.CANCELLING;
+            }
+        }
+
+        synchronized void finish(State state, String error) {
+            this.state = state;
+            this.error = error;
+            this.finishedAt = Instant.now();
+        }
+
+        synchronized TodoBulkJob snapshot() {
+            return new TodoBulkJob(id, operation, state, processed, startedAt, finishedAt, error);
+        }
+
+    }
+
+}
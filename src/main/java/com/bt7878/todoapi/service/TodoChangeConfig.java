@@ -0,0 +1,11 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(TodoChangeProperties.class)
+class TodoChangeConfig {
+}
@@ -0,0 +1,23 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param grace      upper bound on how long a write transaction stays open, plus the replica lag when reads go to
+ *                   replicas; changes younger than this may still be joined by changes with a lower {@code seq}, so
+ *                   feed cursors do not move past them
+ * @param retention  how long changes are kept; older cursors get {@code 410 Gone}
+ * @param sseTimeout how long an event stream stays open before the client has to reconnect
+ * @param sseBuffer  changes queued for an event stream whose client is slow to read; a stream that falls further
+ *                   behind is closed, and the client reconnects from its last event id
+ */
+@ConfigurationProperties("todo.changes")
+public record TodoChangeProperties(
+        @DefaultValue("2s") Duration grace,
+        @DefaultValue("7d") Duration retention,
+        @DefaultValue("30m") Duration sseTimeout,
+        @DefaultValue("1000") int sseBuffer) {
+}
@@ -0,0 +1,108 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoChangesExpiredException;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.repository.TodoChangeRepository;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads the change feed recorded by {@link TodoService}.
+ * <p>
+ * {@code seq} values are assigned when a change is inserted, not when it commits, so a change can become visible
+ * after one with a higher {@code seq}. Cursors therefore only advance past changes older than
+ * {@link TodoChangeProperties#grace()}; younger changes are returned but may be returned again.
+ */
+@Service
+@Profile("!reactive")
+public class TodoChangeService {
+
+    public static final int DEFAULT_PAGE_SIZE = 500;
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private final TodoChangeRepository todoChangeRepository;
+    private final TodoChangeProperties properties;
+
+    public TodoChangeService(TodoChangeRepository todoChangeRepository, TodoChangeProperties properties) {
+        this.todoChangeRepository = todoChangeRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Changes to the todos of {@code owner} after {@code since}, in {@code seq} order.
+     *
+     * @throws TodoChangesExpiredException if changes after {@code since} have already been pruned
+     */
+    @Transactional(readOnly = true)
+    public TodoChangePage getChanges(String owner, long since, int limit) {
+        checkRetained(since);
+        List<TodoChange> changes = todoChangeRepository.findByOwnerAndSeqGreaterThanOrderBySeq(owner, since,
+                Limit.of(Math.clamp(limit, 1, MAX_PAGE_SIZE)));
+        return new TodoChangePage(changes, settledCursor(changes, since, settledBefore()));
+    }
+
+    /**
+     * Like {@link #getChanges(String, long, int)}, but for the todos of all owners.
+     */
+    @Transactional(readOnly = true)
+    public TodoChangePage getAllChanges(long since, int limit) {
+        checkRetained(since);
+        List<TodoChange> changes = todoChangeRepository.findBySeqGreaterThanOrderBySeq(since,
+                Limit.of(Math.clamp(limit, 1, MAX_PAGE_SIZE)));
+        return new TodoChangePage(changes, settledCursor(changes, since, settledBefore()));
+    }
+
+    /**
+     * A cursor from which the feed is complete. Clients that resynchronise take it before reloading all todos,
+     * then follow the feed from it.
+     */
+    @Transactional(readOnly = true)
+    public long getCursor() {
+        return todoChangeRepository.findFirstByChangedAtLessThanEqualOrderByChangedAtDesc(settledBefore())
+                .map(TodoChange::getSeq)
+                .orElse(0L);
+    }
+
+    /**
+     * @throws TodoChangesExpiredException if changes after {@code since} have already been pruned
+     */
+    @Transactional(readOnly = true)
+    public void checkRetained(long since) {
+        Long minSeq = todoChangeRepository.findMinSeq();
+        if (minSeq != null && since < minSeq - 1) {
+            throw new TodoChangesExpiredException(since);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${todo.changes.prune-interval:1h}",
+            fixedDelayString = "${todo.changes.prune-interval:1h}")
+    @Transactional
+    public void pruneChanges() {
+        todoChangeRepository.deleteOlderThan(Instant.now().minus(properties.retention()));
+    }
+
+    private Instant settledBefore() {
+        return Instant.now().minus(properties.grace());
+    }
+
+    /**
+     * Highest {@code seq} among the changes recorded before {@code settledBefore}, or {@code since} if none were.
+     */
+    static long settledCursor(List<TodoChange> changes, long since, Instant settledBefore) {
+        long cursor = since;
+        for (TodoChange change : changes) {
+            if (!change.getChangedAt().isAfter(settledBefore)) {
+                cursor = Math.max(cursor, change.getSeq());
+            }
+        }
+        return cursor;
+    }
+
+}
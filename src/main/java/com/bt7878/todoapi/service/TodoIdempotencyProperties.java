@@ -0,0 +1,21 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param maximumKeys maximum number of keys remembered in memory on each node
+ * @param ttl         how long a key is remembered; a retry after that creates another todo
+ * @param database    also record keys in the {@code idempotency_key} table, so that retries reaching another node
+ *                    or arriving after a restart are recognized too
+ * @param waitTimeout how long a retry waits for a concurrent first request with the same key before giving up
+ */
+@ConfigurationProperties("todo.idempotency")
+public record TodoIdempotencyProperties(
+        @DefaultValue("100000") long maximumKeys,
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("false") boolean database,
+        @DefaultValue("10s") Duration waitTimeout) {
+}
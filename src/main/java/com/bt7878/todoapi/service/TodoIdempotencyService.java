@@ -0,0 +1,178 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.IdempotencyKeyInProgressException;
+import com.bt7878.todoapi.exception.IdempotencyKeyReusedException;
+import com.bt7878.todoapi.exception.InvalidIdempotencyKeyException;
+import com.bt7878.todoapi.model.IdempotencyRecord;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.repository.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Creates todos at most once per {@code Idempotency-Key} and owner. A retry with a known key gets the todo created
+ * by the first request, without touching the todo table.
+ * <p>
+ * Keys are remembered in a bounded in-memory cache. The first request with a key registers it atomically, and
+ * concurrent retries wait for its result instead of creating a todo of their own. With
+ * {@link TodoIdempotencyProperties#database()} keys are also recorded in the same transaction as the todo, and
+ * the primary key of the record decides between nodes racing on the same key. Records are read in read-write
+ * transactions, so that with read replicas they come from the primary and a key recorded moments ago is seen.
+ */
+@Service
+@Profile("!reactive")
+public class TodoIdempotencyService {
+
+    static final int MAX_KEY_LENGTH = 128;
+
+    private final TodoService todoService;
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TodoIdempotencyProperties properties;
+    private final Cache<IdempotencyRecord.Key, Attempt> attempts;
+
+    public TodoIdempotencyService(TodoService todoService, IdempotencyRecordRepository idempotencyRecordRepository,
+                                  PlatformTransactionManager transactionManager,
+                                  TodoIdempotencyProperties properties) {
+        this.todoService = todoService;
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.attempts = Caffeine.newBuilder()
+                .maximumSize(properties.maximumKeys())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * Creates a todo unless this owner already created one with {@code idempotencyKey}, in which case that todo
+     * is returned as it was first returned.
+     *
+     * @throws InvalidIdempotencyKeyException if the key is blank or longer than 128 characters
+     * @throws IdempotencyKeyReusedException     if the key was used with a different title or completed flag
+     * @throws IdempotencyKeyInProgressException if the first request with the key is still running after
+     *                                           {@link TodoIdempotencyProperties#waitTimeout()}
+     */
+    public Todo saveTodo(String owner, String idempotencyKey, Todo todo) {
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException();
+        }
+        IdempotencyRecord.Key key = new IdempotencyRecord.Key(owner, idempotencyKey);
+        String requestHash = requestHash(todo);
+        Attempt attempt = new Attempt(requestHash, new CompletableFuture<>());
+        Attempt existing = attempts.asMap().putIfAbsent(key, attempt);
+        if (existing != null) {
+            return existing.result(requestHash, properties.waitTimeout());
+        }
+
+        try {
+            Todo created = properties.database()
+                    ? saveRecorded(key, requestHash, todo)
+                    : todoService.saveTodo(owner, todo);
+            attempt.result.complete(created);
+            return created;
+        } catch (RuntimeException e) {
+            // Lets a later retry try again instead of replaying the failure
+            attempts.asMap().remove(key, attempt);
+            attempt.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    @Scheduled(initialDelayString = "${todo.idempotency.prune-interval:1h}",
+            fixedDelayString = "${todo.idempotency.prune-interval:1h}")
+    public void pruneRecords() {
+        if (properties.database()) {
+            transactionTemplate.executeWithoutResult(status ->
+                    idempotencyRecordRepository.deleteOlderThan(Instant.now().minus(properties.ttl())));
+        }
+    }
+
+    private Todo saveRecorded(IdempotencyRecord.Key key, String requestHash, Todo todo) {
+        Optional<IdempotencyRecord> recorded = findRecord(key);
+        if (recorded.isPresent()) {
+            return replay(recorded.get(), requestHash);
+        }
+        try {
+            return transactionTemplate.execute(status -> {
+                Todo created = todoService.saveTodo(key.getOwner(), todo);
+                idempotencyRecordRepository.saveAndFlush(IdempotencyRecord.of(key.getOwner(),
+                        key.getIdempotencyKey(), requestHash, created, Instant.now()));
+                return created;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another node recorded the key first, and this transaction's todo was rolled back
+            return replay(findRecord(key).orElseThrow(() -> e), requestHash);
+        }
+    }
+
+    /**
+     * Reads a record in a read-write transaction, which is never routed to a replica.
+     */
+    private Optional<IdempotencyRecord> findRecord(IdempotencyRecord.Key key) {
+        return transactionTemplate.execute(status -> idempotencyRecordRepository.findById(key));
+    }
+
+    private static Todo replay(IdempotencyRecord record, String requestHash) {
+        if (!record.getRequestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReusedException();
+        }
+        return record.toTodo();
+    }
+
+    /**
+     * SHA-256 of the fields a create takes from the request body. The title is last, so no two requests encode
+     * alike.
+     */
+    static String requestHash(Todo todo) {
+        String body = todo.isCompleted() + (todo.getTitle() == null ? "-" : "+" + todo.getTitle());
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(body.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Attempt(String requestHash, CompletableFuture<Todo> result) {
+
+        /**
+         * Waits up to {@code timeout} for the first request with the key to finish and returns its todo.
+         */
+        Todo result(String requestHash, Duration timeout) {
+            if (!this.requestHash.equals(requestHash)) {
+                throw new IdempotencyKeyReusedException();
+            }
+            try {
+                return result.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (ExecutionException e) {
+                throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e);
+            } catch (TimeoutException e) {
+                throw new IdempotencyKeyInProgressException();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyKeyInProgressException();
+            }
+        }
+
+    }
+
+}
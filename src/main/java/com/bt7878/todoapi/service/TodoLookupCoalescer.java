@@ -0,0 +1,206 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.cache.TodoCache;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.repository.TodoRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Loads todos missing from the {@link TodoCache} so that concurrent lookups of the same todo share one query. A
+ * lookup that arrives while another one for the same owner and id is running waits for that one's result instead.
+ * Evicting a todo detaches its running lookups, so a lookup that starts after a write has committed never receives
+ * a row read before it.
+ * <p>
+ * With a positive batch window, lookups of different todos are also gathered for the length of the window and
+ * loaded with one {@code IN} query per owner. The first lookup of a batch waits out the window and runs it, unless
+ * the batch fills up first, in which case the lookup that filled it runs it at once.
+ * <p>
+ * Lookups inside a transaction load on their own, since the transaction may see its own uncommitted writes.
+ */
+public class TodoLookupCoalescer implements MeterBinder {
+
+    private final TodoRepository todoRepository;
+    private final Duration batchWindow;
+    private final int maxBatchSize;
+    private final Map<Key, CompletableFuture<Optional<Todo>>> inFlight = new ConcurrentHashMap<>();
+    private final Object batchLock = new Object();
+    // Guarded by batchLock. After an eviction, a todo can be in a batch twice.
+    private List<Flight> openBatch;
+    private final LongAdder lookups = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+    private final LongAdder queries = new LongAdder();
+
+    public TodoLookupCoalescer(TodoRepository todoRepository, TodoCache todoCache, Duration batchWindow,
+                               int maxBatchSize) {
+        this.todoRepository = todoRepository;
+        this.batchWindow = batchWindow;
+        this.maxBatchSize = maxBatchSize;
+        todoCache.addEvictionListener(this::detach);
+    }
+
+    public Optional<Todo> load(String owner, Long id) {
+        lookups.increment();
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            queries.increment();
+            return todoRepository.findByOwnerAndId(owner, id);
+        }
+        Key key = new Key(owner, id);
+        CompletableFuture<Optional<Todo>> flight = new CompletableFuture<>();
+        CompletableFuture<Optional<Todo>> running = inFlight.putIfAbsent(key, flight);
+        if (running != null) {
+            shared.increment();
+            return await(running);
+        }
+        if (batchWindow.isPositive()) {
+            enqueue(new Flight(key, flight));
+        } else {
+            loadOne(new Flight(key, flight));
+        }
+        return await(flight);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.single-flight.lookups", lookups, LongAdder::sum)
+                .description("Todos looked up by id after a cache miss")
+                .register(registry);
+        FunctionCounter.builder("todo.single-flight.shared", shared, LongAdder::sum)
+                .description("Lookups answered by another lookup's query")
+                .register(registry);
+        FunctionCounter.builder("todo.single-flight.queries", queries, LongAdder::sum)
+                .description("Queries run for lookups")
+                .register(registry);
+        Gauge.builder("todo.single-flight.in-flight", inFlight, Map::size)
+                .description("Distinct todos currently being looked up")
+                .register(registry);
+    }
+
+    private void enqueue(Flight flight) {
+        List<Flight> batch;
+        boolean first;
+        boolean full;
+        synchronized (batchLock) {
+            first = openBatch == null;
+            if (first) {
+                openBatch = new ArrayList<>();
+            }
+            batch = openBatch;
+            batch.add(flight);
+            full = batch.size() >= maxBatchSize;
+            if (full) {
+                openBatch = null;
+            }
+        }
+        if (full) {
+            loadBatch(batch);
+            return;
+        }
+        if (!first) {
+            return;
+        }
+        // Returns early once the lookup that filled the batch has loaded it. An interrupt only cuts the window
+        // short, since the batch still has to be loaded for the lookups waiting on it.
+        boolean interrupted = false;
+        try {
+            flight.result().get(batchWindow.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            // The window has passed, or the batch failed, which await() reports
+        } catch (InterruptedException e) {
+            interrupted = true;
+        }
+        synchronized (batchLock) {
+            // Otherwise the batch filled up and is loaded by the lookup that filled it
+            if (openBatch == batch) {
+                openBatch = null;
+            } else {
+                batch = null;
+            }
+        }
+        if (batch != null) {
+            loadBatch(batch);
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void loadOne(Flight flight) {
+        try {
+            queries.increment();
+            complete(flight, todoRepository.findByOwnerAndId(flight.key().owner(), flight.key().id()));
+        } catch (RuntimeException e) {
+            fail(flight, e);
+        }
+    }
+
+    private void loadBatch(List<Flight> batch) {
+        Map<String, List<Flight>> flightsByOwner = batch.stream()
+                .collect(Collectors.groupingBy(flight -> flight.key().owner()));
+        flightsByOwner.forEach((owner, flights) -> {
+            try {
+                queries.increment();
+                Set<Long> ids = flights.stream().map(flight -> flight.key().id()).collect(Collectors.toSet());
+                Map<Long, Todo> found = todoRepository.findByOwnerAndIdIn(owner, ids).stream()
+                        .collect(Collectors.toMap(Todo::getId, Function.identity()));
+                flights.forEach(flight -> complete(flight, Optional.ofNullable(found.get(flight.key().id()))));
+            } catch (RuntimeException e) {
+                flights.forEach(flight -> fail(flight, e));
+            }
+        });
+    }
+
+    private void complete(Flight flight, Optional<Todo> todo) {
+        inFlight.remove(flight.key(), flight.result());
+        flight.result().complete(todo);
+    }
+
+    private void fail(Flight flight, RuntimeException e) {
+        inFlight.remove(flight.key(), flight.result());
+        flight.result().completeExceptionally(e);
+    }
+
+    /**
+     * Lets later lookups of the todo start a new query. Lookups already waiting still get the running one's result.
+     */
+    private void detach(Long id) {
+        inFlight.keySet().removeIf(key -> key.id().equals(id));
+    }
+
+    private static Optional<Todo> await(CompletableFuture<Optional<Todo>> flight) {
+        try {
+            return flight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private record Key(String owner, Long id) {
+    }
+
+    private record Flight(Key key, CompletableFuture<Optional<Todo>> result) {
+    }
+
+}
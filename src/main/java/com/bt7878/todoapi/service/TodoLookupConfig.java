@@ -0,0 +1,24 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.cache.TodoCache;
+import com.bt7878.todoapi.repository.TodoRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.single-flight.enabled", havingValue = "true")
+@EnableConfigurationProperties(TodoLookupProperties.class)
+class TodoLookupConfig {
+
+    @Bean
+    TodoLookupCoalescer todoLookupCoalescer(TodoRepository todoRepository, TodoCache todoCache,
+                                            TodoLookupProperties properties) {
+        return new TodoLookupCoalescer(todoRepository, todoCache, properties.batchWindow(),
+                properties.maxBatchSize());
+    }
+
+}
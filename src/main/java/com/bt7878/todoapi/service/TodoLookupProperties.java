@@ -0,0 +1,19 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled      share one query between concurrent cache misses for the same todo
+ * @param batchWindow  if positive, lookups of different todos within this window are loaded with one query per
+ *                     owner; {@code 0} loads every todo on its own
+ * @param maxBatchSize number of todos that loads a batch before its window has passed
+ */
+@ConfigurationProperties("todo.single-flight")
+public record TodoLookupProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("0ms") Duration batchWindow,
+        @DefaultValue("100") int maxBatchSize) {
+}
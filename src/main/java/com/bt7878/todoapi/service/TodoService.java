@@ -1,35 +1,660 @@
 package com.bt7878.todoapi.service;
 
+import com.bt7878.todoapi.audit.AuditEvent;
+import com.bt7878.todoapi.audit.TodoAuditLog;
+import com.bt7878.todoapi.cache.TodoCache;
+import com.bt7878.todoapi.exception.TodoVersionMismatchException;
+import com.bt7878.todoapi.model.BatchItemResult;
+import com.bt7878.todoapi.model.BatchItemResult.Status;
 import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoPatch;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.repository.TodoChangeRepository;
 import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.service.TodoWriteBehindBuffer.PendingUpdate;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.data.domain.Limit;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+/**
+ * Todo reads and writes, each scoped to one owner. Todo ids are unique across owners, and a todo of another owner
+ * is treated as missing. Every write also records a {@link TodoChange} for the change feed in the same transaction.
+ * <p>
+ * With {@code todo.write-behind.enabled}, unconditional single-todo updates go to a {@link TodoWriteBehindBuffer}
+ * and are written in batches. Reads by id and list pages on this node include buffered updates; exports, filters
+ * and other nodes only see them once flushed.
+ * <p>
+ * With {@code todo.audit.enabled}, every committed create, update and delete is also handed to the
+ * {@link TodoAuditLog}. Buffered updates are audited when they are accepted, not when they are flushed.
+ * <p>
+ * With {@code todo.stats.enabled}, every write also adjusts the {@link TodoStatsCounters}. Single-todo writes then
+ * match the todo's current completed flag in their statement, so they know whether they changed it; a write that
+ * guesses the flag wrong takes a second statement. Buffered updates are counted when they are flushed.
+ * <p>
+ * With {@code todo.single-flight.enabled}, cache misses of {@link #getTodoById(String, Long)} load through the
+ * {@link TodoLookupCoalescer}, so concurrent reads of the same todo share one query.
+ */
 @Service
+@Profile("!reactive")
+@Timed("todo.service")
 public class TodoService {
 
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+    public static final int MAX_BATCH_SIZE = 1000;
+
     private final TodoRepository todoRepository;
+    private final TodoChangeRepository todoChangeRepository;
+    private final TodoCache todoCache;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TodoWriteBehindBuffer writeBehindBuffer;
+    private final TodoAuditLog auditLog;
+    private final TodoStatsCounters statsCounters;
+    private final TodoLookupCoalescer lookupCoalescer;
 
-    public TodoService(TodoRepository todoRepository) {
+    public TodoService(TodoRepository todoRepository, TodoChangeRepository todoChangeRepository, TodoCache todoCache,
+                       EntityManager entityManager, Validator validator,
+                       @Nullable TodoWriteBehindBuffer writeBehindBuffer, @Nullable TodoAuditLog auditLog,
+                       @Nullable TodoStatsCounters statsCounters, @Nullable TodoLookupCoalescer lookupCoalescer) {
         this.todoRepository = todoRepository;
+        this.todoChangeRepository = todoChangeRepository;
+        this.todoCache = todoCache;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.writeBehindBuffer = writeBehindBuffer;
+        this.auditLog = auditLog;
+        this.statsCounters = statsCounters;
+        this.lookupCoalescer = lookupCoalescer;
+    }
+
+    /**
+     * Page of an owner's todos as {@link TodoView} projections. The read-only transaction also tells Hibernate to
+     * skip the flush before the query and any dirty check at commit.
+     */
+    @Transactional(readOnly = true)
+    public TodoPage getTodos(String owner, long after, Boolean completed, String titlePrefix, int limit) {
+        int pageSize = pageSize(limit);
+        // Fetch one extra row to find out whether there is a next page without a count query
+        List<TodoView> todos = todoRepository.findPage(owner, after, completed, escapeLike(titlePrefix),
+                Limit.of(pageSize + 1));
+        if (writeBehindBuffer != null && writeBehindBuffer.size() > 0) {
+            todos = todos.stream().map(writeBehindBuffer::overlay).toList();
+        }
+        return toPage(todos, pageSize);
+    }
+
+    /**
+     * Number of an owner's todos and of the completed ones, from the {@link TodoStatsCounters} if enabled and with
+     * a count query otherwise.
+     */
+    @Transactional(readOnly = true)
+    public TodoStats getStats(String owner) {
+        return statsCounters == null ? todoRepository.countStats(owner) : statsCounters.get(owner);
+    }
+
+    /**
+     * Tag that changes whenever any todo changes, for conditional list requests.
+     *
+     * @see TodoCache#changeTag()
+     */
+    public String getChangeTag() {
+        return todoCache.changeTag();
+    }
+
+    /**
+     * Hands every todo of {@code owner} to {@code consumer} in id order while the rows are still being read.
+     * Each todo is detached once consumed, so memory use does not grow with the table size.
+     */
+    @Transactional(readOnly = true)
+    public void exportTodos(String owner, Consumer<Todo> consumer) {
+        try (Stream<Todo> todos = todoRepository.streamByOwner(owner)) {
+            export(todos, consumer);
+        }
+    }
+
+    /**
+     * Like {@link #exportTodos(String, Consumer)}, but for the todos of all owners.
+     */
+    @Transactional(readOnly = true)
+    public void exportAllTodos(Consumer<Todo> consumer) {
+        try (Stream<Todo> todos = todoRepository.streamAll()) {
+            export(todos, consumer);
+        }
+    }
+
+    public Optional<Todo> getTodoById(String owner, Long id) {
+        // Cached by id alone, since ids are unique across owners; a hit may still belong to another owner.
+        // Left without a transaction so that hits need none; misses load in the repository's read-only one.
+        Optional<Todo> todo = todoCache.get(id, key -> lookupCoalescer == null
+                        ? todoRepository.findByOwnerAndId(owner, key)
+                        : lookupCoalescer.load(owner, key))
+                .filter(cached -> cached.getOwner().equals(owner));
+        return writeBehindBuffer == null ? todo : todo.map(writeBehindBuffer::overlay);
+    }
+
+    /**
+     * Creates a todo. Any id or version in {@code todo} is ignored.
+     */
+    @Transactional
+    public Todo saveTodo(String owner, Todo todo) {
+        todo.setId(null);
+        todo.setVersion(null);
+        todo.setOwner(owner);
+        Todo saved = todoRepository.save(todo);
+        countStats(owner, 1, saved.isCompleted() ? 1 : 0);
+        recordUpserts(List.of(saved.getId()));
+        todoCache.evict(saved.getId());
+        audit(AuditEvent.Action.CREATE, owner, List.of(saved));
+        return saved;
+    }
+
+    /**
+     * Updates an existing todo with one conditional {@code UPDATE} instead of a find followed by a merge.
+     * The new version is not known without reading the row again, so the returned todo has none.
+     *
+     * With write-behind enabled the update is only buffered, after checking that the todo exists.
+     *
+     * @return the updated todo, or empty if the owner has no todo with this id
+     * @throws com.bt7878.todoapi.exception.TodoWriteBehindFullException if the write-behind buffer is full
+     */
+    @Transactional
+    public Optional<Todo> updateTodo(String owner, Long id, Todo todo) {
+        todo.setOwner(owner);
+        if (writeBehindBuffer != null) {
+            if (getTodoById(owner, id).isEmpty()) {
+                return Optional.empty();
+            }
+            writeBehindBuffer.offer(id, new PendingUpdate(owner, todo.getTitle(), todo.isCompleted()));
+            // Drops the cached row and advances the change tag, since reads now include the buffered update
+            todoCache.evict(id);
+            todo.setId(id);
+            todo.setVersion(null);
+            audit(AuditEvent.Action.UPDATE, owner, List.of(todo));
+            return Optional.of(todo);
+        }
+        if (update(owner, id, todo.getTitle(), todo.isCompleted()) == 0) {
+            return Optional.empty();
+        }
+        recordUpserts(List.of(id));
+        todoCache.evict(id);
+        todo.setId(id);
+        todo.setVersion(null);
+        audit(AuditEvent.Action.UPDATE, owner, List.of(todo));
+        return Optional.of(todo);
+    }
+
+    /**
+     * Updates a todo only if it is still at {@code version}, with one {@code UPDATE} on the success path.
+     * Only a failed update checks whether the todo exists at all.
+     *
+     * @return the updated todo, or empty if the owner has no todo with this id
+     * @throws TodoVersionMismatchException if the todo exists at another version
+     */
+    @Transactional
+    public Optional<Todo> updateTodo(String owner, Long id, Todo todo, long version) {
+        todo.setOwner(owner);
+        writeBuffered(List.of(id));
+        if (update(owner, id, version, todo.getTitle(), todo.isCompleted()) == 0) {
+            failIfExists(owner, id);
+            return Optional.empty();
+        }
+        recordUpserts(List.of(id));
+        todoCache.evict(id);
+        todo.setId(id);
+        todo.setVersion(version + 1);
+        audit(AuditEvent.Action.UPDATE, owner, List.of(todo));
+        return Optional.of(todo);
+    }
+
+    /**
+     * Deletes a todo with one conditional {@code DELETE}.
+     *
+     * @return {@code false} if the owner has no todo with this id
+     */
+    @Transactional
+    public boolean deleteTodo(String owner, Long id) {
+        if (delete(owner, id) == 0) {
+            return false;
+        }
+        discardBuffered(List.of(id));
+        todoChangeRepository.save(TodoChange.tombstone(owner, id, Instant.now()));
+        todoCache.evict(id);
+        auditDeletes(owner, List.of(id));
+        return true;
+    }
+
+    /**
+     * Deletes a todo only if it is still at {@code version}.
+     *
+     * @return {@code false} if the owner has no todo with this id
+     * @throws TodoVersionMismatchException if the todo exists at another version
+     */
+    @Transactional
+    public boolean deleteTodo(String owner, Long id, long version) {
+        writeBuffered(List.of(id));
+        if (delete(owner, id, version) == 0) {
+            failIfExists(owner, id);
+            return false;
+        }
+        todoChangeRepository.save(TodoChange.tombstone(owner, id, Instant.now()));
+        todoCache.evict(id);
+        auditDeletes(owner, List.of(id));
+        return true;
+    }
+
+    /**
+     * Creates all valid todos in one transaction. IDs come from a pooled sequence, so the inserts are sent
+     * to the database in JDBC batches. Invalid items are reported and skipped.
+     */
+    @Transactional
+    public List<BatchItemResult> createTodos(String owner, List<Todo> todos) {
+        BatchItemResult[] results = new BatchItemResult[todos.size()];
+        List<Todo> valid = new ArrayList<>(todos.size());
+        List<Integer> validIndexes = new ArrayList<>(todos.size());
+        for (int i = 0; i < todos.size(); i++) {
+            Todo todo = todos.get(i);
+            Map<String, String> errors = validate(todo);
+            if (!errors.isEmpty()) {
+                results[i] = BatchItemResult.invalid(i, null, errors);
+                continue;
+            }
+            todo.setId(null);
+            todo.setVersion(null);
+            todo.setOwner(owner);
+            valid.add(todo);
+            validIndexes.add(i);
+        }
+        List<Todo> saved = todoRepository.saveAll(valid);
+        countStats(owner, saved.size(), saved.stream().filter(Todo::isCompleted).count());
+        for (int i = 0; i < saved.size(); i++) {
+            int index = validIndexes.get(i);
+            results[index] = BatchItemResult.of(index, saved.get(i).getId(), Status.CREATED);
+        }
+        List<Long> ids = saved.stream().map(Todo::getId).toList();
+        recordUpserts(ids);
+        // Nothing is cached for new ids, but the broadcast advances the change tag on every node
+        todoCache.evictAll(ids);
+        audit(AuditEvent.Action.CREATE, owner, saved);
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Applies all valid patches in one transaction. The affected todos are loaded with a single query
+     * and written back as batched updates when the transaction commits.
+     */
+    @Transactional
+    public List<BatchItemResult> updateTodos(String owner, List<TodoPatch> patches) {
+        Set<Long> ids = patches.stream()
+                .filter(Objects::nonNull)
+                .map(TodoPatch::id)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, Todo> existing = todoRepository.findByOwnerAndIdIn(owner, ids).stream()
+                .collect(Collectors.toMap(Todo::getId, Function.identity()));
+        long completedBefore = countCompleted(existing.values());
+
+        Set<Long> updated = new HashSet<>();
+        if (writeBehindBuffer != null) {
+            // Patches may only set one field, so buffered updates have to be applied underneath them
+            Map<Long, PendingUpdate> buffered = writeBehindBuffer.drain(existing.keySet());
+            buffered.forEach((id, update) -> apply(existing.get(id), update));
+            updated.addAll(buffered.keySet());
+            releaseOnCompletion(buffered);
+        }
+        List<BatchItemResult> results = new ArrayList<>(patches.size());
+        for (int i = 0; i < patches.size(); i++) {
+            TodoPatch patch = patches.get(i);
+            Map<String, String> errors = validate(patch);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.invalid(i, patch == null ? null : patch.id(), errors));
+                continue;
+            }
+            Todo todo = existing.get(patch.id());
+            if (todo == null) {
+                results.add(BatchItemResult.of(i, patch.id(), Status.NOT_FOUND));
+                continue;
+            }
+            if (patch.title() != null) {
+                todo.setTitle(patch.title());
+            }
+            if (patch.completed() != null) {
+                todo.setCompleted(patch.completed());
+            }
+            updated.add(todo.getId());
+            results.add(BatchItemResult.of(i, todo.getId(), Status.UPDATED));
+        }
+        countStats(owner, 0, countCompleted(existing.values()) - completedBefore);
+        recordUpserts(updated);
+        todoCache.evictAll(existing.keySet());
+        audit(AuditEvent.Action.UPDATE, owner, updated.stream().map(existing::get).toList());
+        return results;
+    }
+
+    /**
+     * Deletes all existing todos among {@code ids} with a single {@code DELETE ... WHERE id IN (...)}.
+     */
+    @Transactional
+    public List<BatchItemResult> deleteTodos(String owner, List<Long> ids) {
+        Set<Long> existing = new HashSet<>(todoRepository.findExistingIds(owner,
+                ids.stream().filter(Objects::nonNull).collect(Collectors.toSet())));
+        discardBuffered(existing);
+        if (!existing.isEmpty()) {
+            if (statsCounters != null) {
+                countStats(owner, -existing.size(), -todoRepository.countCompleted(owner, existing));
+            }
+            todoChangeRepository.recordDeletes(existing, Instant.now());
+            todoRepository.deleteAllByIdInBatch(existing);
+            todoCache.evictAll(existing);
+            auditDeletes(owner, existing);
+        }
+
+        Set<Long> remaining = new HashSet<>(existing);
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Long id = ids.get(i);
+            if (id == null) {
+                results.add(BatchItemResult.invalid(i, null, Map.of("id", "must not be null")));
+            } else if (remaining.remove(id)) {
+                results.add(BatchItemResult.of(i, id, Status.DELETED));
+            } else {
+                results.add(BatchItemResult.of(i, id, Status.NOT_FOUND));
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Completes the next {@code limit} open todos of {@code owner} after id {@code after} with one {@code UPDATE},
+     * as one chunk of a {@link TodoBulkService} job. The todos stay locked until the transaction ends.
+     *
+     * @return the ids of the chunk in id order, empty once no open todo is left after {@code after}
+     */
+    @Transactional
+    public List<Long> completeNext(String owner, long after, int limit) {
+        List<Long> ids = todoRepository.lockIdsAfter(owner, false, after, Limit.of(limit));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        // Buffered updates of these todos were accepted before the bulk operation, so they are written first
+        writeBuffered(ids);
+        countStats(owner, 0, todoRepository.completeAll(ids));
+        recordUpserts(ids);
+        todoCache.evictAll(ids);
+        if (auditLog != null) {
+            audit(AuditEvent.Action.UPDATE, owner, todoRepository.findAllById(ids));
+        }
+        return ids;
+    }
+
+    /**
+     * Deletes the next {@code limit} completed todos of {@code owner} after id {@code after} with one
+     * {@code DELETE}, as one chunk of a {@link TodoBulkService} job.
+     *
+     * @return the ids of the chunk in id order, empty once no completed todo is left after {@code after}
+     */
+    @Transactional
+    public List<Long> deleteNextCompleted(String owner, long after, int limit) {
+        List<Long> ids = todoRepository.lockIdsAfter(owner, true, after, Limit.of(limit));
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        discardBuffered(ids);
+        countStats(owner, -ids.size(), -ids.size());
+        todoChangeRepository.recordDeletes(ids, Instant.now());
+        todoRepository.deleteAllByIdInBatch(ids);
+        todoCache.evictAll(ids);
+        auditDeletes(owner, ids);
+        return ids;
+    }
+
+    /**
+     * Writes a batch of buffered updates in one transaction, as batched {@code UPDATE}s on commit.
+     * Todos deleted since their update was buffered are skipped, and so are todos whose update a direct write
+     * has taken over. The todos stay locked until the transaction ends, so no direct write lands in between.
+     */
+    @Transactional
+    public void applyUpdates(Map<Long, PendingUpdate> updates) {
+        List<Todo> todos = todoRepository.lockAllById(updates.keySet()).stream()
+                .filter(todo -> writeBehindBuffer.claim(todo.getId(), updates))
+                .toList();
+        Map<String, Long> completedChanges = new HashMap<>();
+        for (Todo todo : todos) {
+            PendingUpdate update = updates.get(todo.getId());
+            completedChanges.merge(todo.getOwner(), completedChange(todo.isCompleted(), update.completed()), Long::sum);
+            apply(todo, update);
+        }
+        completedChanges.forEach((owner, completed) -> countStats(owner, 0, completed));
+        List<Long> ids = todos.stream().map(Todo::getId).toList();
+        recordUpserts(ids);
+        todoCache.evictAll(ids);
+    }
+
+    /**
+     * Writes the buffered updates to {@code ids} in the calling transaction, so a versioned write that follows
+     * compares against the version those updates produce.
+     */
+    private void writeBuffered(Collection<Long> ids) {
+        if (writeBehindBuffer == null) {
+            return;
+        }
+        Map<Long, PendingUpdate> buffered = writeBehindBuffer.drain(ids);
+        buffered.forEach((id, update) -> update(update.owner(), id, update.title(), update.completed()));
+        recordUpserts(buffered.keySet());
+        releaseOnCompletion(buffered);
+    }
+
+    private int update(String owner, Long id, String title, boolean completed) {
+        if (statsCounters == null) {
+            return todoRepository.updateTodo(owner, id, title, completed);
+        }
+        // Most updates leave the flag as it is, so that is tried first
+        Boolean before = writeMatching(completed, () -> todoRepository.existsByOwnerAndId(owner, id),
+                current -> todoRepository.updateTodoIfCompleted(owner, id, current, title, completed) > 0);
+        return countUpdate(owner, before, completed);
+    }
+
+    private int update(String owner, Long id, long version, String title, boolean completed) {
+        if (statsCounters == null) {
+            return todoRepository.updateTodo(owner, id, version, title, completed);
+        }
+        Boolean before = writeMatching(completed, () -> false,
+                current -> todoRepository.updateTodoIfCompleted(owner, id, version, current, title, completed) > 0);
+        return countUpdate(owner, before, completed);
+    }
+
+    private int delete(String owner, Long id) {
+        if (statsCounters == null) {
+            return todoRepository.deleteTodo(owner, id);
+        }
+        // Todos are mostly deleted once they are done
+        Boolean before = writeMatching(true, () -> todoRepository.existsByOwnerAndId(owner, id),
+                current -> todoRepository.deleteTodoIfCompleted(owner, id, current) > 0);
+        return countDelete(owner, before);
+    }
+
+    private int delete(String owner, Long id, long version) {
+        if (statsCounters == null) {
+            return todoRepository.deleteTodo(owner, id, version);
+        }
+        Boolean before = writeMatching(true, () -> false,
+                current -> todoRepository.deleteTodoIfCompleted(owner, id, version, current) > 0);
+        return countDelete(owner, before);
+    }
+
+    /**
+     * Runs {@code write} for the completed flag the todo is {@code likely} to have and then for the other one,
+     * until it matches the todo or {@code exists} says there is none, since the flag can change in between.
+     *
+     * @return the completed flag the todo had when it was written, or {@code null} if no write matched
+     */
+    private static Boolean writeMatching(boolean likely, BooleanSupplier exists, Predicate<Boolean> write) {
+        do {
+            if (write.test(likely)) {
+                return likely;
+            }
+            if (write.test(!likely)) {
+                return !likely;
+            }
+        } while (exists.getAsBoolean());
+        return null;
+    }
+
+    private int countUpdate(String owner, Boolean before, boolean completed) {
+        if (before == null) {
+            return 0;
+        }
+        countStats(owner, 0, completedChange(before, completed));
+        return 1;
+    }
+
+    private int countDelete(String owner, Boolean before) {
+        if (before == null) {
+            return 0;
+        }
+        countStats(owner, -1, before ? -1 : 0);
+        return 1;
+    }
+
+    private void countStats(String owner, long total, long completed) {
+        if (statsCounters != null) {
+            statsCounters.add(owner, total, completed);
+        }
+    }
+
+    private static long completedChange(boolean before, boolean after) {
+        return before == after ? 0 : after ? 1 : -1;
+    }
+
+    private static long countCompleted(Collection<Todo> todos) {
+        return todos.stream().filter(Todo::isCompleted).count();
+    }
+
+    private void discardBuffered(Collection<Long> ids) {
+        if (writeBehindBuffer != null) {
+            writeBehindBuffer.discard(ids);
+        }
+    }
+
+    /**
+     * Keeps drained updates readable until the transaction writing them completes, and puts them back if it
+     * rolls back.
+     */
+    private void releaseOnCompletion(Map<Long, PendingUpdate> buffered) {
+        if (buffered.isEmpty()) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            writeBehindBuffer.flushed(buffered);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    writeBehindBuffer.flushed(buffered);
+                } else {
+                    writeBehindBuffer.requeue(buffered);
+                }
+            }
+        });
+    }
+
+    private static void apply(Todo todo, PendingUpdate update) {
+        todo.setTitle(update.title());
+        todo.setCompleted(update.completed());
+    }
+
+    /**
+     * Appends the current state of the todos to the change feed, in the calling transaction.
+     */
+    private void recordUpserts(Collection<Long> ids) {
+        if (!ids.isEmpty()) {
+            todoChangeRepository.recordUpserts(ids, Instant.now());
+        }
+    }
+
+    /**
+     * Audits creates or updates of {@code todos} once the calling transaction commits.
+     */
+    private void audit(AuditEvent.Action action, String owner, Collection<Todo> todos) {
+        if (auditLog == null || todos.isEmpty()) {
+            return;
+        }
+        auditLog.recordAfterCommit(todos.stream()
+                .map(todo -> action == AuditEvent.Action.CREATE
+                        ? AuditEvent.created(owner, todo)
+                        : AuditEvent.updated(owner, todo))
+                .toList());
+    }
+
+    private void auditDeletes(String owner, Collection<Long> ids) {
+        if (auditLog != null) {
+            auditLog.recordAfterCommit(ids.stream().map(id -> AuditEvent.deleted(owner, id)).toList());
+        }
+    }
+
+    private void export(Stream<Todo> todos, Consumer<Todo> consumer) {
+        todos.forEach(todo -> {
+            consumer.accept(todo);
+            entityManager.detach(todo);
+        });
+    }
+
+    private void failIfExists(String owner, Long id) {
+        if (todoRepository.existsByOwnerAndId(owner, id)) {
+            throw new TodoVersionMismatchException(id);
+        }
     }
 
-    public List<Todo> getAllTodos() {
-        return (List<Todo>) todoRepository.findAll();
+    private Map<String, String> validate(Object item) {
+        if (item == null) {
+            return Map.of("item", "must not be null");
+        }
+        Map<String, String> errors = new HashMap<>();
+        for (ConstraintViolation<Object> violation : validator.validate(item)) {
+            errors.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        return errors;
     }
 
-    public Optional<Todo> getTodoById(Long id) {
-        return todoRepository.findById(id);
+    static int pageSize(int limit) {
+        return Math.clamp(limit, 1, MAX_PAGE_SIZE);
     }
 
-    public Todo saveTodo(Todo todo) {
-        return todoRepository.save(todo);
+    static TodoPage toPage(List<TodoView> todos, int pageSize) {
+        if (todos.size() <= pageSize) {
+            return new TodoPage(todos, null);
+        }
+        List<TodoView> page = todos.subList(0, pageSize);
+        return new TodoPage(page, page.getLast().id());
     }
 
-    public void deleteTodo(Long id) {
-        todoRepository.deleteById(id);
+    static String escapeLike(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
     }
 
 }
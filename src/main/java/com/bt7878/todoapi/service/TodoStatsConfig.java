@@ -0,0 +1,25 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.repository.TodoStatsRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.stats.enabled", havingValue = "true")
+@EnableConfigurationProperties(TodoStatsProperties.class)
+class TodoStatsConfig {
+
+    @Bean
+    TodoStatsCounters todoStatsCounters(TodoRepository todoRepository, TodoStatsRepository todoStatsRepository,
+                                        PlatformTransactionManager transactionManager,
+                                        TodoStatsProperties properties) {
+        return new TodoStatsCounters(todoRepository, todoStatsRepository, transactionManager, properties.database());
+    }
+
+}
@@ -0,0 +1,177 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoStatsSummary;
+import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.repository.TodoStatsRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Per-owner todo counts that {@link TodoService} adjusts on every write, so that stats are read without counting
+ * rows. Each write reports how many todos it added or removed and by how much the number of completed ones changed.
+ * <p>
+ * By default the counts are {@link LongAdder}s in memory, adjusted once the writing transaction commits. They only
+ * see the writes of this node. With {@code todo.stats.database} they are kept in the {@code todo_stats} table and
+ * adjusted in the writing transaction instead, at the cost of serializing the writes of one owner on its row.
+ * <p>
+ * Every {@code todo.stats.reconcile-interval} the counts are compared with {@code COUNT(*)}, which corrects drift
+ * and picks up owners without counts. In memory, reads count rows until the first reconciliation; in the database,
+ * reads of owners without a summary do.
+ */
+@Slf4j
+public class TodoStatsCounters implements MeterBinder {
+
+    private static final TodoStats NONE = new TodoStats(0, 0);
+
+    private final TodoRepository todoRepository;
+    private final TodoStatsRepository todoStatsRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean database;
+    private final Map<String, Counts> counts = new ConcurrentHashMap<>();
+    private final LongAdder corrections = new LongAdder();
+    private volatile boolean reconciled;
+
+    public TodoStatsCounters(TodoRepository todoRepository, TodoStatsRepository todoStatsRepository,
+                             PlatformTransactionManager transactionManager, boolean database) {
+        this.todoRepository = todoRepository;
+        this.todoStatsRepository = todoStatsRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.database = database;
+    }
+
+    /**
+     * Adds to the counts of {@code owner}: in the calling transaction with the database, and once it commits in
+     * memory.
+     */
+    public void add(String owner, long total, long completed) {
+        if (total == 0 && completed == 0) {
+            return;
+        }
+        if (database) {
+            // Owners without a summary yet get one, with their current counts, at the next reconciliation
+            todoStatsRepository.add(owner, total, completed);
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counts(owner).add(total, completed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counts(owner).add(total, completed);
+            }
+        });
+    }
+
+    public TodoStats get(String owner) {
+        if (database) {
+            return todoStatsRepository.findById(owner)
+                    .map(TodoStatsSummary::toStats)
+                    .orElseGet(() -> todoRepository.countStats(owner));
+        }
+        if (!reconciled) {
+            return todoRepository.countStats(owner);
+        }
+        Counts owned = counts.get(owner);
+        return owned == null ? NONE : owned.get();
+    }
+
+    /**
+     * Brings the counts in line with {@code COUNT(*)}. In memory, owners whose counts change while their todos are
+     * being counted are left for the next run, since the count may or may not include that write.
+     */
+    @Scheduled(fixedDelayString = "${todo.stats.reconcile-interval:10m}")
+    public void reconcile() {
+        if (database) {
+            reconcileDatabase();
+            return;
+        }
+        Map<String, TodoStats> before = snapshot();
+        Map<String, TodoStats> actual = transactionTemplate.execute(status -> todoRepository.countStatsByOwner())
+                .stream()
+                .collect(Collectors.toMap(TodoStatsSummary::getOwner, TodoStatsSummary::toStats));
+        Set<String> owners = new HashSet<>(actual.keySet());
+        owners.addAll(before.keySet());
+        boolean skipped = false;
+        for (String owner : owners) {
+            Counts owned = counts(owner);
+            TodoStats current = owned.get();
+            if (!current.equals(before.getOrDefault(owner, NONE))) {
+                skipped = true;
+                continue;
+            }
+            TodoStats expected = actual.getOrDefault(owner, NONE);
+            if (!current.equals(expected)) {
+                owned.add(expected.total() - current.total(), expected.completed() - current.completed());
+                corrections.increment();
+            }
+        }
+        // Until every owner has been reconciled once, the counts only hold the writes since startup
+        if (!skipped) {
+            reconciled = true;
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("todo.stats.corrections", corrections, LongAdder::sum)
+                .description("Owners whose todo counts were corrected by reconciliation")
+                .register(registry);
+    }
+
+    private void reconcileDatabase() {
+        Integer corrected = transactionTemplate.execute(status -> todoStatsRepository.reconcile());
+        corrections.add(corrected);
+        try {
+            transactionTemplate.executeWithoutResult(status -> todoStatsRepository.insertMissing());
+        } catch (DataIntegrityViolationException e) {
+            // Another node created some of the same summaries; the rest are created on the next run
+            log.debug("Todo stats summaries were created concurrently", e);
+        }
+    }
+
+    private Counts counts(String owner) {
+        return counts.computeIfAbsent(owner, key -> new Counts());
+    }
+
+    private Map<String, TodoStats> snapshot() {
+        Map<String, TodoStats> snapshot = new HashMap<>();
+        counts.forEach((owner, owned) -> snapshot.put(owner, owned.get()));
+        return snapshot;
+    }
+
+    private static final class Counts {
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder completed = new LongAdder();
+
+        void add(long total, long completed) {
+            this.total.add(total);
+            this.completed.add(completed);
+        }
+
+        TodoStats get() {
+            return new TodoStats(total.sum(), completed.sum());
+        }
+
+    }
+
+}
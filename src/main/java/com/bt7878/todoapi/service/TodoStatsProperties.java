@@ -0,0 +1,16 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * @param enabled  keep per-owner counts up to date on every write, so that {@code GET /api/todos/stats} does not
+ *                 count rows
+ * @param database keep the counts in the {@code todo_stats} table instead of in memory, so that every node sees the
+ *                 writes of all nodes
+ */
+@ConfigurationProperties("todo.stats")
+public record TodoStatsProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("false") boolean database) {
+}
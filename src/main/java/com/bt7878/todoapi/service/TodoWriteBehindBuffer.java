@@ -0,0 +1,237 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoWriteBehindFullException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoView;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-todo buffer of accepted but not yet written updates. A newer update to the same todo replaces the pending
+ * one, so a todo toggled many times between flushes is written once.
+ * <p>
+ * Updates stay visible to readers from the moment they are accepted until their flush has committed: drained
+ * updates move to an in-flight map and are only dropped once {@link #flushed} is called.
+ * <p>
+ * Each in-flight update belongs to the batch that drained it. A direct write to a todo takes over its in-flight
+ * update if the flusher has not started writing it yet, and otherwise marks it superseded, so that a failed flush
+ * does not put it back on top of the direct write.
+ */
+public class TodoWriteBehindBuffer implements MeterBinder {
+
+    public record PendingUpdate(String owner, String title, boolean completed) {
+    }
+
+    private record InFlight(PendingUpdate update, Map<Long, PendingUpdate> batch, boolean writing,
+                            boolean superseded) {
+
+        boolean belongsTo(Map<Long, PendingUpdate> batch) {
+            return this.batch == batch;
+        }
+
+    }
+
+    private final Map<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+    private final Map<Long, InFlight> inFlight = new ConcurrentHashMap<>();
+    private final int maxPending;
+    private final int flushSize;
+    private final AtomicLong accepted = new AtomicLong();
+    private final AtomicLong coalesced = new AtomicLong();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition flushRequested = lock.newCondition();
+
+    public TodoWriteBehindBuffer(int maxPending, int flushSize) {
+        this.maxPending = maxPending;
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Accepts an update, replacing any pending update to the same todo.
+     *
+     * @throws TodoWriteBehindFullException if the todo has no pending update and the buffer is full
+     */
+    public void offer(Long id, PendingUpdate update) {
+        // The size check is racy, so the buffer can briefly exceed maxPending by the number of concurrent writers
+        if (!pending.containsKey(id) && pending.size() >= maxPending) {
+            throw new TodoWriteBehindFullException();
+        }
+        accepted.incrementAndGet();
+        if (pending.put(id, update) != null) {
+            coalesced.incrementAndGet();
+        } else if (pending.size() >= flushSize) {
+            requestFlush();
+        }
+    }
+
+    /**
+     * The update readers should see for this todo, if it has one that is not yet committed.
+     */
+    public Optional<PendingUpdate> get(Long id) {
+        PendingUpdate update = pending.get(id);
+        if (update != null) {
+            return Optional.of(update);
+        }
+        return Optional.ofNullable(inFlight.get(id)).map(InFlight::update);
+    }
+
+    /**
+     * Returns {@code todo} with its unflushed update applied, as a copy. The copy has no version, since the version
+     * it will get is not known yet.
+     */
+    public Todo overlay(Todo todo) {
+        return get(todo.getId()).map(update -> {
+            Todo copy = new Todo();
+            copy.setId(todo.getId());
+            copy.setOwner(todo.getOwner());
+            copy.setTitle(update.title());
+            copy.setCompleted(update.completed());
+            return copy;
+        }).orElse(todo);
+    }
+
+    /**
+     * Like {@link #overlay(Todo)}, for the todos of a list page.
+     */
+    public TodoView overlay(TodoView todo) {
+        return get(todo.id())
+                .map(update -> new TodoView(todo.id(), update.title(), update.completed(), null))
+                .orElse(todo);
+    }
+
+    /**
+     * Drops pending and in-flight updates to todos that are about to be deleted.
+     */
+    public void discard(Collection<Long> ids) {
+        for (Long id : ids) {
+            pending.remove(id);
+            inFlight.computeIfPresent(id, (key, entry) -> entry.writing()
+                    ? new InFlight(entry.update(), entry.batch(), true, true)
+                    : null);
+        }
+    }
+
+    /**
+     * Removes up to {@code max} pending updates for flushing. They stay readable until {@link #flushed} or
+     * {@link #requeue} is called with the returned map.
+     */
+    public Map<Long, PendingUpdate> drain(int max) {
+        Map<Long, PendingUpdate> batch = new HashMap<>();
+        Iterator<Long> ids = pending.keySet().iterator();
+        while (batch.size() < max && ids.hasNext()) {
+            Long id = ids.next();
+            PendingUpdate update = pending.remove(id);
+            if (update != null) {
+                inFlight.put(id, new InFlight(update, batch, false, false));
+                batch.put(id, update);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Takes the pending updates to {@code ids}, and the in-flight ones the flusher has not started writing, so the
+     * caller can write them before its own change to those todos. In-flight updates that are already being written
+     * are marked superseded instead; the caller's write waits for theirs on the row lock.
+     */
+    public Map<Long, PendingUpdate> drain(Collection<Long> ids) {
+        Map<Long, PendingUpdate> batch = new HashMap<>();
+        for (Long id : ids) {
+            InFlight taken = inFlight.computeIfPresent(id, (key, entry) -> entry.writing()
+                    ? new InFlight(entry.update(), entry.batch(), true, true)
+                    : new InFlight(entry.update(), batch, true, false));
+            PendingUpdate update = pending.remove(id);
+            if (update != null) {
+                inFlight.put(id, new InFlight(update, batch, true, false));
+                batch.put(id, update);
+            } else if (taken != null && taken.belongsTo(batch)) {
+                batch.put(id, taken.update());
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Claims an update of a batch drained by the flusher for writing. Must be called while holding the row lock
+     * of the todo, so no direct write can commit between the claim and the flush.
+     *
+     * @return {@code false} if a direct write has taken the update over, in which case it must not be written
+     */
+    public boolean claim(Long id, Map<Long, PendingUpdate> batch) {
+        InFlight claimed = inFlight.computeIfPresent(id, (key, entry) -> entry.belongsTo(batch)
+                ? new InFlight(entry.update(), batch, true, entry.superseded())
+                : entry);
+        return claimed != null && claimed.belongsTo(batch);
+    }
+
+    public void flushed(Map<Long, PendingUpdate> batch) {
+        batch.keySet().forEach(id -> inFlight.computeIfPresent(id,
+                (key, entry) -> entry.belongsTo(batch) ? null : entry));
+    }
+
+    /**
+     * Puts back a batch whose flush failed. Updates accepted since the drain are newer and win, and updates
+     * superseded by a direct write or taken over by one are dropped.
+     */
+    public void requeue(Map<Long, PendingUpdate> batch) {
+        batch.keySet().forEach(id -> inFlight.computeIfPresent(id, (key, entry) -> {
+            if (!entry.belongsTo(batch)) {
+                return entry;
+            }
+            if (!entry.superseded()) {
+                pending.putIfAbsent(id, entry.update());
+            }
+            return null;
+        }));
+    }
+
+    public int size() {
+        return pending.size();
+    }
+
+    /**
+     * Waits until {@code flushSize} todos are pending, {@link #requestFlush()} is called, or {@code timeout} passes.
+     */
+    public void awaitFlush(Duration timeout) throws InterruptedException {
+        lock.lock();
+        try {
+            if (pending.size() < flushSize) {
+                flushRequested.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void requestFlush() {
+        lock.lock();
+        try {
+            flushRequested.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("todo.write.behind.pending", pending, Map::size)
+                .description("Todos with updates waiting to be flushed")
+                .register(registry);
+        FunctionCounter.builder("todo.write.behind.accepted", accepted, AtomicLong::get)
+                .description("Updates accepted into the write-behind buffer")
+                .register(registry);
+        FunctionCounter.builder("todo.write.behind.coalesced", coalesced, AtomicLong::get)
+                .description("Updates that replaced a pending update to the same todo")
+                .register(registry);
+    }
+
+}
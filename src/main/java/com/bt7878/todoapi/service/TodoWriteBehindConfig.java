@@ -0,0 +1,26 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+@Configuration
+@Profile("!reactive")
+@ConditionalOnProperty(name = "todo.write-behind.enabled", havingValue = "true")
+@EnableConfigurationProperties(TodoWriteBehindProperties.class)
+class TodoWriteBehindConfig {
+
+    @Bean
+    TodoWriteBehindBuffer todoWriteBehindBuffer(TodoWriteBehindProperties properties) {
+        return new TodoWriteBehindBuffer(properties.maxPending(), properties.flushSize());
+    }
+
+    @Bean
+    TodoWriteBehindFlusher todoWriteBehindFlusher(TodoWriteBehindBuffer buffer, TodoService todoService,
+                                                  TodoWriteBehindProperties properties) {
+        return new TodoWriteBehindFlusher(buffer, todoService, properties.flushSize(), properties.flushInterval());
+    }
+
+}
@@ -0,0 +1,104 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.service.TodoWriteBehindBuffer.PendingUpdate;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Writes buffered updates on a dedicated thread, one transaction per {@code flushSize} todos, whenever the buffer
+ * reaches {@code flushSize} or {@code flushInterval} has passed.
+ * <p>
+ * Stops after the web server has stopped accepting requests and flushes everything still buffered before the
+ * data source is closed.
+ */
+@Slf4j
+class TodoWriteBehindFlusher implements SmartLifecycle {
+
+    private static final int SHUTDOWN_ATTEMPTS = 3;
+
+    private final TodoWriteBehindBuffer buffer;
+    private final TodoService todoService;
+    private final int flushSize;
+    private final Duration flushInterval;
+    private volatile boolean running;
+    private Thread thread;
+
+    TodoWriteBehindFlusher(TodoWriteBehindBuffer buffer, TodoService todoService, int flushSize,
+                           Duration flushInterval) {
+        this.buffer = buffer;
+        this.todoService = todoService;
+        this.flushSize = flushSize;
+        this.flushInterval = flushInterval;
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        thread = Thread.ofPlatform().name("todo-write-behind").daemon().start(this::run);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        buffer.requestFlush();
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        for (int attempt = 1; attempt <= SHUTDOWN_ATTEMPTS && buffer.size() > 0; attempt++) {
+            flush();
+        }
+        if (buffer.size() > 0) {
+            log.error("Lost {} buffered todo updates on shutdown", buffer.size());
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Web servers stop at {@code DEFAULT_PHASE - 2048}, so no new updates arrive once this stops.
+     */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 4096;
+    }
+
+    private void run() {
+        while (running) {
+            try {
+                buffer.awaitFlush(flushInterval);
+            } catch (InterruptedException e) {
+                return;
+            }
+            flush();
+        }
+    }
+
+    /**
+     * Writes everything currently buffered. A failed batch is put back and retried on the next flush.
+     *
+     * @return {@code false} if a batch failed
+     */
+    boolean flush() {
+        while (buffer.size() > 0) {
+            Map<Long, PendingUpdate> batch = buffer.drain(flushSize);
+            try {
+                todoService.applyUpdates(batch);
+                buffer.flushed(batch);
+            } catch (RuntimeException e) {
+                buffer.requeue(batch);
+                log.warn("Failed to flush {} buffered todo updates", batch.size(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+}
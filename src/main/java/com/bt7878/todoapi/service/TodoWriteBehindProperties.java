@@ -0,0 +1,20 @@
+package com.bt7878.todoapi.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * @param enabled       accept {@code PUT /api/todos/{id}} updates into the write-behind buffer
+ * @param maxPending    maximum number of todos with unflushed updates; further todos are rejected until a flush
+ * @param flushSize     number of pending todos that triggers a flush, and the size of each flush transaction
+ * @param flushInterval maximum time an update stays in the buffer
+ */
+@ConfigurationProperties("todo.write-behind")
+public record TodoWriteBehindProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10000") int maxPending,
+        @DefaultValue("500") int flushSize,
+        @DefaultValue("100ms") Duration flushInterval) {
+}
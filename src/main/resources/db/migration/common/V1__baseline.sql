@@ -0,0 +1,48 @@
+-- Schema of todos, the change feed and idempotency keys, as mapped by the entities. Databases created before the
+-- migrations are baselined at this version instead of running it (spring.flyway.baseline-on-migrate), and
+-- postgresql/V1_1 upgrades them. Keep the two in step.
+
+-- Todo ids are allocated 50 at a time (allocationSize = 50), so batched inserts need one sequence call per 50 rows
+create sequence todo_seq start with 1 increment by 50;
+
+create table todo (
+    id        bigint       not null,
+    owner     varchar(64)  not null,
+    title     varchar(255) not null,
+    completed boolean      not null,
+    version   bigint,
+    primary key (id)
+);
+
+create index idx_todo_owner_id on todo (owner, id);
+create index idx_todo_owner_completed_id on todo (owner, completed, id);
+create index idx_todo_owner_title on todo (owner, title);
+
+create table todo_change (
+    seq        bigint generated by default as identity,
+    todo_id    bigint                      not null,
+    owner      varchar(64)                 not null,
+    title      varchar(255),
+    completed  boolean,
+    version    bigint,
+    deleted    boolean                     not null,
+    changed_at timestamp(6) with time zone not null,
+    primary key (seq)
+);
+
+create index idx_todo_change_owner_seq on todo_change (owner, seq);
+create index idx_todo_change_changed_at on todo_change (changed_at);
+
+create table idempotency_key (
+    owner           varchar(64)                 not null,
+    idempotency_key varchar(128)                not null,
+    request_hash    integer                     not null,
+    todo_id         bigint                      not null,
+    title           varchar(255),
+    completed       boolean                     not null,
+    version         bigint,
+    created_at      timestamp(6) with time zone not null,
+    primary key (owner, idempotency_key)
+);
+
+create index idx_idempotency_key_created_at on idempotency_key (created_at);
@@ -0,0 +1,7 @@
+-- Per-owner todo counts for todo.stats.database
+create table todo_stats (
+    owner     varchar(64) not null,
+    total     bigint      not null,
+    completed bigint      not null,
+    primary key (owner)
+);
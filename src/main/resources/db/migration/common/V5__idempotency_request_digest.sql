@@ -0,0 +1,6 @@
+-- Requests are compared by a SHA-256 digest of their body instead of a 32-bit hash, which different bodies could
+-- share. Recorded hashes cannot be compared with digests, so the records are dropped. Keys are only kept for
+-- todo.idempotency.ttl anyway; a retry of a request sent before the upgrade creates another todo.
+delete from idempotency_key;
+alter table idempotency_key drop column request_hash;
+alter table idempotency_key add column request_hash varchar(64) not null;
@@ -0,0 +1,54 @@
+-- Brings a database created before the migrations up to the schema of V1. Such a database only has the todo table
+-- of the first release, with identity ids and without owners or versions. It is baselined at V1
+-- (spring.flyway.baseline-on-migrate), so V1 never runs on it and this migration runs instead. On a database created
+-- by V1 every statement is a no-op.
+
+-- Ids come from todo_seq from now on, continuing after the highest identity id
+create sequence if not exists todo_seq start with 1 increment by 50;
+alter table todo alter column id drop identity if exists;
+alter table todo alter column id drop default;
+select setval('todo_seq', max(id)) from todo having max(id) is not null;
+
+-- Todos that existed before todos had owners belong to the default owner (Todo.DEFAULT_OWNER)
+alter table todo add column if not exists owner varchar(64);
+update todo set owner = 'default' where owner is null;
+alter table todo alter column owner set not null;
+
+alter table todo add column if not exists version bigint;
+update todo set version = 0 where version is null;
+
+alter table todo alter column title set not null;
+alter table todo alter column completed set not null;
+
+create index if not exists idx_todo_owner_id on todo (owner, id);
+create index if not exists idx_todo_owner_completed_id on todo (owner, completed, id);
+create index if not exists idx_todo_owner_title on todo (owner, title);
+
+create table if not exists todo_change (
+    seq        bigint generated by default as identity,
+    todo_id    bigint                      not null,
+    owner      varchar(64)                 not null,
+    title      varchar(255),
+    completed  boolean,
+    version    bigint,
+    deleted    boolean                     not null,
+    changed_at timestamp(6) with time zone not null,
+    primary key (seq)
+);
+
+create index if not exists idx_todo_change_owner_seq on todo_change (owner, seq);
+create index if not exists idx_todo_change_changed_at on todo_change (changed_at);
+
+create table if not exists idempotency_key (
+    owner           varchar(64)                 not null,
+    idempotency_key varchar(128)                not null,
+    request_hash    integer                     not null,
+    todo_id         bigint                      not null,
+    title           varchar(255),
+    completed       boolean                     not null,
+    version         bigint,
+    created_at      timestamp(6) with time zone not null,
+    primary key (owner, idempotency_key)
+);
+
+create index if not exists idx_idempotency_key_created_at on idempotency_key (created_at);
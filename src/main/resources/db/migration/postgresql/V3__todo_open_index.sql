@@ -0,0 +1,6 @@
+-- Open todos of an owner in id order, for list pages filtered on completed=false and for complete-all. Only covers
+-- open todos, so it stays small when most todos are done.
+--
+-- Built CONCURRENTLY, so writes to todo continue while it is built. Flyway runs this migration outside a
+-- transaction. If the build fails, it leaves an INVALID index behind: drop it and start the application again.
+create index concurrently if not exists idx_todo_owner_open_id on todo (owner, id) where completed = false;
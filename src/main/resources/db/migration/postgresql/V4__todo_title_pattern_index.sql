@@ -0,0 +1,6 @@
+-- Title prefix filters (title like 'prefix%'). Unless the database uses the C collation, idx_todo_owner_title
+-- cannot serve LIKE, while an index with varchar_pattern_ops can. idx_todo_owner_title is still used for equality
+-- and for ordering by title.
+--
+-- Built CONCURRENTLY, like V3.
+create index concurrently if not exists idx_todo_owner_title_pattern on todo (owner, title varchar_pattern_ops);
@@ -0,0 +1,60 @@
+-- Optional: turns the todo table into a PostgreSQL table hash-partitioned by owner, so that the indexes and
+-- autovacuum work of each partition only cover a share of the owners. Every query the API issues for a tenant
+-- filters on owner and is pruned to one partition.
+--
+-- Run once, during a maintenance window, on a database that has all migrations in db/migration applied:
+--
+--   psql "$DATABASE_URL" -v ON_ERROR_STOP=1 -f todo_by_owner_hash.sql
+--
+-- Change MODULUS (and the number of partitions) before running it; it cannot be changed in place later.
+
+BEGIN;
+
+LOCK TABLE todo IN ACCESS EXCLUSIVE MODE;
+
+ALTER TABLE todo RENAME TO todo_unpartitioned;
+ALTER INDEX idx_todo_owner_id RENAME TO idx_todo_unpartitioned_owner_id;
+ALTER INDEX idx_todo_owner_completed_id RENAME TO idx_todo_unpartitioned_owner_completed_id;
+ALTER INDEX idx_todo_owner_title RENAME TO idx_todo_unpartitioned_owner_title;
+ALTER INDEX idx_todo_owner_open_id RENAME TO idx_todo_unpartitioned_owner_open_id;
+ALTER INDEX idx_todo_owner_title_pattern RENAME TO idx_todo_unpartitioned_owner_title_pattern;
+
+-- Primary keys of partitioned tables must include the partition key, so the key becomes (owner, id). Ids still
+-- come from todo_seq and stay unique across owners.
+CREATE TABLE todo (
+    id        BIGINT       NOT NULL,
+    owner     VARCHAR(64)  NOT NULL,
+    title     VARCHAR(255),
+    completed BOOLEAN      NOT NULL,
+    version   BIGINT,
+    PRIMARY KEY (owner, id)
+) PARTITION BY HASH (owner);
+
+CREATE TABLE todo_p0 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 0);
+CREATE TABLE todo_p1 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 1);
+CREATE TABLE todo_p2 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 2);
+CREATE TABLE todo_p3 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 3);
+CREATE TABLE todo_p4 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 4);
+CREATE TABLE todo_p5 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 5);
+CREATE TABLE todo_p6 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 6);
+CREATE TABLE todo_p7 PARTITION OF todo FOR VALUES WITH (MODULUS 8, REMAINDER 7);
+
+INSERT INTO todo (id, owner, title, completed, version)
+SELECT id, owner, title, completed, version FROM todo_unpartitioned;
+
+DROP TABLE todo_unpartitioned;
+
+-- The primary key already serves (owner, id) lookups.
+CREATE INDEX idx_todo_owner_completed_id ON todo (owner, completed, id);
+CREATE INDEX idx_todo_owner_title ON todo (owner, title);
+-- Created by migrations V3 and V4 on the unpartitioned table. Indexes of partitioned tables cannot be built
+-- CONCURRENTLY, so they are created here while the table is locked.
+CREATE INDEX idx_todo_owner_open_id ON todo (owner, id) WHERE completed = false;
+CREATE INDEX idx_todo_owner_title_pattern ON todo (owner, title varchar_pattern_ops);
+-- Entity updates, write-behind flushes, change records and batch deletes address rows by id alone. They are not
+-- pruned and probe this index once per partition.
+CREATE INDEX idx_todo_id ON todo (id);
+
+COMMIT;
+
+ANALYZE todo;
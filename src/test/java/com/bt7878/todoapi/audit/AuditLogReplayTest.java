@@ -0,0 +1,48 @@
+package com.bt7878.todoapi.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditLogReplayTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void replay_WithOwnerFilter_ShouldPrintMatchingEventsAsJsonLines() throws IOException {
+        // Arrange
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, false)) {
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 1L)));
+            writer.append(AuditCodec.encode(AuditEvent.deleted("bob", 2L)));
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 3L)));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Act
+        AuditLogReplay.replay(directory, AuditLogReplay.filter(new String[]{directory.toString(), "--owner=alice"}),
+                new PrintStream(out, true, StandardCharsets.UTF_8));
+
+        // Assert
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"todoId\":1"));
+        assertTrue(lines[1].contains("\"todoId\":3"));
+        assertFalse(lines[0].contains("\"title\""));
+    }
+
+    @Test
+    void filter_WithUnknownOption_ShouldThrow() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class,
+                () -> AuditLogReplay.filter(new String[]{directory.toString(), "--until=now"}));
+    }
+
+}
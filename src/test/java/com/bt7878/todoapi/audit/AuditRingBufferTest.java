@@ -0,0 +1,90 @@
+package com.bt7878.todoapi.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditRingBufferTest {
+
+    @Test
+    void constructor_ShouldRoundCapacityUpToPowerOfTwo() {
+        // Act & Assert
+        assertEquals(8, new AuditRingBuffer(5).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+    }
+
+    @Test
+    void drainTo_ShouldReturnEventsInOfferOrder() {
+        // Arrange
+        AuditRingBuffer buffer = new AuditRingBuffer(4);
+        for (long id = 1; id <= 3; id++) {
+            buffer.offer(AuditEvent.deleted("anonymous", id));
+        }
+        List<AuditEvent> batch = new ArrayList<>();
+
+        // Act
+        int drained = buffer.drainTo(batch, 10);
+
+        // Assert
+        assertEquals(3, drained);
+        assertEquals(List.of(1L, 2L, 3L), batch.stream().map(AuditEvent::todoId).toList());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offer_WhenFull_ShouldRejectUntilDrained() {
+        // Arrange
+        AuditRingBuffer buffer = new AuditRingBuffer(2);
+        buffer.offer(AuditEvent.deleted("anonymous", 1L));
+        buffer.offer(AuditEvent.deleted("anonymous", 2L));
+
+        // Act & Assert
+        assertFalse(buffer.offer(AuditEvent.deleted("anonymous", 3L)));
+        buffer.drainTo(new ArrayList<>(), 1);
+        assertTrue(buffer.offer(AuditEvent.deleted("anonymous", 3L)));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void offer_FromManyThreads_ShouldDeliverEveryEventOnce() throws InterruptedException {
+        // Arrange
+        int producers = 4;
+        int perProducer = 10_000;
+        AuditRingBuffer buffer = new AuditRingBuffer(1024);
+        CountDownLatch done = new CountDownLatch(producers);
+        Set<Long> seen = new HashSet<>();
+        List<AuditEvent> batch = new ArrayList<>();
+
+        // Act
+        try (ExecutorService executor = Executors.newFixedThreadPool(producers)) {
+            for (int p = 0; p < producers; p++) {
+                long first = (long) p * perProducer;
+                executor.execute(() -> {
+                    for (long id = first; id < first + perProducer; id++) {
+                        while (!buffer.offer(AuditEvent.deleted("anonymous", id))) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    done.countDown();
+                });
+            }
+            while (done.getCount() > 0 || buffer.size() > 0) {
+                batch.clear();
+                buffer.drainTo(batch, 256);
+                batch.forEach(event -> assertTrue(seen.add(event.todoId())));
+            }
+        }
+
+        // Assert
+        assertEquals(producers * perProducer, seen.size());
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.bt7878.todoapi.audit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AuditSegmentWriterTest {
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    void append_ShouldBeReadBackInOrder() throws IOException {
+        // Arrange
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, false)) {
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 1L)));
+            writer.append(AuditCodec.encode(AuditEvent.deleted("bob", 2L)));
+            writer.sync();
+        }
+        List<AuditEvent> events = new ArrayList<>();
+
+        // Act
+        AuditLogReader.read(directory, events::add);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), events.stream().map(AuditEvent::todoId).toList());
+        assertEquals(List.of("alice", "bob"), events.stream().map(AuditEvent::owner).toList());
+    }
+
+    @Test
+    void append_WhenSegmentIsFull_ShouldRotateAndDeleteOldestSegments() throws IOException {
+        // Arrange
+        byte[] payload = AuditCodec.encode(AuditEvent.deleted("alice", 1L));
+        int segmentSize = 2 * (AuditSegmentWriter.HEADER_SIZE + payload.length);
+
+        // Act
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, segmentSize, 2, false)) {
+            for (long id = 1; id <= 6; id++) {
+                writer.append(AuditCodec.encode(AuditEvent.deleted("alice", id)));
+            }
+        }
+
+        // Assert
+        List<Path> segments = AuditLogReader.segments(directory);
+        assertEquals(2, segments.size());
+        List<AuditEvent> events = new ArrayList<>();
+        AuditLogReader.read(directory, events::add);
+        assertEquals(List.of(3L, 4L, 5L, 6L), events.stream().map(AuditEvent::todoId).toList());
+    }
+
+    @Test
+    void constructor_WithExistingSegments_ShouldStartNewSegment() throws IOException {
+        // Arrange
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, false)) {
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 1L)));
+        }
+
+        // Act
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, false)) {
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 2L)));
+        }
+
+        // Assert
+        assertEquals(2, AuditLogReader.segments(directory).size());
+        List<AuditEvent> events = new ArrayList<>();
+        AuditLogReader.read(directory, events::add);
+        assertEquals(List.of(1L, 2L), events.stream().map(AuditEvent::todoId).toList());
+    }
+
+    @Test
+    void readSegment_WithTornRecord_ShouldStopBeforeIt() throws IOException {
+        // Arrange
+        byte[] payload = AuditCodec.encode(AuditEvent.deleted("alice", 1L));
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 4096, 10, false)) {
+            writer.append(payload);
+            writer.append(AuditCodec.encode(AuditEvent.deleted("alice", 2L)));
+        }
+        Path segment = AuditLogReader.segments(directory).getFirst();
+        try (RandomAccessFile file = new RandomAccessFile(segment.toFile(), "rw")) {
+            // Corrupts the second payload, as if the crash happened while writing it
+            long offset = 2L * AuditSegmentWriter.HEADER_SIZE + payload.length;
+            file.seek(offset);
+            int value = file.read();
+            file.seek(offset);
+            file.write(value ^ 0xFF);
+        }
+        List<AuditEvent> events = new ArrayList<>();
+
+        // Act
+        AuditLogReader.readSegment(segment, events::add);
+
+        // Assert
+        assertEquals(List.of(1L), events.stream().map(AuditEvent::todoId).toList());
+    }
+
+    @Test
+    void append_WithRecordLargerThanSegment_ShouldThrow() throws IOException {
+        // Arrange
+        try (AuditSegmentWriter writer = new AuditSegmentWriter(directory, 16, 10, false)) {
+            // Act & Assert
+            assertThrows(IllegalArgumentException.class, () -> writer.append(new byte[16]));
+        }
+    }
+
+}
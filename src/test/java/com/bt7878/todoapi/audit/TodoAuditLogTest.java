@@ -0,0 +1,104 @@
+package com.bt7878.todoapi.audit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoAuditLogTest {
+
+    @Test
+    void recordAfterCommit_WithoutTransaction_ShouldRecordAtOnce() {
+        // Arrange
+        TodoAuditLog auditLog = new TodoAuditLog(8, AuditOverflowPolicy.BLOCK, 10);
+
+        // Act
+        auditLog.recordAfterCommit(List.of(AuditEvent.deleted("alice", 1L)));
+
+        // Assert
+        assertEquals(1, auditLog.depth());
+    }
+
+    @Test
+    void recordAfterCommit_InTransaction_ShouldWaitForCommit() {
+        // Arrange
+        TodoAuditLog auditLog = new TodoAuditLog(8, AuditOverflowPolicy.BLOCK, 10);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // Act
+            auditLog.recordAfterCommit(List.of(AuditEvent.deleted("alice", 1L)));
+            int beforeCommit = auditLog.depth();
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+            // Assert
+            assertEquals(0, beforeCommit);
+            assertEquals(1, auditLog.depth());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void record_WithDropPolicy_ShouldDropAndCountOverflow() {
+        // Arrange
+        TodoAuditLog auditLog = new TodoAuditLog(2, AuditOverflowPolicy.DROP, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLog.bindTo(registry);
+
+        // Act
+        for (long id = 1; id <= 5; id++) {
+            auditLog.record(AuditEvent.deleted("alice", id));
+        }
+
+        // Assert
+        List<AuditEvent> batch = new ArrayList<>();
+        auditLog.drainTo(batch, 10);
+        assertEquals(List.of(1L, 2L), batch.stream().map(AuditEvent::todoId).toList());
+        assertEquals(2.0, registry.get("todo.audit.events").tag("result", "accepted").functionCounter().count());
+        assertEquals(3.0, registry.get("todo.audit.events").tag("result", "dropped").functionCounter().count());
+    }
+
+    @Test
+    void record_WithSamplePolicy_ShouldKeepOneInSampleRateOverflowingEvents() throws InterruptedException {
+        // Arrange
+        TodoAuditLog auditLog = new TodoAuditLog(2, AuditOverflowPolicy.SAMPLE, 3);
+        auditLog.record(AuditEvent.deleted("alice", 1L));
+        auditLog.record(AuditEvent.deleted("alice", 2L));
+        auditLog.record(AuditEvent.deleted("alice", 3L));
+        auditLog.record(AuditEvent.deleted("alice", 4L));
+        // The third overflowing event is kept and waits until the flusher makes room
+        Thread producer = Thread.ofPlatform().start(() -> auditLog.record(AuditEvent.deleted("alice", 5L)));
+        List<AuditEvent> batch = new ArrayList<>();
+
+        // Act
+        while (batch.size() < 3) {
+            auditLog.drainTo(batch, 10);
+            Thread.onSpinWait();
+        }
+        producer.join();
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 5L), batch.stream().map(AuditEvent::todoId).toList());
+    }
+
+    @Test
+    void bindTo_ShouldExposeQueueDepthAndCapacity() {
+        // Arrange
+        TodoAuditLog auditLog = new TodoAuditLog(4, AuditOverflowPolicy.BLOCK, 10);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        auditLog.bindTo(registry);
+
+        // Act
+        auditLog.record(AuditEvent.deleted("alice", 1L));
+
+        // Assert
+        assertEquals(1.0, registry.get("todo.audit.queue.depth").gauge().value());
+        assertEquals(4.0, registry.get("todo.audit.queue.capacity").gauge().value());
+    }
+
+}
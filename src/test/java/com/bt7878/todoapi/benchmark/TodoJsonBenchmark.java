@@ -0,0 +1,94 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoView;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization and deserialization of single todos and of list pages, with the same mapper
+ * configuration Spring Boot uses for request and response bodies. {@code serializeEntityList} writes the same todos
+ * as entities, for comparison with the hand-written {@link TodoView} serializer used by list pages.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoJsonBenchmark {
+
+    private static final TypeReference<List<Todo>> TODO_LIST = new TypeReference<>() {
+    };
+
+    @Param({"1", "50", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private Todo todo;
+    private byte[] todoJson;
+    private List<Todo> todos;
+    private TodoPage page;
+    private byte[] listJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        todo = todo(1);
+        todoJson = objectMapper.writeValueAsBytes(todo);
+
+        todos = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            todos.add(todo(i));
+        }
+        page = new TodoPage(todos.stream().map(TodoView::of).toList(), (long) pageSize);
+        listJson = objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serializeTodo() throws IOException {
+        return objectMapper.writeValueAsBytes(todo);
+    }
+
+    @Benchmark
+    public Todo deserializeTodo() throws IOException {
+        return objectMapper.readValue(todoJson, Todo.class);
+    }
+
+    @Benchmark
+    public byte[] serializePage() throws IOException {
+        return objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializeEntityList() throws IOException {
+        return objectMapper.writeValueAsBytes(todos);
+    }
+
+    @Benchmark
+    public byte[] serializeViewList() throws IOException {
+        return objectMapper.writeValueAsBytes(page.items());
+    }
+
+    @Benchmark
+    public List<Todo> deserializeList() throws IOException {
+        return objectMapper.readValue(listJson, TODO_LIST);
+    }
+
+    private static Todo todo(long id) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("Benchmark todo number " + id);
+        todo.setCompleted(id % 2 == 0);
+        return todo;
+    }
+
+}
@@ -0,0 +1,105 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.TodoApiApplication;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.service.TodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One list request without the web layer: reading a page from in-memory H2 and serializing it. {@code projections}
+ * is the path {@link TodoService#getTodos} takes; {@code entities} loads managed {@link Todo}s in a read-write
+ * transaction and serializes them with the bean serializer, as list pages did before. Compare the bytes allocated
+ * per page in {@code gc.alloc.rate.norm}, which the {@code jmh} profile reports.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoListBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final String OWNER = "benchmark";
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private EntityManager entityManager;
+    private TransactionTemplate transactionTemplate;
+    private ObjectMapper objectMapper;
+    private long minId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.datasource.url=jdbc:h2:mem:list-benchmark");
+        todoService = context.getBean(TodoService.class);
+        entityManager = context.getBean(EntityManager.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        objectMapper = context.getBean(ObjectMapper.class);
+
+        List<Todo> todos = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("Benchmark todo " + i);
+            todo.setCompleted(i % 2 == 0);
+            todos.add(todo);
+        }
+        for (int i = 0; i < ROWS; i += TodoService.MAX_BATCH_SIZE) {
+            List<Todo> batch = todos.subList(i, Math.min(ROWS, i + TodoService.MAX_BATCH_SIZE));
+            long first = todoService.createTodos(OWNER, batch).getFirst().id();
+            minId = i == 0 ? first : minId;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public byte[] projections() throws IOException {
+        return objectMapper.writeValueAsBytes(todoService.getTodos(OWNER, randomAfter(), null, null, pageSize));
+    }
+
+    @Benchmark
+    public byte[] entities() throws IOException {
+        long after = randomAfter();
+        List<Todo> todos = transactionTemplate.execute(status -> entityManager.createQuery("""
+                        select t from Todo t where t.owner = :owner and t.id > :after order by t.id""", Todo.class)
+                .setParameter("owner", OWNER)
+                .setParameter("after", after)
+                .setMaxResults(pageSize + 1)
+                .getResultList());
+        List<Todo> page = todos.subList(0, Math.min(pageSize, todos.size()));
+        return objectMapper.writeValueAsBytes(new EntityPage(page, page.getLast().getId()));
+    }
+
+    /**
+     * The shape list pages had when they held entities.
+     */
+    public record EntityPage(List<Todo> items, Long nextCursor) {
+    }
+
+    private long randomAfter() {
+        return minId + ThreadLocalRandom.current().nextInt(ROWS - pageSize);
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.model.TodoSearchPage;
+import com.bt7878.todoapi.search.TodoSearchIndex;
+import com.bt7878.todoapi.search.TodoSearchIndex.Cursor;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of {@link TodoSearchIndex} against the number of indexed todos. Titles are four to eight words
+ * drawn from a skewed vocabulary, so {@code common} matches about 1% of todos and {@code rare} about 0.1%.
+ * {@link #containsScan} is the in-memory equivalent of {@code LIKE '%term%'}, a lower bound for a table scan.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoSearchBenchmark {
+
+    private static final int VOCABULARY_SIZE = 5000;
+
+    @Param({"10000", "100000", "1000000"})
+    public int todos;
+
+    private TodoSearchIndex index;
+    private List<String> titles;
+    private String common;
+    private String rare;
+    private Cursor secondPage;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        index = new TodoSearchIndex();
+        titles = new ArrayList<>(todos);
+        for (int id = 1; id <= todos; id++) {
+            StringBuilder title = new StringBuilder();
+            int words = 4 + random.nextInt(5);
+            for (int i = 0; i < words; i++) {
+                // Squaring skews the distribution towards low word numbers
+                double skewed = random.nextDouble() * random.nextDouble();
+                title.append(i == 0 ? "" : " ").append(word((int) (skewed * VOCABULARY_SIZE)));
+            }
+            titles.add(title.toString());
+            index.put(id, 1, title.toString(), false);
+        }
+        common = word(0);
+        rare = word(VOCABULARY_SIZE / 2);
+        secondPage = Cursor.parse(index.search(common, null, 20).next()).orElseThrow();
+    }
+
+    @Benchmark
+    public TodoSearchPage commonTerm() {
+        return index.search(common, null, 20);
+    }
+
+    @Benchmark
+    public TodoSearchPage commonTermSecondPage() {
+        return index.search(common, secondPage, 20);
+    }
+
+    @Benchmark
+    public TodoSearchPage rareTerm() {
+        return index.search(rare, null, 20);
+    }
+
+    @Benchmark
+    public TodoSearchPage rareAndCommonTerm() {
+        return index.search(rare + " " + common, null, 20);
+    }
+
+    @Benchmark
+    public int containsScan() {
+        int matches = 0;
+        for (String title : titles) {
+            if (title.contains(rare)) {
+                matches++;
+            }
+        }
+        return matches;
+    }
+
+    private static String word(int n) {
+        return "w" + n + "x";
+    }
+
+}
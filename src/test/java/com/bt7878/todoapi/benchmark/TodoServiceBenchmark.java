@@ -0,0 +1,122 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.TodoApiApplication;
+import com.bt7878.todoapi.model.BatchItemResult;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.service.TodoService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end {@link TodoService} calls against in-memory H2, with the test application properties.
+ * The insert benchmarks report rows per second: one transaction per row versus one JDBC-batched transaction
+ * for {@value #BATCH_SIZE} rows. All calls are made as one owner; {@code tenants} adds other owners with as many
+ * todos each, whose rows the owner-scoped indexes should keep out of the measured owner's reads.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final int BATCH_SIZE = 500;
+    private static final String OWNER = "benchmark";
+
+    @Param({"1", "10"})
+    private int tenants;
+
+    private ConfigurableApplicationContext context;
+    private TodoService todoService;
+    private long minId;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--logging.level.root=WARN", "--spring.datasource.url=jdbc:h2:mem:benchmark");
+        todoService = context.getBean(TodoService.class);
+
+        List<BatchItemResult> seeded = new ArrayList<>();
+        for (int i = 0; i < ROWS; i += BATCH_SIZE) {
+            seeded.addAll(todoService.createTodos(OWNER, todos(BATCH_SIZE)));
+        }
+        minId = seeded.getFirst().id();
+        for (int tenant = 1; tenant < tenants; tenant++) {
+            for (int i = 0; i < ROWS; i += BATCH_SIZE) {
+                todoService.createTodos("tenant-" + tenant, todos(BATCH_SIZE));
+            }
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Todo> getTodoById() {
+        return todoService.getTodoById(OWNER, randomId());
+    }
+
+    @Benchmark
+    public TodoPage getTodosPage() {
+        return todoService.getTodos(OWNER, randomId(), null, null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public TodoPage getTodosFiltered() {
+        return todoService.getTodos(OWNER, randomId(), false, "Benchmark todo 1", TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public Optional<Todo> updateTodo() {
+        Todo todo = new Todo();
+        todo.setTitle("Updated benchmark todo");
+        todo.setCompleted(ThreadLocalRandom.current().nextBoolean());
+        return todoService.updateTodo(OWNER, randomId(), todo);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<Todo> insertOneByOne() {
+        List<Todo> saved = new ArrayList<>(BATCH_SIZE);
+        for (Todo todo : todos(BATCH_SIZE)) {
+            saved.add(todoService.saveTodo(OWNER, todo));
+        }
+        return saved;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<BatchItemResult> insertBatch() {
+        return todoService.createTodos(OWNER, todos(BATCH_SIZE));
+    }
+
+    private long randomId() {
+        return minId + ThreadLocalRandom.current().nextInt(ROWS);
+    }
+
+    private static List<Todo> todos(int count) {
+        List<Todo> todos = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Todo todo = new Todo();
+            todo.setTitle("Benchmark todo " + i);
+            todo.setCompleted(i % 2 == 0);
+            todos.add(todo);
+        }
+        return todos;
+    }
+
+}
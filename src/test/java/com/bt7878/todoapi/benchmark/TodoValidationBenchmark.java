@@ -0,0 +1,85 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.exception.GlobalExceptionHandler;
+import com.bt7878.todoapi.model.Todo;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BeanPropertyBindingResult;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.beanvalidation.SpringValidatorAdapter;
+import org.springframework.web.bind.MethodArgumentNotValidException;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of {@code @Valid Todo} request bodies the way Spring MVC does it, and the error response built by
+ * {@link GlobalExceptionHandler} when validation fails.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoValidationBenchmark {
+
+    private ValidatorFactory validatorFactory;
+    private SpringValidatorAdapter validator;
+    private GlobalExceptionHandler exceptionHandler;
+    private MethodParameter parameter;
+    private Todo validTodo;
+    private Todo invalidTodo;
+    private MethodArgumentNotValidException exception;
+
+    @Setup
+    public void setUp() throws NoSuchMethodException {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        Validator beanValidator = validatorFactory.getValidator();
+        validator = new SpringValidatorAdapter(beanValidator);
+        exceptionHandler = new GlobalExceptionHandler();
+        parameter = new MethodParameter(TodoValidationBenchmark.class.getMethod("validate", Todo.class), 0);
+
+        validTodo = new Todo();
+        validTodo.setTitle("Buy groceries");
+        invalidTodo = new Todo();
+        invalidTodo.setTitle("");
+        exception = new MethodArgumentNotValidException(parameter, validate(invalidTodo));
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public BindingResult validateValidTodo() {
+        return validate(validTodo);
+    }
+
+    @Benchmark
+    public BindingResult validateInvalidTodo() {
+        return validate(invalidTodo);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> handleValidationExceptions() {
+        return exceptionHandler.handleValidationExceptions(exception);
+    }
+
+    @Benchmark
+    public ResponseEntity<Object> validateAndHandleInvalidTodo() {
+        return exceptionHandler.handleValidationExceptions(
+                new MethodArgumentNotValidException(parameter, validate(invalidTodo)));
+    }
+
+    public BindingResult validate(Todo todo) {
+        BindingResult bindingResult = new BeanPropertyBindingResult(todo, "todo");
+        validator.validate(todo, bindingResult);
+        return bindingResult;
+    }
+
+}
@@ -0,0 +1,101 @@
+package com.bt7878.todoapi.benchmark;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoView;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Size and serialization cost of a list page in each wire format the API offers, with and without the gzip
+ * response compression. Besides the time per operation, every serializing benchmark reports the encoded size of
+ * one page as the secondary result {@code bytes}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TodoWireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    private String format;
+
+    @Param({"50", "500"})
+    private int pageSize;
+
+    private ObjectMapper objectMapper;
+    private TodoPage page;
+    private byte[] encodedPage;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class WireSize {
+
+        public long bytes;
+
+    }
+
+    @Setup
+    public void setUp() throws IOException {
+        JsonFactory factory = switch (format) {
+            case "json" -> new JsonFactory();
+            case "smile" -> new SmileFactory();
+            case "cbor" -> new CBORFactory();
+            default -> throw new IllegalArgumentException(format);
+        };
+        objectMapper = Jackson2ObjectMapperBuilder.json().factory(factory).build();
+
+        List<TodoView> todos = new ArrayList<>(pageSize);
+        for (int i = 1; i <= pageSize; i++) {
+            todos.add(TodoView.of(todo(i)));
+        }
+        page = new TodoPage(todos, (long) pageSize);
+        encodedPage = objectMapper.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public byte[] serializePage(WireSize size) throws IOException {
+        byte[] encoded = objectMapper.writeValueAsBytes(page);
+        size.bytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public byte[] serializePageGzip(WireSize size) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(gzip, page);
+        }
+        byte[] encoded = out.toByteArray();
+        size.bytes = encoded.length;
+        return encoded;
+    }
+
+    @Benchmark
+    public TodoPage deserializePage() throws IOException {
+        return objectMapper.readValue(encodedPage, TodoPage.class);
+    }
+
+    private static Todo todo(long id) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setTitle("Benchmark todo number " + id);
+        todo.setCompleted(id % 2 == 0);
+        todo.setVersion(id % 7);
+        return todo;
+    }
+
+}
@@ -0,0 +1,194 @@
+package com.bt7878.todoapi.cache;
+
+import com.bt7878.todoapi.model.Todo;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoCacheTest {
+
+    private LocalTodoCacheInvalidationChannel channel;
+    private TodoCache node1;
+    private TodoCache node2;
+    private Todo todo;
+
+    @BeforeEach
+    void setUp() {
+        // Two caches sharing one channel stand in for two API nodes
+        channel = new LocalTodoCacheInvalidationChannel();
+        TodoCacheProperties properties = new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO);
+        node1 = new TodoCache(properties, channel);
+        node2 = new TodoCache(properties, channel);
+
+        todo = new Todo();
+        todo.setId(1L);
+        todo.setTitle("Test Todo");
+    }
+
+    @Test
+    void get_ShouldLoadOnceAndServeLaterCallsFromCache() {
+        // Arrange
+        AtomicInteger loads = new AtomicInteger();
+
+        // Act
+        Optional<Todo> first = node1.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(todo);
+        });
+        Optional<Todo> second = node1.get(1L, id -> {
+            loads.incrementAndGet();
+            return Optional.of(todo);
+        });
+
+        // Assert
+        assertEquals(Optional.of(todo), first);
+        assertEquals(Optional.of(todo), second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void get_WithMissingTodo_ShouldNotCacheIt() {
+        // Act
+        Optional<Todo> result = node1.get(1L, id -> Optional.empty());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(0, node1.size());
+    }
+
+    @Test
+    void evict_DuringLoad_ShouldNotLeaveLoadedRowCached() throws InterruptedException {
+        // Arrange
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread load = Thread.ofPlatform().start(() -> node1.get(1L, id -> {
+            loading.countDown();
+            awaitUninterruptibly(release);
+            return Optional.of(todo);
+        }));
+        loading.await();
+
+        // Act
+        // The write commits while the old row is being loaded, and its eviction arrives before the load finishes
+        Thread evict = Thread.ofPlatform().start(() -> node1.evict(1L));
+        while (evict.getState() == Thread.State.NEW || evict.getState() == Thread.State.RUNNABLE) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        load.join();
+        evict.join();
+
+        // Assert
+        Todo updated = new Todo();
+        updated.setId(1L);
+        updated.setTitle("Updated Todo");
+        assertEquals(Optional.of(updated), node1.get(1L, id -> Optional.of(updated)));
+    }
+
+    @Test
+    void evict_ShouldInvalidateEveryNode() {
+        // Arrange
+        node1.get(1L, id -> Optional.of(todo));
+        node2.get(1L, id -> Optional.of(todo));
+
+        // Act
+        node1.evict(1L);
+
+        // Assert
+        assertEquals(0, node1.size());
+        assertEquals(0, node2.size());
+    }
+
+    @Test
+    void evictAll_ShouldPublishEveryId() {
+        // Arrange
+        List<Long> published = new ArrayList<>();
+        channel.subscribe(published::add);
+
+        // Act
+        node1.evictAll(List.of(1L, 2L));
+
+        // Assert
+        assertEquals(List.of(1L, 2L), published);
+    }
+
+    @Test
+    void addEvictionListener_ShouldReportLocalAndRemoteEvictions() {
+        // Arrange
+        List<Long> evicted = new ArrayList<>();
+        node2.addEvictionListener(evicted::add);
+
+        // Act
+        node1.evict(1L);
+        node2.evict(2L);
+
+        // Assert
+        assertTrue(evicted.containsAll(List.of(1L, 2L)));
+    }
+
+    @Test
+    void evict_ShouldAdvanceChangeTagOnEveryNode() {
+        // Arrange
+        String node1Before = node1.changeTag();
+        String node2Before = node2.changeTag();
+
+        // Act
+        node1.evict(1L);
+
+        // Assert
+        assertNotEquals(node1Before, node1.changeTag());
+        assertNotEquals(node2Before, node2.changeTag());
+        assertNotEquals(node1.changeTag(), node2.changeTag());
+    }
+
+    @Test
+    void evict_WithReevictAfter_ShouldDropRowCachedInBetween() throws InterruptedException {
+        // Arrange
+        TodoCache cache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ofMillis(50)),
+                new LocalTodoCacheInvalidationChannel());
+        cache.evict(1L);
+        // A read from a lagging replica caches the old row right after the eviction
+        cache.get(1L, id -> Optional.of(todo));
+        String tagBefore = cache.changeTag();
+
+        // Act
+        Thread.sleep(500);
+
+        // Assert
+        assertEquals(0, cache.size());
+        assertNotEquals(tagBefore, cache.changeTag());
+    }
+
+    @Test
+    void bindTo_ShouldExposeHitAndMissCounts() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        node1.bindTo(registry);
+
+        // Act
+        node1.get(1L, id -> Optional.of(todo));
+        node1.get(1L, id -> Optional.of(todo));
+
+        // Assert
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "todos").tag("result", "hit").functionCounter().count());
+        assertEquals(1.0, registry.get("cache.gets").tag("cache", "todos").tag("result", "miss").functionCounter().count());
+    }
+
+    private static void awaitUninterruptibly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,302 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.exception.TodoVersionMismatchException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.service.ReactiveTodoService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveTodoController.class)
+@ActiveProfiles("reactive")
+@Import(ReactiveTodoControllerTest.TestConfig.class)
+class ReactiveTodoControllerTest {
+
+    private static final ObjectMapper CBOR = new ObjectMapper(new CBORFactory());
+
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @Autowired
+    private ReactiveTodoService todoService;
+
+    private Todo todo1;
+    private Todo todo2;
+
+    @BeforeEach
+    void setUp() {
+        // Reset mock before each test
+        Mockito.reset(todoService);
+
+        // Create test data
+        todo1 = new Todo();
+        todo1.setId(1L);
+        todo1.setTitle("Test Todo 1");
+        todo1.setCompleted(false);
+
+        todo2 = new Todo();
+        todo2.setId(2L);
+        todo2.setTitle("Test Todo 2");
+        todo2.setCompleted(true);
+    }
+
+    @Test
+    void getTodos_ShouldReturnPageOfTodos() {
+        // Arrange
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, 50))
+                .thenReturn(Mono.just(new TodoPage(List.of(TodoView.of(todo1), TodoView.of(todo2)), null)));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.items.length()").isEqualTo(2)
+                .jsonPath("$.items[0].title").isEqualTo("Test Todo 1")
+                .jsonPath("$.items[1].completed").isEqualTo(true);
+    }
+
+    @Test
+    void exportTodos_ShouldStreamNdjson() {
+        // Arrange
+        when(todoService.exportTodos(Todo.DEFAULT_OWNER)).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/export")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Todo.class)
+                .isEqualTo(List.of(todo1, todo2));
+    }
+
+    @Test
+    void exportTodos_WithoutAcceptHeader_ShouldStreamNdjson() {
+        // Arrange
+        when(todoService.exportTodos(Todo.DEFAULT_OWNER)).thenReturn(Flux.just(todo1, todo2));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/export")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_NDJSON);
+    }
+
+    @Test
+    void getTodoById_WithExistingId_ShouldReturnTodo() {
+        // Arrange
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 1L)).thenReturn(Mono.just(todo1));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Todo.class)
+                .isEqualTo(todo1);
+    }
+
+    @Test
+    void getTodoById_WithoutAcceptHeader_ShouldReturnJson() {
+        // Arrange
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 1L)).thenReturn(Mono.just(todo1));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/1")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+    }
+
+    @Test
+    void getTodoById_WithCborAccept_ShouldReturnCbor() {
+        // Arrange
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 1L)).thenReturn(Mono.just(todo1));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/1")
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .value(body -> assertEquals(todo1, readCbor(body)));
+    }
+
+    @Test
+    void createTodo_WithCborBody_ShouldReadCbor() throws Exception {
+        // Arrange
+        Todo newTodo = new Todo();
+        newTodo.setTitle("From CBOR");
+        when(todoService.createTodo(eq(Todo.DEFAULT_OWNER), any(Todo.class))).thenReturn(Mono.just(todo1));
+
+        // Act & Assert
+        webTestClient.post().uri("/api/todos")
+                .contentType(MediaType.APPLICATION_CBOR)
+                .bodyValue(CBOR.writeValueAsBytes(newTodo))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_JSON);
+
+        verify(todoService).createTodo(Todo.DEFAULT_OWNER, newTodo);
+    }
+
+    @Test
+    void getTodoById_WithTenantHeader_ShouldScopeLookupToTenant() {
+        // Arrange
+        when(todoService.getTodoById("alice", 1L)).thenReturn(Mono.just(todo1));
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/1")
+                .header("X-Tenant-Id", "alice")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(Todo.class)
+                .isEqualTo(todo1);
+
+        verify(todoService, never()).getTodoById(Todo.DEFAULT_OWNER, 1L);
+    }
+
+    @Test
+    void getTodoById_WithNonExistingId_ShouldReturnNotFound() {
+        // Arrange
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 99L)).thenReturn(Mono.empty());
+
+        // Act & Assert
+        webTestClient.get().uri("/api/todos/99")
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void createTodo_WithInvalidData_ShouldReturnBadRequestWithFieldErrors() {
+        // Arrange
+        Todo invalidTodo = new Todo();
+        invalidTodo.setTitle(""); // Empty title should fail validation
+
+        // Act & Assert
+        webTestClient.post().uri("/api/todos")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(invalidTodo)
+                .exchange()
+                .expectStatus().isBadRequest()
+                .expectBody()
+                .jsonPath("$.title").exists();
+
+        verify(todoService, never()).createTodo(any(), any(Todo.class));
+    }
+
+    @Test
+    void updateTodo_WithNonExistingId_ShouldReturnNotFound() {
+        // Arrange
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(99L), any(Todo.class))).thenReturn(Mono.empty());
+
+        // Act & Assert
+        webTestClient.put().uri("/api/todos/99")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(todo1)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void updateTodo_WithMatchingIfMatch_ShouldReturnNewETag() {
+        // Arrange
+        Todo updated = new Todo();
+        updated.setId(1L);
+        updated.setTitle("Test Todo 1");
+        updated.setVersion(4L);
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class), eq(3L)))
+                .thenReturn(Mono.just(updated));
+
+        // Act & Assert
+        webTestClient.put().uri("/api/todos/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(todo1)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+
+        verify(todoService, never()).updateTodo(any(), any(), any(Todo.class));
+    }
+
+    @Test
+    void updateTodo_WithStaleIfMatch_ShouldReturnPreconditionFailed() {
+        // Arrange
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class), eq(2L)))
+                .thenReturn(Mono.error(new TodoVersionMismatchException(1L)));
+
+        // Act & Assert
+        webTestClient.put().uri("/api/todos/1")
+                .header(HttpHeaders.IF_MATCH, "\"2\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(todo1)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void deleteTodo_WithMatchingIfMatch_ShouldDeleteThatVersion() {
+        // Arrange
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 1L, 3L)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        webTestClient.delete().uri("/api/todos/1")
+                .header(HttpHeaders.IF_MATCH, "\"3\"")
+                .exchange()
+                .expectStatus().isNoContent();
+
+        verify(todoService, never()).deleteTodo(Todo.DEFAULT_OWNER, 1L);
+    }
+
+    @Test
+    void deleteTodo_WithExistingId_ShouldReturnNoContent() {
+        // Arrange
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 1L)).thenReturn(Mono.just(true));
+
+        // Act & Assert
+        webTestClient.delete().uri("/api/todos/1")
+                .exchange()
+                .expectStatus().isNoContent();
+    }
+
+    private static Todo readCbor(byte[] body) {
+        try {
+            return CBOR.readValue(body, Todo.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    static class TestConfig {
+        @Bean
+        public ReactiveTodoService reactiveTodoService() {
+            return Mockito.mock(ReactiveTodoService.class);
+        }
+    }
+
+}
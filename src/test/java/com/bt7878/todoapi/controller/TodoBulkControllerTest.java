@@ -0,0 +1,122 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.exception.TodoBulkJobRunningException;
+import com.bt7878.todoapi.model.TodoBulkJob;
+import com.bt7878.todoapi.model.TodoBulkJob.Operation;
+import com.bt7878.todoapi.model.TodoBulkJob.State;
+import com.bt7878.todoapi.service.TodoBulkService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TodoBulkController.class)
+@Import(TodoBulkControllerTest.TestConfig.class)
+class TodoBulkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoBulkService todoBulkService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoBulkService);
+    }
+
+    @Test
+    void completeAll_ShouldStartJobAndReturnItsLocation() throws Exception {
+        // Arrange
+        when(todoBulkService.start("alice", Operation.COMPLETE_ALL))
+                .thenReturn(job("job-1", Operation.COMPLETE_ALL, State.RUNNING, 0));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/complete-all").header("X-Tenant-Id", "alice"))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "http://localhost/api/todos/jobs/job-1"))
+                .andExpect(jsonPath("$.id", is("job-1")))
+                .andExpect(jsonPath("$.operation", is("COMPLETE_ALL")))
+                .andExpect(jsonPath("$.state", is("RUNNING")));
+    }
+
+    @Test
+    void deleteCompleted_ShouldStartJob() throws Exception {
+        // Arrange
+        when(todoBulkService.start("default", Operation.DELETE_COMPLETED))
+                .thenReturn(job("job-2", Operation.DELETE_COMPLETED, State.RUNNING, 0));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos").param("completed", "true"))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.operation", is("DELETE_COMPLETED")));
+    }
+
+    @Test
+    void deleteCompleted_WithCompletedFalse_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos").param("completed", "false"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoBulkService, never()).start(any(), any());
+    }
+
+    @Test
+    void completeAll_WhileJobIsRunning_ShouldReturnConflict() throws Exception {
+        // Arrange
+        when(todoBulkService.start("default", Operation.COMPLETE_ALL))
+                .thenThrow(new TodoBulkJobRunningException("job-1"));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/complete-all"))
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Location", "/api/todos/jobs/job-1"));
+    }
+
+    @Test
+    void getJob_ShouldReturnProgress() throws Exception {
+        // Arrange
+        when(todoBulkService.get("default", "job-1"))
+                .thenReturn(Optional.of(job("job-1", Operation.COMPLETE_ALL, State.RUNNING, 2000)));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/jobs/job-1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.processed", is(2000)));
+    }
+
+    @Test
+    void cancelJob_WithUnknownJob_ShouldReturnNotFound() throws Exception {
+        // Arrange
+        when(todoBulkService.cancel("default", "job-9")).thenReturn(Optional.empty());
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/jobs/job-9"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static TodoBulkJob job(String id, Operation operation, State state, long processed) {
+        return new TodoBulkJob(id, operation, state, processed, Instant.parse("2025-05-01T00:00:00Z"), null, null);
+    }
+
+    static class TestConfig {
+        @Bean
+        public TodoBulkService todoBulkService() {
+            return Mockito.mock(TodoBulkService.class);
+        }
+    }
+
+}
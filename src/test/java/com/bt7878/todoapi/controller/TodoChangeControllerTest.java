@@ -0,0 +1,116 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.exception.TodoChangesExpiredException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.service.TodoChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TodoChangeController.class)
+@Import(TodoChangeControllerTest.TestConfig.class)
+class TodoChangeControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoChangeService todoChangeService;
+
+    @Autowired
+    private TodoChangeStream todoChangeStream;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoChangeService, todoChangeStream);
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangesAndNextCursor() throws Exception {
+        // Arrange
+        TodoChange tombstone = TodoChange.tombstone(Todo.DEFAULT_OWNER, 7L, Instant.now());
+        tombstone.setSeq(12L);
+        when(todoChangeService.getChanges(Todo.DEFAULT_OWNER, 11L, TodoChangeService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TodoChangePage(List.of(tombstone), 11L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/changes").param("since", "11"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(1)))
+                .andExpect(jsonPath("$.changes[0].seq", is(12)))
+                .andExpect(jsonPath("$.changes[0].todoId", is(7)))
+                .andExpect(jsonPath("$.changes[0].deleted", is(true)))
+                .andExpect(jsonPath("$.changes[0].title").doesNotExist())
+                .andExpect(jsonPath("$.changes[0].owner").doesNotExist())
+                .andExpect(jsonPath("$.next", is(11)));
+    }
+
+    @Test
+    void getChanges_WithExpiredCursor_ShouldReturnGone() throws Exception {
+        // Arrange
+        when(todoChangeService.getChanges(Todo.DEFAULT_OWNER, 1L, TodoChangeService.DEFAULT_PAGE_SIZE))
+                .thenThrow(new TodoChangesExpiredException(1L));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/changes").param("since", "1"))
+                .andExpect(status().isGone());
+    }
+
+    @Test
+    void getCursor_ShouldReturnEmptyPageWithCursor() throws Exception {
+        // Arrange
+        when(todoChangeService.getCursor()).thenReturn(42L);
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/changes/cursor"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(0)))
+                .andExpect(jsonPath("$.next", is(42)));
+    }
+
+    @Test
+    void streamChanges_WithLastEventId_ShouldResumeFromIt() throws Exception {
+        // Arrange
+        when(todoChangeStream.subscribe(any(), anyLong())).thenReturn(new SseEmitter());
+
+        // Act
+        mockMvc.perform(get("/api/todos/changes/stream")
+                        .param("since", "5")
+                        .header("Last-Event-ID", "9")
+                        .header("X-Tenant-Id", "alice"))
+                .andExpect(request().asyncStarted());
+
+        // Assert
+        verify(todoChangeStream, times(1)).subscribe("alice", 9L);
+    }
+
+    static class TestConfig {
+        @Bean
+        public TodoChangeService todoChangeService() {
+            return Mockito.mock(TodoChangeService.class);
+        }
+
+        @Bean
+        public TodoChangeStream todoChangeStream() {
+            return Mockito.mock(TodoChangeStream.class);
+        }
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.service.TodoChangeProperties;
+import com.bt7878.todoapi.service.TodoChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoChangeStreamTest {
+
+    @Mock
+    private TodoChangeService todoChangeService;
+
+    private TodoChangeStream stream;
+
+    @BeforeEach
+    void setUp() {
+        stream = new TodoChangeStream(todoChangeService, new TodoChangeProperties(Duration.ofSeconds(2),
+                Duration.ofDays(7), Duration.ofMinutes(30), 10));
+    }
+
+    @Test
+    void poll_WithoutSubscribers_ShouldNotQuery() {
+        // Act
+        stream.poll();
+
+        // Assert
+        verifyNoInteractions(todoChangeService);
+    }
+
+    @Test
+    void poll_AfterSubscribe_ShouldStartFromCursorOfSubscriber() {
+        // Arrange
+        when(todoChangeService.getCursor()).thenReturn(5L);
+        // The replay runs on its own thread and may not have started when the test ends
+        lenient().when(todoChangeService.getChanges(eq("alice"), anyLong(), anyInt()))
+                .thenReturn(new TodoChangePage(List.of(), 0));
+        when(todoChangeService.getAllChanges(5L, TodoChangeService.MAX_PAGE_SIZE))
+                .thenReturn(new TodoChangePage(List.of(), 5));
+        stream.subscribe("alice", 0);
+
+        // Act
+        stream.poll();
+
+        // Assert
+        verify(todoChangeService, times(1)).getAllChanges(5L, TodoChangeService.MAX_PAGE_SIZE);
+    }
+
+}
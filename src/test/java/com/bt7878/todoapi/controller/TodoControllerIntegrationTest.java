@@ -0,0 +1,263 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.repository.TodoChangeRepository;
+import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.search.TodoSearchService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.json.JsonCompareMode;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        // Keeps the change feed poller and the search index refresh from issuing statements during the tests
+        "todo.changes.poll-interval=1h",
+        "todo.search.refresh-interval=1h"
+})
+@AutoConfigureMockMvc
+class TodoControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Autowired
+    private TodoChangeRepository todoChangeRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TodoSearchService todoSearchService;
+
+    private Statistics statistics;
+    private Todo todo;
+
+    @BeforeEach
+    void setUp() {
+        Todo newTodo = new Todo();
+        newTodo.setTitle("Test Todo");
+        todo = todoRepository.save(newTodo);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void updateTodo_ShouldOnlyIssueUpdateAndChangeRecord() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isOk());
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateTodo_WithNonExistingId_ShouldIssueOneStatement() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/todos/" + (todo.getId() + 1000))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isNotFound());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteTodo_ShouldOnlyIssueDeleteAndTombstone() throws Exception {
+        // Act
+        mockMvc.perform(delete("/api/todos/" + todo.getId()))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void deleteTodo_WithNonExistingId_ShouldIssueOneStatement() throws Exception {
+        // Act
+        mockMvc.perform(delete("/api/todos/" + (todo.getId() + 1000)))
+                .andExpect(status().isNotFound());
+
+        // Assert
+        assertEquals(1, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateTodo_WithCurrentIfMatch_ShouldOnlyIssueUpdateAndChangeRecord() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .header("If-Match", "\"" + todo.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"" + (todo.getVersion() + 1) + "\""));
+
+        // Assert
+        assertEquals(2, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void updateTodo_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Act
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .header("If-Match", "\"" + (todo.getVersion() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isPreconditionFailed());
+
+        // Assert
+        assertEquals("Test Todo", todoRepository.findById(todo.getId()).orElseThrow().getTitle());
+    }
+
+    @Test
+    void getTodos_WithCurrentIfNoneMatch_ShouldNotQuery() throws Exception {
+        // Arrange
+        String eTag = mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        statistics.clear();
+
+        // Act
+        mockMvc.perform(get("/api/todos").header("If-None-Match", eTag))
+                .andExpect(status().isNotModified());
+
+        // Assert
+        assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    void getTodos_AfterUpdate_ShouldReturnNewETag() throws Exception {
+        // Arrange
+        String eTag = mockMvc.perform(get("/api/todos"))
+                .andReturn().getResponse().getHeader("ETag");
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isOk());
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").header("If-None-Match", eTag))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void updateAndDelete_ShouldAppearInChangeFeed() throws Exception {
+        // Arrange
+        long since = todoChangeRepository.findAll().stream().mapToLong(TodoChange::getSeq).max().orElse(0);
+
+        // Act
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Updated Todo\",\"completed\":true}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/todos/" + todo.getId()))
+                .andExpect(status().isNoContent());
+
+        // Assert
+        mockMvc.perform(get("/api/todos/changes").param("since", String.valueOf(since)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes", hasSize(2)))
+                .andExpect(jsonPath("$.changes[0].todoId", is(todo.getId().intValue())))
+                .andExpect(jsonPath("$.changes[0].title", is("Updated Todo")))
+                .andExpect(jsonPath("$.changes[0].version", is(1)))
+                .andExpect(jsonPath("$.changes[1].deleted", is(true)))
+                .andExpect(jsonPath("$.next", is((int) since)));
+    }
+
+    @Test
+    void createTodo_WithRepeatedIdempotencyKey_ShouldCreateOneTodo() throws Exception {
+        // Arrange
+        String body = "{\"title\":\"Idempotent Todo\",\"completed\":false}";
+        String created = mockMvc.perform(post("/api/todos")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        statistics.clear();
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().json(created, JsonCompareMode.STRICT));
+        assertEquals(0, statistics.getPrepareStatementCount());
+
+        mockMvc.perform(post("/api/todos")
+                        .header("Idempotency-Key", "create-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Another Todo\",\"completed\":false}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+
+    @Test
+    void todoOfAnotherTenant_ShouldBeInvisible() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/" + todo.getId()).header("X-Tenant-Id", "alice"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .header("X-Tenant-Id", "alice")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Hijacked\",\"completed\":true}"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/api/todos/" + todo.getId()).header("X-Tenant-Id", "alice"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/api/todos").header("X-Tenant-Id", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(0)));
+
+        mockMvc.perform(get("/api/todos/" + todo.getId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title", is("Test Todo")));
+    }
+
+    @Test
+    void updateTodo_ShouldBeSearchableAfterRefresh() throws Exception {
+        // Arrange
+        mockMvc.perform(put("/api/todos/" + todo.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Renew passport\",\"completed\":false}"))
+                .andExpect(status().isOk());
+
+        // Act
+        todoSearchService.refresh();
+
+        // Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "passport"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(1)))
+                .andExpect(jsonPath("$.hits[0].id", is(todo.getId().intValue())))
+                .andExpect(jsonPath("$.hits[0].title", is("Renew passport")));
+    }
+
+}
@@ -1,8 +1,18 @@
 package com.bt7878.todoapi.controller;
 
+import com.bt7878.todoapi.exception.TodoVersionMismatchException;
+import com.bt7878.todoapi.model.BatchItemResult;
+import com.bt7878.todoapi.model.BatchItemResult.Status;
 import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoPatch;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.service.TodoIdempotencyService;
 import com.bt7878.todoapi.service.TodoService;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -12,21 +22,26 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
-import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
-import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(TodoController.class)
-@Import(TodoControllerTest.TestConfig.class)
+@Import({TodoControllerTest.TestConfig.class, BinaryFormatConfig.class})
 class TodoControllerTest {
 
     @Autowired
@@ -37,71 +52,291 @@ class TodoControllerTest {
 
     @Autowired
     private TodoService todoService;
+
+    @Autowired
+    private TodoIdempotencyService todoIdempotencyService;
     private Todo todo1;
     private Todo todo2;
 
     @BeforeEach
     void setUp() {
         // Reset mock before each test
-        Mockito.reset(todoService);
+        Mockito.reset(todoService, todoIdempotencyService);
+        when(todoService.getChangeTag()).thenReturn("epoch-1");
 
         // Create test data
         todo1 = new Todo();
         todo1.setId(1L);
         todo1.setTitle("Test Todo 1");
         todo1.setCompleted(false);
+        todo1.setVersion(3L);
 
         todo2 = new Todo();
         todo2.setId(2L);
         todo2.setTitle("Test Todo 2");
         todo2.setCompleted(true);
+        todo2.setVersion(0L);
     }
 
     @Test
-    void getAllTodos_ShouldReturnAllTodos() throws Exception {
+    void getTodos_ShouldReturnPageOfTodos() throws Exception {
         // Arrange
-        List<Todo> todos = Arrays.asList(todo1, todo2);
-        when(todoService.getAllTodos()).thenReturn(todos);
+        TodoPage page = new TodoPage(List.of(TodoView.of(todo1), TodoView.of(todo2)), 2L);
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, TodoService.DEFAULT_PAGE_SIZE)).thenReturn(page);
 
         // Act & Assert
         mockMvc.perform(get("/api/todos"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(2)))
-                .andExpect(jsonPath("$[0].id", is(1)))
-                .andExpect(jsonPath("$[0].title", is("Test Todo 1")))
-                .andExpect(jsonPath("$[0].completed", is(false)))
-                .andExpect(jsonPath("$[1].id", is(2)))
-                .andExpect(jsonPath("$[1].title", is("Test Todo 2")))
-                .andExpect(jsonPath("$[1].completed", is(true)));
+                .andExpect(jsonPath("$.items", hasSize(2)))
+                .andExpect(jsonPath("$.items[0].id", is(1)))
+                .andExpect(jsonPath("$.items[0].title", is("Test Todo 1")))
+                .andExpect(jsonPath("$.items[0].completed", is(false)))
+                .andExpect(jsonPath("$.items[0].version", is(3)))
+                .andExpect(jsonPath("$.items[1].id", is(2)))
+                .andExpect(jsonPath("$.items[1].title", is("Test Todo 2")))
+                .andExpect(jsonPath("$.items[1].completed", is(true)))
+                .andExpect(jsonPath("$.nextCursor", is(2)));
+
+        verify(todoService, times(1)).getTodos(Todo.DEFAULT_OWNER, 0L, null, null, TodoService.DEFAULT_PAGE_SIZE);
+    }
+
+    @Test
+    void getTodos_WithCursorAndFilters_ShouldPassThemToService() throws Exception {
+        // Arrange
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 1L, true, "Test", 10))
+                .thenReturn(new TodoPage(List.of(TodoView.of(todo2)), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos")
+                        .param("after", "1")
+                        .param("completed", "true")
+                        .param("titlePrefix", "Test")
+                        .param("limit", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)))
+                .andExpect(jsonPath("$.items[0].id", is(2)))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+
+        verify(todoService, times(1)).getTodos(Todo.DEFAULT_OWNER, 1L, true, "Test", 10);
+    }
+
+    @Test
+    void getTodos_ShouldReturnChangeTagAsETag() throws Exception {
+        // Arrange
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TodoPage(List.of(TodoView.of(todo1)), null));
 
-        verify(todoService, times(1)).getAllTodos();
+        // Act & Assert
+        mockMvc.perform(get("/api/todos"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"epoch-1\""));
+    }
+
+    @Test
+    void getTodos_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutQuerying() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").header("If-None-Match", "\"epoch-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(todoService, never()).getTodos(any(), anyLong(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getTodos_WithStaleIfNoneMatch_ShouldReturnPage() throws Exception {
+        // Arrange
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TodoPage(List.of(TodoView.of(todo1)), null));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos").header("If-None-Match", "\"epoch-0\""))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items", hasSize(1)));
+    }
+
+    @Test
+    void getStats_ShouldReturnCountsWithChangeTag() throws Exception {
+        // Arrange
+        when(todoService.getStats(Todo.DEFAULT_OWNER)).thenReturn(new TodoStats(5, 2));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"epoch-1\""))
+                .andExpect(jsonPath("$.total", is(5)))
+                .andExpect(jsonPath("$.completed", is(2)));
+    }
+
+    @Test
+    void getStats_WithMatchingIfNoneMatch_ShouldReturnNotModifiedWithoutCounting() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/stats").header("If-None-Match", "W/\"epoch-1\""))
+                .andExpect(status().isNotModified());
+
+        verify(todoService, never()).getStats(any());
+    }
+
+    @Test
+    void getTodos_WithCborAccept_ShouldReturnCbor() throws Exception {
+        // Arrange
+        when(todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, TodoService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TodoPage(List.of(TodoView.of(todo1), TodoView.of(todo2)), 2L));
+
+        // Act
+        byte[] body = mockMvc.perform(get("/api/todos").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        // Assert
+        TodoPage page = new ObjectMapper(new CBORFactory()).readValue(body, TodoPage.class);
+        assertEquals(List.of("Test Todo 1", "Test Todo 2"), page.items().stream().map(TodoView::title).toList());
+        assertEquals(2L, page.nextCursor());
+    }
+
+    @Test
+    void createTodo_WithSmileBody_ShouldAcceptIt() throws Exception {
+        // Arrange
+        Todo newTodo = new Todo();
+        newTodo.setTitle("New Todo");
+        when(todoService.saveTodo(eq(Todo.DEFAULT_OWNER), any(Todo.class))).thenReturn(todo1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos")
+                        .contentType("application/x-jackson-smile")
+                        .content(new ObjectMapper(new SmileFactory()).writeValueAsBytes(newTodo)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(todoService, times(1))
+                .saveTodo(eq(Todo.DEFAULT_OWNER), argThat(todo -> todo.getTitle().equals("New Todo")));
+    }
+
+    @Test
+    void exportTodos_ShouldStreamNdjson() throws Exception {
+        // Arrange
+        doAnswer(invocation -> {
+            Consumer<Todo> consumer = invocation.getArgument(1);
+            consumer.accept(todo1);
+            consumer.accept(todo2);
+            return null;
+        }).when(todoService).exportTodos(eq(Todo.DEFAULT_OWNER), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/todos/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("""
+                        {"id":1,"title":"Test Todo 1","completed":false,"version":3}
+                        {"id":2,"title":"Test Todo 2","completed":true,"version":0}
+                        """));
+    }
+
+    @Test
+    void exportTodos_AsCsv_ShouldStreamCsvWithEscapedTitles() throws Exception {
+        // Arrange
+        todo2.setTitle("Say \"hi\", then leave");
+        doAnswer(invocation -> {
+            Consumer<Todo> consumer = invocation.getArgument(1);
+            consumer.accept(todo1);
+            consumer.accept(todo2);
+            return null;
+        }).when(todoService).exportTodos(eq(Todo.DEFAULT_OWNER), any());
+
+        // Act
+        MvcResult result = mockMvc.perform(get("/api/todos/export").param("format", "csv"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Assert
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(content().string("""
+                        id,title,completed
+                        1,Test Todo 1,false
+                        2,"Say ""hi"", then leave",true
+                        """));
+    }
+
+    @Test
+    void exportTodos_WithUnknownFormat_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/export").param("format", "xml"))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).exportTodos(any(), any());
     }
 
     @Test
     void getTodoById_WithExistingId_ShouldReturnTodo() throws Exception {
         // Arrange
-        when(todoService.getTodoById(1L)).thenReturn(Optional.of(todo1));
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 1L)).thenReturn(Optional.of(todo1));
 
         // Act & Assert
         mockMvc.perform(get("/api/todos/1"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.title", is("Test Todo 1")))
-                .andExpect(jsonPath("$.completed", is(false)));
+                .andExpect(jsonPath("$.completed", is(false)))
+                .andExpect(jsonPath("$.version", is(3)))
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(todoService, times(1)).getTodoById(Todo.DEFAULT_OWNER, 1L);
+    }
 
-        verify(todoService, times(1)).getTodoById(1L);
+    @Test
+    void getTodoById_WithMatchingIfNoneMatch_ShouldReturnNotModified() throws Exception {
+        // Arrange
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 1L)).thenReturn(Optional.of(todo1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().string(""));
     }
 
     @Test
     void getTodoById_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(todoService.getTodoById(99L)).thenReturn(Optional.empty());
+        when(todoService.getTodoById(Todo.DEFAULT_OWNER, 99L)).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(get("/api/todos/99"))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).getTodoById(99L);
+        verify(todoService, times(1)).getTodoById(Todo.DEFAULT_OWNER, 99L);
+    }
+
+    @Test
+    void getTodoById_WithTenantHeader_ShouldScopeLookupToTenant() throws Exception {
+        // Arrange
+        when(todoService.getTodoById("alice", 1L)).thenReturn(Optional.of(todo1));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/1").header("X-Tenant-Id", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.owner").doesNotExist());
+
+        verify(todoService, times(1)).getTodoById("alice", 1L);
+        verify(todoService, never()).getTodoById(Todo.DEFAULT_OWNER, 1L);
+    }
+
+    @Test
+    void getTodoById_WithInvalidTenantHeader_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/1").header("X-Tenant-Id", "not a tenant!"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.error", is("Invalid X-Tenant-Id header")));
+
+        verify(todoService, never()).getTodoById(any(), any());
     }
 
     @Test
@@ -116,7 +351,7 @@ class TodoControllerTest {
         savedTodo.setTitle("New Todo");
         savedTodo.setCompleted(false);
 
-        when(todoService.saveTodo(any(Todo.class))).thenReturn(savedTodo);
+        when(todoService.saveTodo(eq(Todo.DEFAULT_OWNER), any(Todo.class))).thenReturn(savedTodo);
 
         // Act & Assert
         mockMvc.perform(post("/api/todos")
@@ -127,7 +362,23 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.title", is("New Todo")))
                 .andExpect(jsonPath("$.completed", is(false)));
 
-        verify(todoService, times(1)).saveTodo(any(Todo.class));
+        verify(todoService, times(1)).saveTodo(eq(Todo.DEFAULT_OWNER), any(Todo.class));
+    }
+
+    @Test
+    void createTodo_WithIdempotencyKey_ShouldCreateThroughIdempotencyService() throws Exception {
+        // Arrange
+        when(todoIdempotencyService.saveTodo(eq(Todo.DEFAULT_OWNER), eq("key-1"), any(Todo.class))).thenReturn(todo1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos")
+                        .header("Idempotency-Key", "key-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"title\":\"Test Todo 1\",\"completed\":false}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(1)));
+
+        verify(todoService, never()).saveTodo(any(), any(Todo.class));
     }
 
     @Test
@@ -143,7 +394,7 @@ class TodoControllerTest {
                         .content(objectMapper.writeValueAsString(invalidTodo)))
                 .andExpect(status().isBadRequest());
 
-        verify(todoService, never()).saveTodo(any(Todo.class));
+        verify(todoService, never()).saveTodo(any(), any(Todo.class));
     }
 
     @Test
@@ -158,8 +409,8 @@ class TodoControllerTest {
         savedTodo.setTitle("Updated Todo");
         savedTodo.setCompleted(true);
 
-        when(todoService.getTodoById(1L)).thenReturn(Optional.of(todo1));
-        when(todoService.saveTodo(any(Todo.class))).thenReturn(savedTodo);
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class)))
+                .thenReturn(Optional.of(savedTodo));
 
         // Act & Assert
         mockMvc.perform(put("/api/todos/1")
@@ -170,8 +421,8 @@ class TodoControllerTest {
                 .andExpect(jsonPath("$.title", is("Updated Todo")))
                 .andExpect(jsonPath("$.completed", is(true)));
 
-        verify(todoService, times(1)).getTodoById(1L);
-        verify(todoService, times(1)).saveTodo(any(Todo.class));
+        verify(todoService, times(1)).updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class));
+        verify(todoService, never()).getTodoById(any(), anyLong());
     }
 
     @Test
@@ -181,7 +432,7 @@ class TodoControllerTest {
         updatedTodo.setTitle("Updated Todo");
         updatedTodo.setCompleted(true);
 
-        when(todoService.getTodoById(99L)).thenReturn(Optional.empty());
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(99L), any(Todo.class))).thenReturn(Optional.empty());
 
         // Act & Assert
         mockMvc.perform(put("/api/todos/99")
@@ -189,35 +440,181 @@ class TodoControllerTest {
                         .content(objectMapper.writeValueAsString(updatedTodo)))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).getTodoById(99L);
-        verify(todoService, never()).saveTodo(any(Todo.class));
+        verify(todoService, times(1)).updateTodo(eq(Todo.DEFAULT_OWNER), eq(99L), any(Todo.class));
     }
 
     @Test
     void deleteTodo_WithExistingId_ShouldReturnNoContent() throws Exception {
         // Arrange
-        when(todoService.getTodoById(1L)).thenReturn(Optional.of(todo1));
-        doNothing().when(todoService).deleteTodo(1L);
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 1L)).thenReturn(true);
 
         // Act & Assert
         mockMvc.perform(delete("/api/todos/1"))
                 .andExpect(status().isNoContent());
 
-        verify(todoService, times(1)).getTodoById(1L);
-        verify(todoService, times(1)).deleteTodo(1L);
+        verify(todoService, times(1)).deleteTodo(Todo.DEFAULT_OWNER, 1L);
+        verify(todoService, never()).getTodoById(any(), anyLong());
     }
 
     @Test
     void deleteTodo_WithNonExistingId_ShouldReturnNotFound() throws Exception {
         // Arrange
-        when(todoService.getTodoById(99L)).thenReturn(Optional.empty());
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 99L)).thenReturn(false);
 
         // Act & Assert
         mockMvc.perform(delete("/api/todos/99"))
                 .andExpect(status().isNotFound());
 
-        verify(todoService, times(1)).getTodoById(99L);
-        verify(todoService, never()).deleteTodo(anyLong());
+        verify(todoService, times(1)).deleteTodo(Todo.DEFAULT_OWNER, 99L);
+    }
+
+    @Test
+    void updateTodo_WithIfMatch_ShouldUpdateConditionallyAndReturnNewETag() throws Exception {
+        // Arrange
+        Todo updatedTodo = new Todo();
+        updatedTodo.setTitle("Updated Todo");
+
+        Todo savedTodo = new Todo();
+        savedTodo.setId(1L);
+        savedTodo.setTitle("Updated Todo");
+        savedTodo.setVersion(4L);
+
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class), eq(3L)))
+                .thenReturn(Optional.of(savedTodo));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedTodo)))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"4\""))
+                .andExpect(jsonPath("$.version", is(4)));
+
+        verify(todoService, never()).updateTodo(any(), anyLong(), any(Todo.class));
+        verify(todoService, never()).getTodoById(any(), anyLong());
+    }
+
+    @Test
+    void updateTodo_WithStaleIfMatch_ShouldReturnPreconditionFailed() throws Exception {
+        // Arrange
+        Todo updatedTodo = new Todo();
+        updatedTodo.setTitle("Updated Todo");
+
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class), eq(2L)))
+                .thenThrow(new TodoVersionMismatchException(1L));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedTodo)))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.error", is("Todo 1 has been modified")));
+    }
+
+    @Test
+    void updateTodo_WithWildcardIfMatch_ShouldUpdateUnconditionally() throws Exception {
+        // Arrange
+        Todo updatedTodo = new Todo();
+        updatedTodo.setTitle("Updated Todo");
+
+        when(todoService.updateTodo(eq(Todo.DEFAULT_OWNER), eq(1L), any(Todo.class)))
+                .thenReturn(Optional.of(updatedTodo));
+
+        // Act & Assert
+        mockMvc.perform(put("/api/todos/1")
+                        .header("If-Match", "*")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(updatedTodo)))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("ETag"));
+    }
+
+    @Test
+    void deleteTodo_WithIfMatch_ShouldDeleteConditionally() throws Exception {
+        // Arrange
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 1L, 3L)).thenReturn(true);
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/1").header("If-Match", "\"3\""))
+                .andExpect(status().isNoContent());
+
+        verify(todoService, never()).deleteTodo(any(), eq(1L));
+    }
+
+    @Test
+    void deleteTodo_WithWeakIfMatch_ShouldNeverMatch() throws Exception {
+        // Arrange
+        when(todoService.deleteTodo(Todo.DEFAULT_OWNER, 1L, -1L)).thenThrow(new TodoVersionMismatchException(1L));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/1").header("If-Match", "W/\"3\""))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void createTodos_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(todoService.createTodos(eq(Todo.DEFAULT_OWNER), anyList())).thenReturn(List.of(
+                BatchItemResult.of(0, 3L, Status.CREATED),
+                BatchItemResult.invalid(1, null, Map.of("title", "must not be empty"))));
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"title\":\"New Todo\"},{\"title\":\"\"}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].id", is(3)))
+                .andExpect(jsonPath("$[0].status", is("CREATED")))
+                .andExpect(jsonPath("$[0].errors").doesNotExist())
+                .andExpect(jsonPath("$[1].status", is("INVALID")))
+                .andExpect(jsonPath("$[1].errors.title", is("must not be empty")));
+    }
+
+    @Test
+    void updateTodos_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(todoService.updateTodos(Todo.DEFAULT_OWNER, List.of(new TodoPatch(1L, null, true))))
+                .thenReturn(List.of(BatchItemResult.of(0, 1L, Status.UPDATED)));
+
+        // Act & Assert
+        mockMvc.perform(patch("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"id\":1,\"completed\":true}]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("UPDATED")));
+    }
+
+    @Test
+    void deleteTodos_ShouldReturnPerItemResults() throws Exception {
+        // Arrange
+        when(todoService.deleteTodos(Todo.DEFAULT_OWNER, List.of(1L, 99L))).thenReturn(List.of(
+                BatchItemResult.of(0, 1L, Status.DELETED),
+                BatchItemResult.of(1, 99L, Status.NOT_FOUND)));
+
+        // Act & Assert
+        mockMvc.perform(delete("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[1,99]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status", is("DELETED")))
+                .andExpect(jsonPath("$[1].status", is("NOT_FOUND")));
+    }
+
+    @Test
+    void createTodos_WithTooManyItems_ShouldReturnBadRequest() throws Exception {
+        // Arrange
+        List<Todo> todos = Collections.nCopies(TodoService.MAX_BATCH_SIZE + 1, todo1);
+
+        // Act & Assert
+        mockMvc.perform(post("/api/todos/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(todos)))
+                .andExpect(status().isBadRequest());
+
+        verify(todoService, never()).createTodos(any(), anyList());
     }
 
     static class TestConfig {
@@ -225,6 +622,11 @@ class TodoControllerTest {
         public TodoService todoService() {
             return Mockito.mock(TodoService.class);
         }
+
+        @Bean
+        public TodoIdempotencyService todoIdempotencyService() {
+            return Mockito.mock(TodoIdempotencyService.class);
+        }
     }
 
 }
@@ -0,0 +1,80 @@
+package com.bt7878.todoapi.controller;
+
+import com.bt7878.todoapi.model.TodoSearchHit;
+import com.bt7878.todoapi.model.TodoSearchPage;
+import com.bt7878.todoapi.search.TodoSearchIndex.Cursor;
+import com.bt7878.todoapi.search.TodoSearchService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TodoSearchController.class)
+@Import(TodoSearchControllerTest.TestConfig.class)
+class TodoSearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TodoSearchService todoSearchService;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.reset(todoSearchService);
+    }
+
+    @Test
+    void search_ShouldReturnRankedHitsAndNextCursor() throws Exception {
+        // Arrange
+        when(todoSearchService.search("alice", "milk", new Cursor(2.5, 4L), TodoSearchService.DEFAULT_PAGE_SIZE))
+                .thenReturn(new TodoSearchPage(List.of(new TodoSearchHit(1L, "Buy milk", false, 1.25)), "1.25:1"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "milk").param("after", "2.5:4")
+                        .header("X-Tenant-Id", "alice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits", hasSize(1)))
+                .andExpect(jsonPath("$.hits[0].id", is(1)))
+                .andExpect(jsonPath("$.hits[0].title", is("Buy milk")))
+                .andExpect(jsonPath("$.hits[0].score", is(1.25)))
+                .andExpect(jsonPath("$.next", is("1.25:1")));
+    }
+
+    @Test
+    void search_WithBlankQuery_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", " "))
+                .andExpect(status().isBadRequest());
+
+        verify(todoSearchService, never()).search(any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void search_WithMalformedCursor_ShouldReturnBadRequest() throws Exception {
+        // Act & Assert
+        mockMvc.perform(get("/api/todos/search").param("q", "milk").param("after", "next"))
+                .andExpect(status().isBadRequest());
+    }
+
+    static class TestConfig {
+        @Bean
+        public TodoSearchService todoSearchService() {
+            return Mockito.mock(TodoSearchService.class);
+        }
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.bt7878.todoapi.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ReplicaDataSourceTest {
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica1;
+    private JdbcDataSource replica2;
+    private ReplicaDataSource replicaDataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        // Three in-memory databases that each know their own name and report a replication lag
+        primary = database("primary");
+        replica1 = database("replica1");
+        replica2 = database("replica2");
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", replica1);
+        replicas.put("replica2", replica2);
+        replicaDataSource = new ReplicaDataSource(primary, replicas, Duration.ofSeconds(5),
+                "SELECT seconds FROM replica_lag");
+    }
+
+    @Test
+    void getConnection_BeforeHealthCheck_ShouldUsePrimary() throws SQLException {
+        // Act & Assert
+        assertEquals("primary", nodeName());
+    }
+
+    @Test
+    void getConnection_WithHealthyReplicas_ShouldAlternateBetweenThem() throws SQLException {
+        // Arrange
+        replicaDataSource.checkHealth();
+
+        // Act
+        List<String> nodes = List.of(nodeName(), nodeName(), nodeName(), nodeName());
+
+        // Assert
+        assertEquals(2, nodes.stream().filter("replica1"::equals).count());
+        assertEquals(2, nodes.stream().filter("replica2"::equals).count());
+    }
+
+    @Test
+    void getConnection_WithLaggingReplica_ShouldSkipIt() throws SQLException {
+        // Arrange
+        execute(replica1, "UPDATE replica_lag SET seconds = 30");
+        replicaDataSource.checkHealth();
+
+        // Act & Assert
+        assertEquals(List.of("replica2", "replica2"), List.of(nodeName(), nodeName()));
+    }
+
+    @Test
+    void getConnection_WithNoUsableReplica_ShouldFallBackToPrimary() throws SQLException {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        replicaDataSource.bindTo(registry);
+        execute(replica1, "UPDATE replica_lag SET seconds = 30");
+        execute(replica2, "DROP TABLE replica_lag");
+        replicaDataSource.checkHealth();
+
+        // Act
+        String node = nodeName();
+
+        // Assert
+        assertEquals("primary", node);
+        assertEquals(1.0, registry.get("todo.replicas.fallbacks").functionCounter().count());
+        assertEquals(0.0, registry.get("todo.replicas.healthy").tag("replica", "replica1").gauge().value());
+        assertEquals(30.0, registry.get("todo.replicas.lag").tag("replica", "replica1").gauge().value());
+    }
+
+    @Test
+    void checkHealth_AfterReplicaCatchesUp_ShouldUseItAgain() throws SQLException {
+        // Arrange
+        execute(replica1, "UPDATE replica_lag SET seconds = 30");
+        execute(replica2, "UPDATE replica_lag SET seconds = 30");
+        replicaDataSource.checkHealth();
+        execute(replica2, "UPDATE replica_lag SET seconds = 1");
+
+        // Act
+        replicaDataSource.checkHealth();
+
+        // Assert
+        assertEquals("replica2", nodeName());
+    }
+
+    private String nodeName() throws SQLException {
+        try (Connection connection = replicaDataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT name FROM node")) {
+            resultSet.next();
+            return resultSet.getString(1);
+        }
+    }
+
+    private static JdbcDataSource database(String name) throws SQLException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        execute(dataSource, "CREATE TABLE node (name VARCHAR(20))");
+        execute(dataSource, "INSERT INTO node VALUES ('" + name + "')");
+        execute(dataSource, "CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        execute(dataSource, "INSERT INTO replica_lag VALUES (0)");
+        return dataSource;
+    }
+
+    private static void execute(DataSource dataSource, String sql) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.bt7878.todoapi.datasource;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.service.TodoService;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "todo.replicas.enabled=true",
+        "todo.replicas.nodes[0].url=" + ReplicaRoutingIntegrationTest.REPLICA_URL,
+        "todo.replicas.lag-query=SELECT seconds FROM replica_lag",
+        "todo.replicas.max-lag=5s",
+        "todo.replicas.health-check-interval=1h",
+        "todo.changes.grace=7s",
+        "todo.cache.reevict-after=5s",
+        "todo.changes.poll-interval=1h",
+        "todo.search.refresh-interval=1h"
+})
+class ReplicaRoutingIntegrationTest {
+
+    static final String REPLICA_URL = "jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private TodoService todoService;
+
+    @Autowired
+    private ReplicaDataSource replicaDataSource;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        // The replica is a separate database that holds different rows than the primary, so every read shows
+        // which of the two served it. It is opened with the credentials the app's replica pool uses.
+        JdbcDataSource replicaDataSource = new JdbcDataSource();
+        replicaDataSource.setURL(REPLICA_URL);
+        replicaDataSource.setUser(dataSourceProperties.determineUsername());
+        replicaDataSource.setPassword(dataSourceProperties.determinePassword());
+        replica = new JdbcTemplate(replicaDataSource);
+        replica.execute("DROP TABLE IF EXISTS todo");
+        replica.execute("DROP TABLE IF EXISTS replica_lag");
+        replica.execute("""
+                CREATE TABLE todo (
+                    id BIGINT PRIMARY KEY, owner VARCHAR(64) NOT NULL, title VARCHAR(255),
+                    completed BOOLEAN NOT NULL, version BIGINT)""");
+        replica.execute("CREATE TABLE replica_lag (seconds DOUBLE PRECISION)");
+        replica.update("INSERT INTO replica_lag VALUES (0)");
+        replica.update("INSERT INTO todo VALUES (1000000, ?, 'From replica', FALSE, 0)", Todo.DEFAULT_OWNER);
+        this.replicaDataSource.checkHealth();
+    }
+
+    @Test
+    void getTodos_ShouldReadFromReplica() {
+        // Act
+        List<TodoView> todos = todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, 10).items();
+
+        // Assert
+        assertEquals(List.of("From replica"), todos.stream().map(TodoView::title).toList());
+    }
+
+    @Test
+    void saveTodo_ShouldWriteToPrimary() {
+        // Arrange
+        Todo todo = new Todo();
+        todo.setTitle("Written");
+
+        // Act
+        Todo saved = todoService.saveTodo(Todo.DEFAULT_OWNER, todo);
+
+        // Assert
+        JdbcTemplate primary = new JdbcTemplate(dataSource);
+        assertEquals("Written", primary.queryForObject("SELECT title FROM todo WHERE id = ?", String.class,
+                saved.getId()));
+        assertEquals(0, replica.queryForObject("SELECT COUNT(*) FROM todo WHERE id = ?", Integer.class,
+                saved.getId()));
+    }
+
+    @Test
+    void getTodos_WithLaggingReplica_ShouldReadFromPrimary() {
+        // Arrange
+        replica.update("UPDATE replica_lag SET seconds = 60");
+        replicaDataSource.checkHealth();
+
+        // Act
+        List<TodoView> todos = todoService.getTodos(Todo.DEFAULT_OWNER, 0L, null, null, 10).items();
+
+        // Assert
+        assertEquals(List.of(), todos.stream().filter(todo -> todo.title().equals("From replica")).toList());
+    }
+
+}
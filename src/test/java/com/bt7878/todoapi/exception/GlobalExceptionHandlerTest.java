@@ -6,11 +6,13 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.validation.FieldError;
 import org.springframework.web.bind.MethodArgumentNotValidException;
+import org.springframework.web.bind.support.WebExchangeBindException;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -28,6 +30,9 @@ class GlobalExceptionHandlerTest {
     @Mock
     private MethodArgumentNotValidException methodArgumentNotValidException;
 
+    @Mock
+    private WebExchangeBindException webExchangeBindException;
+
     @Mock
     private BindingResult bindingResult;
 
@@ -90,4 +95,109 @@ class GlobalExceptionHandlerTest {
         assertEquals("Title cannot be empty", errors.get("title"));
         assertEquals("Completed must be a boolean", errors.get("completed"));
     }
-}
\ No newline at end of file
+
+    @Test
+    void handleReactiveValidationExceptions_ShouldReturnErrorMap() {
+        // Arrange
+        List<FieldError> fieldErrors = new ArrayList<>();
+        fieldErrors.add(new FieldError("todo", "title", "Title cannot be empty"));
+
+        when(webExchangeBindException.getBindingResult()).thenReturn(bindingResult);
+        when(bindingResult.getAllErrors()).thenReturn(new ArrayList<>(fieldErrors));
+
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleReactiveValidationExceptions(webExchangeBindException);
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+
+        @SuppressWarnings("unchecked")
+        Map<String, String> errors = (Map<String, String>) responseEntity.getBody();
+
+        assertNotNull(errors);
+        assertEquals(1, errors.size());
+        assertEquals("Title cannot be empty", errors.get("title"));
+    }
+
+    @Test
+    void handleInvalidTenant_ShouldReturnBadRequest() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleInvalidTenant(
+                new InvalidTenantException());
+
+        // Assert
+        assertEquals(HttpStatus.BAD_REQUEST, responseEntity.getStatusCode());
+        assertEquals(Map.of("error", "Invalid X-Tenant-Id header"), responseEntity.getBody());
+    }
+
+    @Test
+    void handleChangesExpired_ShouldReturnGone() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleChangesExpired(
+                new TodoChangesExpiredException(10L));
+
+        // Assert
+        assertEquals(HttpStatus.GONE, responseEntity.getStatusCode());
+        assertEquals(Map.of("error", "Changes since 10 are no longer available"), responseEntity.getBody());
+    }
+
+    @Test
+    void handleWriteBehindFull_ShouldReturnServiceUnavailableWithRetryAfter() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleWriteBehindFull(
+                new TodoWriteBehindFullException());
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(Map.of("error", "Too many pending updates, retry later"), responseEntity.getBody());
+    }
+
+    @Test
+    void handleRateLimitExceeded_ShouldReturnTooManyRequestsWithRetryAfter() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleRateLimitExceeded(
+                new RateLimitExceededException(3));
+
+        // Assert
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, responseEntity.getStatusCode());
+        assertEquals("3", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(Map.of("error", "Too many requests, retry later"), responseEntity.getBody());
+    }
+
+    @Test
+    void handleServerOverloaded_ShouldReturnServiceUnavailableWithRetryAfter() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleServerOverloaded(
+                new ServerOverloadedException());
+
+        // Assert
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, responseEntity.getStatusCode());
+        assertEquals("1", responseEntity.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(Map.of("error", "Server overloaded, retry later"), responseEntity.getBody());
+    }
+
+    @Test
+    void handleIdempotencyKeyReused_ShouldReturnUnprocessableEntity() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleIdempotencyKeyReused(
+                new IdempotencyKeyReusedException());
+
+        // Assert
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, responseEntity.getStatusCode());
+        assertEquals(Map.of("error", "Idempotency-Key was already used for a different request"),
+                responseEntity.getBody());
+    }
+
+    @Test
+    void handleBulkJobRunning_ShouldReturnConflictWithRunningJob() {
+        // Act
+        ResponseEntity<Object> responseEntity = globalExceptionHandler.handleBulkJobRunning(
+                new TodoBulkJobRunningException("job-1"));
+
+        // Assert
+        assertEquals(HttpStatus.CONFLICT, responseEntity.getStatusCode());
+        assertEquals("/api/todos/jobs/job-1", responseEntity.getHeaders().getFirst(HttpHeaders.LOCATION));
+        assertEquals(Map.of("error", "Bulk operation job-1 is still running"), responseEntity.getBody());
+    }
+}
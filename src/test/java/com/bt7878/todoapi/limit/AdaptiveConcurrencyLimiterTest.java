@@ -0,0 +1,65 @@
+package com.bt7878.todoapi.limit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(2, 8, Duration.ofMillis(50));
+    }
+
+    @Test
+    void tryAcquire_AtLimit_ShouldReject() {
+        // Arrange
+        for (int i = 0; i < 8; i++) {
+            assertTrue(limiter.tryAcquire());
+        }
+
+        // Act & Assert
+        assertFalse(limiter.tryAcquire());
+        limiter.release();
+        assertTrue(limiter.tryAcquire());
+    }
+
+    @Test
+    void adjust_WithLongPoolWait_ShouldLowerLimitDownToMinimum() {
+        // Act
+        limiter.adjust(Duration.ofMillis(200));
+        int lowered = limiter.limit();
+        for (int i = 0; i < 10; i++) {
+            limiter.adjust(Duration.ofMillis(200));
+        }
+
+        // Assert
+        assertEquals(6, lowered);
+        assertEquals(2, limiter.limit());
+    }
+
+    @Test
+    void adjust_WithShortPoolWait_ShouldRaiseLimitUpToMaximum() {
+        // Arrange
+        for (int i = 0; i < 10; i++) {
+            limiter.adjust(Duration.ofMillis(200));
+        }
+
+        // Act
+        limiter.adjust(Duration.ofMillis(10));
+        int raised = limiter.limit();
+        for (int i = 0; i < 10; i++) {
+            limiter.adjust(Duration.ZERO);
+        }
+
+        // Assert
+        assertEquals(3, raised);
+        assertEquals(8, limiter.limit());
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.bt7878.todoapi.limit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private AtomicLong now;
+    private ClientRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        now = new AtomicLong();
+        limiter = new ClientRateLimiter(1, 2, 100, now::get);
+    }
+
+    @Test
+    void tryAcquire_WithinBurst_ShouldAllow() {
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertEquals(0, limiter.tryAcquire("alice"));
+    }
+
+    @Test
+    void tryAcquire_BeyondBurst_ShouldReturnWaitUntilNextToken() {
+        // Arrange
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+
+        // Act
+        long wait = limiter.tryAcquire("alice");
+
+        // Assert
+        assertEquals(Duration.ofSeconds(1).toNanos(), wait);
+    }
+
+    @Test
+    void tryAcquire_AfterRefill_ShouldAllowAgain() {
+        // Arrange
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+        now.addAndGet(Duration.ofSeconds(1).toNanos());
+
+        // Act & Assert
+        assertEquals(0, limiter.tryAcquire("alice"));
+        assertTrue(limiter.tryAcquire("alice") > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldKeepSeparateBucketPerClient() {
+        // Arrange
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+
+        // Act & Assert
+        assertTrue(limiter.tryAcquire("alice") > 0);
+        assertEquals(0, limiter.tryAcquire("bob"));
+    }
+
+    @Test
+    void bindTo_ShouldCountDecisions() {
+        // Arrange
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        limiter.bindTo(registry);
+
+        // Act
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+        limiter.tryAcquire("alice");
+
+        // Assert
+        assertEquals(2.0, registry.get("todo.rate-limit.requests").tag("result", "allowed").functionCounter().count());
+        assertEquals(1.0, registry.get("todo.rate-limit.requests").tag("result", "rejected").functionCounter().count());
+    }
+
+}
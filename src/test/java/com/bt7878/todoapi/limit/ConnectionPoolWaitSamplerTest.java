@@ -0,0 +1,76 @@
+package com.bt7878.todoapi.limit;
+
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConnectionPoolWaitSamplerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimiter limiter;
+    private ConnectionPoolWaitSampler sampler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new AdaptiveConcurrencyLimiter(2, 8, Duration.ofMillis(50));
+        sampler = new ConnectionPoolWaitSampler(meterRegistry, limiter);
+    }
+
+    @Test
+    void sample_ShouldOnlyCountWaitsSincePreviousSample() {
+        // Arrange
+        Timer acquire = acquireTimer("primary");
+        acquire.record(Duration.ofMillis(500));
+        sampler.sample();
+
+        // Act
+        acquire.record(Duration.ofMillis(10));
+        acquire.record(Duration.ofMillis(20));
+        sampler.sample();
+
+        // Assert
+        assertEquals(7, limiter.limit());
+    }
+
+    @Test
+    void sample_ShouldUseSlowestPool() {
+        // Arrange
+        acquireTimer("primary").record(Duration.ofMillis(1));
+        acquireTimer("replica-0").record(Duration.ofMillis(200));
+
+        // Act
+        sampler.sample();
+
+        // Assert
+        assertEquals(6, limiter.limit());
+    }
+
+    @Test
+    void sample_WithWaitingThreadsAndNoAcquisitions_ShouldLowerLimit() throws InterruptedException {
+        // Arrange
+        acquireTimer("primary");
+        AtomicInteger pending = new AtomicInteger(5);
+        meterRegistry.gauge(ConnectionPoolWaitSampler.PENDING_GAUGE, List.of(Tag.of("pool", "primary")), pending);
+        Thread.sleep(100);
+
+        // Act
+        sampler.sample();
+
+        // Assert
+        assertEquals(6, limiter.limit());
+    }
+
+    private Timer acquireTimer(String pool) {
+        return Timer.builder(ConnectionPoolWaitSampler.ACQUIRE_TIMER).tag("pool", pool).register(meterRegistry);
+    }
+
+}
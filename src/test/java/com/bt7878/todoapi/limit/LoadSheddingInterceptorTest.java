@@ -0,0 +1,66 @@
+package com.bt7878.todoapi.limit;
+
+import com.bt7878.todoapi.exception.ServerOverloadedException;
+import jakarta.servlet.DispatcherType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoadSheddingInterceptorTest {
+
+    private AdaptiveConcurrencyLimiter limiter;
+    private LoadSheddingInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        limiter = new AdaptiveConcurrencyLimiter(1, 1, Duration.ofMillis(50));
+        interceptor = new LoadSheddingInterceptor(limiter);
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void preHandle_AtLimit_ShouldThrowServerOverloaded() {
+        // Arrange
+        interceptor.preHandle(new MockHttpServletRequest("GET", "/api/todos"), response, new Object());
+
+        // Act & Assert
+        assertThrows(ServerOverloadedException.class, () ->
+                interceptor.preHandle(new MockHttpServletRequest("GET", "/api/todos"), response, new Object()));
+    }
+
+    @Test
+    void afterCompletion_ShouldReleaseSlot() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+        interceptor.preHandle(request, response, new Object());
+
+        // Act
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        assertEquals(0, limiter.inFlight());
+    }
+
+    @Test
+    void asyncRequest_ShouldReleaseSlotOnceWhenHandlerReturns() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos/changes/stream");
+        interceptor.preHandle(request, response, new Object());
+
+        // Act
+        interceptor.afterConcurrentHandlingStarted(request, response, new Object());
+        request.setDispatcherType(DispatcherType.ASYNC);
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        assertEquals(0, limiter.inFlight());
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.bt7878.todoapi.limit;
+
+import com.bt7878.todoapi.exception.RateLimitExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateLimitInterceptorTest {
+
+    private RateLimitInterceptor interceptor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new RateLimitInterceptor(new ClientRateLimiter(1, 1, 100), "X-Api-Key", Set.of("known"));
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    void preHandle_WithUnknownKeys_ShouldLimitByRemoteAddress() {
+        // Arrange
+        interceptor.preHandle(request("10.0.0.1", "random-1"), response, new Object());
+
+        // Act & Assert
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("10.0.0.1", "random-2"), response, new Object()));
+    }
+
+    @Test
+    void preHandle_WithKnownKey_ShouldUseBucketOfKey() {
+        // Arrange
+        interceptor.preHandle(request("10.0.0.1", null), response, new Object());
+
+        // Act & Assert
+        assertTrue(interceptor.preHandle(request("10.0.0.1", "known"), response, new Object()));
+        assertThrows(RateLimitExceededException.class,
+                () -> interceptor.preHandle(request("10.0.0.2", "known"), response, new Object()));
+    }
+
+    private static MockHttpServletRequest request(String remoteAddr, String apiKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos");
+        request.setRemoteAddr(remoteAddr);
+        if (apiKey != null) {
+            request.addHeader("X-Api-Key", apiKey);
+        }
+        return request;
+    }
+
+}
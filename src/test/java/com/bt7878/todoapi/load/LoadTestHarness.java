@@ -0,0 +1,349 @@
+package com.bt7878.todoapi.load;
+
+import com.bt7878.todoapi.TodoApiApplication;
+import jakarta.servlet.Filter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletRequest;
+import jakarta.servlet.ServletResponse;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Compares request execution modes under the same load: the servlet stack on platform threads, the servlet stack
+ * on virtual threads, and the WebFlux/R2DBC stack of the {@code reactive} profile. Each mode boots the application
+ * on a random port, seeds it, and drives it with closed-loop clients (90% list reads, 10% updates). It then reports
+ * throughput, p50/p99 latency, the maximum number of requests in flight inside the server, and process CPU time per
+ * request. The CPU time includes the load-generating clients, which run in the same JVM.
+ * <p>
+ * Run with {@code ./mvnw -Pload-test verify -DskipTests}. Settings are read from system properties:
+ * <ul>
+ *     <li>{@code load.modes} – comma-separated modes to run (default {@code platform,virtual}; add
+ *     {@code reactive} to include the reactive stack, which needs {@code load.r2dbc.url})</li>
+ *     <li>{@code load.concurrency} – concurrent clients (default 400)</li>
+ *     <li>{@code load.duration} / {@code load.warmup} – measured and warm-up time (default 20s / 5s)</li>
+ *     <li>{@code load.db-latency} – artificial latency added to every JDBC statement (default 5ms)</li>
+ *     <li>{@code load.tomcat-threads} – platform thread pool size (default 50)</li>
+ *     <li>{@code load.pool-size} – connection pool size, used for every mode (default 20)</li>
+ *     <li>{@code load.datasource.url}, {@code .username}, {@code .password} – run against PostgreSQL
+ *     instead of the in-memory H2 stand-in</li>
+ *     <li>{@code load.r2dbc.url} – R2DBC URL of the same PostgreSQL database, for the reactive mode</li>
+ * </ul>
+ * H2 synchronizes internally and pins virtual threads, so the statement latency is added outside the driver.
+ * Latency cannot be injected into R2DBC this way, so compare the reactive stack against PostgreSQL with
+ * {@code load.db-latency=0}. The servlet modes must run first, because they create the schema.
+ */
+public class LoadTestHarness {
+
+    private static final int ROWS = 1000;
+    private static final Pattern ID = Pattern.compile("\"id\":(\\d+)");
+
+    public static void main(String[] args) throws Exception {
+        List<Result> results = new ArrayList<>();
+        for (String mode : System.getProperty("load.modes", "platform,virtual").split(",")) {
+            results.add(run(Mode.valueOf(mode.trim().toUpperCase())));
+        }
+        System.out.printf("%n%-10s %10s %10s %10s %10s %12s %12s %8s%n",
+                "mode", "requests", "req/s", "p50 ms", "p99 ms", "max inflight", "cpu us/req", "errors");
+        for (Result result : results) {
+            System.out.printf("%-10s %10d %10.0f %10.2f %10.2f %12d %12.1f %8d%n",
+                    result.mode(), result.requests(), result.throughput(), result.p50Millis(),
+                    result.p99Millis(), result.maxInFlight(), result.cpuMicrosPerRequest(), result.errors());
+        }
+    }
+
+    private static Result run(Mode mode) throws Exception {
+        InFlightFilter inFlight = new InFlightFilter();
+        Duration dbLatency = duration("load.db-latency", "5ms");
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TodoApiApplication.class)
+                .initializers(ctx -> {
+                    GenericApplicationContext generic = (GenericApplicationContext) ctx;
+                    generic.registerBean(InFlightFilter.class, () -> inFlight);
+                    generic.registerBean(SlowStatementPostProcessor.class, () -> new SlowStatementPostProcessor(dbLatency));
+                })
+                .run(mode.applicationArgs())) {
+
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+            int concurrency = Integer.getInteger("load.concurrency", 400);
+            List<Long> ids = seed(port);
+
+            drive(port, ids, concurrency, duration("load.warmup", "5s"));
+            inFlight.reset();
+            long cpuBefore = processCpuNanos();
+            Samples samples = drive(port, ids, concurrency, duration("load.duration", "20s"));
+            return samples.toResult(mode.name().toLowerCase(), inFlight.max(), processCpuNanos() - cpuBefore);
+        }
+    }
+
+    private static List<Long> seed(int port) throws IOException, InterruptedException {
+        List<Long> ids = new ArrayList<>(ROWS);
+        try (HttpClient http = HttpClient.newHttpClient()) {
+            for (int i = 0; i < ROWS; i++) {
+                HttpResponse<String> response = http.send(HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos"))
+                                .header("Content-Type", "application/json")
+                                .POST(HttpRequest.BodyPublishers.ofString("{\"title\":\"Load test todo " + i + "\"}"))
+                                .build(),
+                        HttpResponse.BodyHandlers.ofString());
+                Matcher matcher = ID.matcher(response.body());
+                if (response.statusCode() != 200 || !matcher.find()) {
+                    throw new IllegalStateException("Could not seed todo: " + response.body());
+                }
+                ids.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+        return ids;
+    }
+
+    private static long processCpuNanos() {
+        return ((com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean()).getProcessCpuTime();
+    }
+
+    private static Samples drive(int port, List<Long> ids, int concurrency, Duration duration) {
+        Samples samples = new Samples();
+        long deadline = System.nanoTime() + duration.toNanos();
+        // Closing the executor waits for every client to pass the deadline
+        try (HttpClient http = HttpClient.newHttpClient();
+             ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                clients.submit(() -> {
+                    long[] latencies = new long[1024];
+                    int count = 0;
+                    int errors = 0;
+                    while (System.nanoTime() < deadline) {
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = http.send(nextRequest(port, ids), HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() >= 400) {
+                                errors++;
+                            }
+                        } catch (IOException e) {
+                            errors++;
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            break;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = System.nanoTime() - start;
+                    }
+                    samples.add(Arrays.copyOf(latencies, count), errors);
+                });
+            }
+        }
+        samples.elapsedNanos = duration.toNanos();
+        return samples;
+    }
+
+    private static HttpRequest nextRequest(int port, List<Long> ids) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextInt(10) == 0) {
+            long id = ids.get(random.nextInt(ids.size()));
+            return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos/" + id))
+                    .header("Content-Type", "application/json")
+                    .PUT(HttpRequest.BodyPublishers.ofString("{\"title\":\"Updated\",\"completed\":" + random.nextBoolean() + "}"))
+                    .build();
+        }
+        long after = ids.get(random.nextInt(ids.size()));
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/todos?limit=20&after=" + after))
+                .GET()
+                .build();
+    }
+
+    private static Duration duration(String property, String defaultValue) {
+        return DurationStyle.detectAndParse(System.getProperty(property, defaultValue));
+    }
+
+    private enum Mode {
+        PLATFORM, VIRTUAL, REACTIVE;
+
+        String[] applicationArgs() {
+            List<String> args = new ArrayList<>(List.of(
+                    "--server.port=0",
+                    "--spring.threads.virtual.enabled=" + (this == VIRTUAL),
+                    "--server.tomcat.threads.max=" + Integer.getInteger("load.tomcat-threads", 50),
+                    "--spring.datasource.hikari.maximum-pool-size=" + Integer.getInteger("load.pool-size", 20),
+                    "--spring.datasource.hikari.connection-timeout=30000",
+                    "--spring.r2dbc.pool.max-size=" + Integer.getInteger("load.pool-size", 20),
+                    "--logging.level.root=WARN"));
+            String url = System.getProperty("load.datasource.url");
+            String username = System.getProperty("load.datasource.username", "");
+            String password = System.getProperty("load.datasource.password", "");
+            if (this == REACTIVE) {
+                args.add("--spring.profiles.active=reactive");
+                args.add("--spring.r2dbc.url=" + System.getProperty("load.r2dbc.url"));
+                args.add("--spring.r2dbc.username=" + username);
+                args.add("--spring.r2dbc.password=" + password);
+            } else if (url == null) {
+                args.add("--spring.datasource.url=jdbc:h2:mem:load-" + name().toLowerCase());
+            } else {
+                args.add("--spring.datasource.url=" + url);
+                args.add("--spring.datasource.username=" + username);
+                args.add("--spring.datasource.password=" + password);
+                // Keep the schema for the reactive mode, which cannot create it
+                args.add("--spring.jpa.hibernate.ddl-auto=update");
+            }
+            return args.toArray(String[]::new);
+        }
+    }
+
+    private record Result(String mode, long requests, double throughput, double p50Millis, double p99Millis,
+                          int maxInFlight, double cpuMicrosPerRequest, long errors) {
+    }
+
+    private static final class Samples {
+
+        private final List<long[]> latencies = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+
+        synchronized void add(long[] clientLatencies, int clientErrors) {
+            latencies.add(clientLatencies);
+            errors.addAndGet(clientErrors);
+        }
+
+        synchronized Result toResult(String mode, int maxInFlight, long cpuNanos) {
+            long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+            return new Result(mode, all.length, all.length / (elapsedNanos / 1e9),
+                    percentile(all, 0.50), percentile(all, 0.99), maxInFlight,
+                    all.length == 0 ? 0 : cpuNanos / 1e3 / all.length, errors.get());
+        }
+
+        private static double percentile(long[] sorted, double percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e6;
+        }
+
+    }
+
+    /**
+     * Tracks how many requests are being processed by the server at the same time, on either web stack.
+     */
+    static final class InFlightFilter implements Filter, WebFilter {
+
+        private final AtomicInteger current = new AtomicInteger();
+        private final AtomicInteger max = new AtomicInteger();
+
+        @Override
+        public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
+                throws IOException, ServletException {
+            max.accumulateAndGet(current.incrementAndGet(), Math::max);
+            try {
+                chain.doFilter(request, response);
+            } finally {
+                current.decrementAndGet();
+            }
+        }
+
+        @Override
+        public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+            return Mono.defer(() -> {
+                max.accumulateAndGet(current.incrementAndGet(), Math::max);
+                return chain.filter(exchange);
+            }).doFinally(signal -> current.decrementAndGet());
+        }
+
+        void reset() {
+            max.set(current.get());
+        }
+
+        int max() {
+            return max.get();
+        }
+
+    }
+
+    /**
+     * Wraps the data source so that every statement execution takes at least {@code latency}, which stands in
+     * for the network round trip and query time of a real database. The connection is held while sleeping.
+     */
+    static final class SlowStatementPostProcessor implements BeanPostProcessor {
+
+        private final Duration latency;
+
+        SlowStatementPostProcessor(Duration latency) {
+            this.latency = latency;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!(bean instanceof DataSource dataSource) || latency.isZero()) {
+                return bean;
+            }
+            return new DelegatingDataSource(dataSource) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    return slow(super.getConnection());
+                }
+            };
+        }
+
+        private Connection slow(Connection connection) {
+            return proxy(Connection.class, connection, (proxy, method, args) -> {
+                Object result = invoke(method, connection, args);
+                return result instanceof PreparedStatement statement ? slow(statement) : result;
+            });
+        }
+
+        private PreparedStatement slow(PreparedStatement statement) {
+            return proxy(PreparedStatement.class, statement, (proxy, method, args) -> {
+                if (method.getName().startsWith("execute")) {
+                    Thread.sleep(latency);
+                }
+                return invoke(method, statement, args);
+            });
+        }
+
+        private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, InvocationHandler handler) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.bt7878.todoapi.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestQueryCountInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private RequestQueryCountInterceptor interceptor;
+    private QueryCountingStatementInspector inspector;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RequestQueryCountInterceptor(meterRegistry);
+        inspector = new QueryCountingStatementInspector();
+    }
+
+    @Test
+    void afterCompletion_ShouldRecordStatementsIssuedSincePreHandle() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/todos/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/todos/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        inspector.inspect("select 1");
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        inspector.inspect("select t.id from todo t where t.id=?");
+        inspector.inspect("update todo set title=? where id=?");
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        DistributionSummary summary = meterRegistry.get(RequestQueryCountInterceptor.METRIC_NAME)
+                .tag("method", "GET")
+                .tag("uri", "/api/todos/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2, summary.totalAmount());
+    }
+
+    @Test
+    void afterCompletion_WithoutMatchedPattern_ShouldTagUnknownUri() {
+        // Arrange
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/missing");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        // Act
+        interceptor.preHandle(request, response, new Object());
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Assert
+        DistributionSummary summary = meterRegistry.get(RequestQueryCountInterceptor.METRIC_NAME)
+                .tag("uri", "UNKNOWN")
+                .summary();
+        assertEquals(0, summary.totalAmount());
+    }
+
+}
@@ -0,0 +1,130 @@
+package com.bt7878.todoapi.repository;
+
+import com.bt7878.todoapi.model.Todo;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs all migrations, including those in {@code db/migration/postgresql}, on PostgreSQL and lets Hibernate validate
+ * the result. Skipped when Docker is not available.
+ * <p>
+ * Runs without a test transaction: {@code CREATE INDEX CONCURRENTLY} waits for every open transaction.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Testcontainers(disabledWithoutDocker = true)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "spring.flyway.enabled=true",
+        "spring.flyway.locations=classpath:db/migration/common,classpath:db/migration/{vendor}",
+        "spring.flyway.postgresql.transactional-lock=false",
+        "spring.jpa.hibernate.ddl-auto=validate"
+})
+class PostgresSchemaMigrationTest {
+
+    @Container
+    @ServiceConnection
+    static final PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TodoRepository todoRepository;
+
+    @Test
+    void migrate_ShouldApplyAllMigrationsInOrder() {
+        // Act
+        List<String> versions = jdbcTemplate.queryForList("""
+                select version from flyway_schema_history
+                where success and version is not null
+                order by installed_rank""", String.class);
+
+        // Assert
+        assertEquals(List.of("1", "1.1", "2", "3", "4", "5"), versions);
+    }
+
+    @Test
+    void migrate_ShouldBuildValidPartialAndPatternIndexes() {
+        // Act
+        List<String> indexes = jdbcTemplate.queryForList("""
+                select c.relname from pg_index i join pg_class c on c.oid = i.indexrelid
+                where i.indrelid = 'public.todo'::regclass and i.indisvalid""", String.class);
+
+        // Assert
+        assertTrue(indexes.containsAll(List.of("idx_todo_owner_open_id", "idx_todo_owner_title_pattern")));
+    }
+
+    @Test
+    void migratedSchema_ShouldStoreTodos() {
+        // Arrange
+        Todo todo = new Todo();
+        todo.setOwner("alice");
+        todo.setTitle("Migrated");
+
+        // Act
+        Todo saved = todoRepository.saveAndFlush(todo);
+
+        // Assert
+        assertNotNull(saved.getId());
+        assertEquals(0L, saved.getVersion());
+    }
+
+    @Test
+    void migrate_WithSchemaFromBeforeMigrations_ShouldUpgradeIt() {
+        // Arrange
+        jdbcTemplate.execute("create schema legacy");
+        jdbcTemplate.execute("""
+                create table legacy.todo (
+                    id        bigint generated by default as identity,
+                    title     varchar(255) not null,
+                    completed boolean      not null,
+                    primary key (id)
+                )""");
+        jdbcTemplate.update("insert into legacy.todo (title, completed) values ('Before migrations', true)");
+
+        // Act
+        Flyway.configure()
+                .dataSource(dataSource)
+                .schemas("legacy")
+                .locations("classpath:db/migration/common", "classpath:db/migration/postgresql")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .configuration(Map.of("flyway.postgresql.transactional.lock", "false"))
+                .load()
+                .migrate();
+
+        // Assert
+        assertEquals(List.of("1", "1.1", "2", "3", "4", "5"), jdbcTemplate.queryForList("""
+                select version from legacy.flyway_schema_history
+                where success and version is not null
+                order by installed_rank""", String.class));
+        assertEquals(Map.of("owner", Todo.DEFAULT_OWNER, "version", 0L),
+                jdbcTemplate.queryForMap("select owner, version from legacy.todo"));
+        // Hibernate hands out the 50 ids below each value of todo_seq, so the first block starts after id 1
+        assertEquals(51L, jdbcTemplate.queryForObject("select nextval('legacy.todo_seq')", Long.class));
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "select count(*) from legacy.todo_change", Integer.class));
+    }
+
+}
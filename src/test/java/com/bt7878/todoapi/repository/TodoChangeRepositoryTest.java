@@ -0,0 +1,148 @@
+package com.bt7878.todoapi.repository;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoChange;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TodoChangeRepositoryTest {
+
+    private static final String OWNER = Todo.DEFAULT_OWNER;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TodoChangeRepository todoChangeRepository;
+
+    @Test
+    void recordUpserts_ShouldSnapshotCurrentState() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", true));
+        Instant now = Instant.now();
+
+        // Act
+        int recorded = todoChangeRepository.recordUpserts(List.of(todo.getId(), todo.getId() + 1000), now);
+
+        // Assert
+        assertEquals(1, recorded);
+        List<TodoChange> changes = todoChangeRepository.findBySeqGreaterThanOrderBySeq(0, Limit.unlimited());
+        assertEquals(1, changes.size());
+        TodoChange change = changes.getFirst();
+        assertEquals(todo.getId(), change.getTodoId());
+        assertEquals(OWNER, change.getOwner());
+        assertEquals("Todo 1", change.getTitle());
+        assertTrue(change.getCompleted());
+        assertEquals(todo.getVersion(), change.getVersion());
+        assertFalse(change.isDeleted());
+    }
+
+    @Test
+    void recordUpserts_ShouldSeePendingChanges() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        todo.setTitle("Renamed");
+
+        // Act
+        todoChangeRepository.recordUpserts(List.of(todo.getId()), Instant.now());
+
+        // Assert
+        TodoChange change = todoChangeRepository.findBySeqGreaterThanOrderBySeq(0, Limit.unlimited()).getFirst();
+        assertEquals("Renamed", change.getTitle());
+    }
+
+    @Test
+    void recordDeletes_ShouldRecordTombstones() {
+        // Arrange
+        Todo todo1 = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        Todo todo2 = entityManager.persistAndFlush(newTodo("Todo 2", false));
+
+        // Act
+        int recorded = todoChangeRepository.recordDeletes(List.of(todo1.getId(), todo2.getId()), Instant.now());
+
+        // Assert
+        assertEquals(2, recorded);
+        List<TodoChange> changes = todoChangeRepository.findBySeqGreaterThanOrderBySeq(0, Limit.unlimited());
+        assertTrue(changes.stream().allMatch(TodoChange::isDeleted));
+        assertTrue(changes.stream().allMatch(change -> change.getTitle() == null));
+    }
+
+    @Test
+    void findBySeqGreaterThan_ShouldReturnLaterChangesInOrder() {
+        // Arrange
+        TodoChange first = todoChangeRepository.save(TodoChange.tombstone(OWNER, 1L, Instant.now()));
+        TodoChange second = todoChangeRepository.save(TodoChange.tombstone(OWNER, 2L, Instant.now()));
+        TodoChange third = todoChangeRepository.save(TodoChange.tombstone(OWNER, 3L, Instant.now()));
+
+        // Act
+        List<TodoChange> changes = todoChangeRepository.findBySeqGreaterThanOrderBySeq(first.getSeq(), Limit.of(1));
+
+        // Assert
+        assertEquals(List.of(second), changes);
+        assertTrue(third.getSeq() > second.getSeq());
+    }
+
+    @Test
+    void findByOwnerAndSeqGreaterThan_ShouldOnlyReturnChangesOfOwner() {
+        // Arrange
+        TodoChange own = todoChangeRepository.save(TodoChange.tombstone(OWNER, 1L, Instant.now()));
+        todoChangeRepository.save(TodoChange.tombstone("alice", 2L, Instant.now()));
+
+        // Act
+        List<TodoChange> changes = todoChangeRepository.findByOwnerAndSeqGreaterThanOrderBySeq(
+                OWNER, 0, Limit.unlimited());
+
+        // Assert
+        assertEquals(List.of(own), changes);
+    }
+
+    @Test
+    void findFirstByChangedAtLessThanEqual_ShouldReturnLatestSettledChange() {
+        // Arrange
+        Instant now = Instant.now();
+        todoChangeRepository.save(TodoChange.tombstone(OWNER, 1L, now.minus(Duration.ofMinutes(2))));
+        TodoChange settled = todoChangeRepository.save(
+                TodoChange.tombstone(OWNER, 2L, now.minus(Duration.ofMinutes(1))));
+        todoChangeRepository.save(TodoChange.tombstone(OWNER, 3L, now));
+
+        // Act
+        Optional<TodoChange> result = todoChangeRepository.findFirstByChangedAtLessThanEqualOrderByChangedAtDesc(
+                now.minusSeconds(2));
+
+        // Assert
+        assertEquals(Optional.of(settled), result);
+    }
+
+    @Test
+    void deleteOlderThan_ShouldKeepMostRecentChange() {
+        // Arrange
+        Instant old = Instant.now().minus(Duration.ofDays(30));
+        todoChangeRepository.save(TodoChange.tombstone(OWNER, 1L, old));
+        TodoChange latest = todoChangeRepository.save(TodoChange.tombstone(OWNER, 2L, old));
+
+        // Act
+        int deleted = todoChangeRepository.deleteOlderThan(Instant.now());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(latest.getSeq(), todoChangeRepository.findMinSeq());
+    }
+
+    private static Todo newTodo(String title, boolean completed) {
+        Todo todo = new Todo();
+        todo.setTitle(title);
+        todo.setCompleted(completed);
+        return todo;
+    }
+}
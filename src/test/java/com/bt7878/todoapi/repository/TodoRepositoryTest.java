@@ -1,12 +1,17 @@
 package com.bt7878.todoapi.repository;
 
 import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoView;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
 
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -109,4 +114,298 @@ class TodoRepositoryTest {
         }
         assertEquals(2, count);
     }
+
+    @Test
+    void findPage_ShouldReturnTodosAfterCursorInIdOrder() {
+        // Arrange
+        Todo first = entityManager.persist(newTodo("Todo 1", false));
+        Todo second = entityManager.persist(newTodo("Todo 2", true));
+        Todo third = entityManager.persist(newTodo("Todo 3", false));
+        entityManager.flush();
+
+        // Act
+        List<TodoView> todos = todoRepository.findPage(Todo.DEFAULT_OWNER, first.getId(), null, null, Limit.of(10));
+
+        // Assert
+        assertEquals(List.of(second.getId(), third.getId()), todos.stream().map(TodoView::id).toList());
+    }
+
+    @Test
+    void findPage_ShouldApplyFiltersAndLimit() {
+        // Arrange
+        entityManager.persist(newTodo("Groceries: milk", false));
+        entityManager.persist(newTodo("Groceries: eggs", true));
+        Todo bread = entityManager.persist(newTodo("Groceries: bread", false));
+        entityManager.persist(newTodo("Laundry", false));
+        entityManager.persist(newTodo("Groceries: tea", false));
+        entityManager.flush();
+
+        // Act
+        List<TodoView> todos = todoRepository.findPage(Todo.DEFAULT_OWNER, 0L, false, "Groceries", Limit.of(2));
+
+        // Assert
+        assertEquals(2, todos.size());
+        assertEquals("Groceries: milk", todos.get(0).title());
+        assertEquals(bread.getId(), todos.get(1).id());
+    }
+
+    @Test
+    void findPage_WithCompletedOnly_ShouldFilterByCompleted() {
+        // Arrange
+        entityManager.persist(newTodo("Todo 1", false));
+        Todo done = entityManager.persist(newTodo("Todo 2", true));
+        entityManager.flush();
+
+        // Act
+        List<TodoView> todos = todoRepository.findPage(Todo.DEFAULT_OWNER, 0L, true, null, Limit.of(10));
+
+        // Assert
+        assertEquals(List.of(done.getId()), todos.stream().map(TodoView::id).toList());
+    }
+
+    @Test
+    void findPage_WithEscapedWildcard_ShouldMatchLiterally() {
+        // Arrange
+        entityManager.persist(newTodo("100% done", false));
+        entityManager.persist(newTodo("1000 steps", false));
+        entityManager.flush();
+
+        // Act
+        List<TodoView> todos = todoRepository.findPage(Todo.DEFAULT_OWNER, 0L, null, "100\\%", Limit.of(10));
+
+        // Assert
+        assertEquals(1, todos.size());
+        assertEquals("100% done", todos.getFirst().title());
+    }
+
+    @Test
+    void findPage_ShouldOnlyReturnTodosOfOwner() {
+        // Arrange
+        Todo own = entityManager.persist(newTodo("Todo 1", false));
+        entityManager.persist(newTodo("alice", "Todo 2", false));
+        entityManager.flush();
+
+        // Act
+        List<TodoView> todos = todoRepository.findPage(Todo.DEFAULT_OWNER, 0L, null, null, Limit.of(10));
+
+        // Assert
+        assertEquals(List.of(own.getId()), todos.stream().map(TodoView::id).toList());
+    }
+
+    @Test
+    void streamByOwner_ShouldStreamOnlyTodosOfOwner() {
+        // Arrange
+        entityManager.persist(newTodo("Todo 1", false));
+        Todo first = entityManager.persist(newTodo("alice", "Todo 2", true));
+        Todo second = entityManager.persist(newTodo("alice", "Todo 3", false));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Long> ids;
+        try (Stream<Todo> todos = todoRepository.streamByOwner("alice")) {
+            ids = todos.map(Todo::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of(first.getId(), second.getId()), ids);
+    }
+
+    @Test
+    void streamAll_ShouldStreamTodosInIdOrder() {
+        // Arrange
+        Todo first = entityManager.persist(newTodo("Todo 1", false));
+        Todo second = entityManager.persist(newTodo("Todo 2", true));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        List<Long> ids;
+        try (Stream<Todo> todos = todoRepository.streamAll()) {
+            ids = todos.map(Todo::getId).toList();
+        }
+
+        // Assert
+        assertEquals(List.of(first.getId(), second.getId()), ids);
+    }
+
+    @Test
+    void findExistingIds_ShouldReturnOnlyIdsPresentInTheTable() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+
+        // Act
+        List<Long> ids = todoRepository.findExistingIds(Todo.DEFAULT_OWNER, List.of(todo.getId(), todo.getId() + 1000));
+
+        // Assert
+        assertEquals(List.of(todo.getId()), ids);
+    }
+
+    @Test
+    void countStats_ShouldCountOnlyTodosOfOwner() {
+        // Arrange
+        entityManager.persist(newTodo("Todo 1", true));
+        entityManager.persist(newTodo("Todo 2", false));
+        entityManager.persist(newTodo("alice", "Todo 3", true));
+        entityManager.flush();
+
+        // Act
+        TodoStats stats = todoRepository.countStats(Todo.DEFAULT_OWNER);
+        TodoStats none = todoRepository.countStats("bob");
+
+        // Assert
+        assertEquals(new TodoStats(2, 1), stats);
+        assertEquals(new TodoStats(0, 0), none);
+    }
+
+    @Test
+    void updateTodoIfCompleted_ShouldOnlyUpdateTodoWithMatchingFlag() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int mismatched = todoRepository.updateTodoIfCompleted(Todo.DEFAULT_OWNER, todo.getId(), true, "Stale", true);
+        int updated = todoRepository.updateTodoIfCompleted(Todo.DEFAULT_OWNER, todo.getId(), false, "Updated", true);
+
+        // Assert
+        assertEquals(0, mismatched);
+        assertEquals(1, updated);
+        Todo foundTodo = entityManager.find(Todo.class, todo.getId());
+        assertEquals("Updated", foundTodo.getTitle());
+        assertTrue(foundTodo.isCompleted());
+    }
+
+    @Test
+    void lockIdsAfter_ShouldReturnNextTodosWithFlagOfOwner() {
+        // Arrange
+        Todo first = entityManager.persist(newTodo("Todo 1", false));
+        entityManager.persist(newTodo("Todo 2", true));
+        Todo third = entityManager.persist(newTodo("Todo 3", false));
+        Todo fourth = entityManager.persist(newTodo("Todo 4", false));
+        entityManager.persist(newTodo("alice", "Todo 5", false));
+        entityManager.flush();
+
+        // Act
+        List<Long> ids = todoRepository.lockIdsAfter(Todo.DEFAULT_OWNER, false, first.getId(), Limit.of(2));
+
+        // Assert
+        assertEquals(List.of(third.getId(), fourth.getId()), ids);
+    }
+
+    @Test
+    void completeAll_ShouldOnlyCountTodosThatWereOpen() {
+        // Arrange
+        Todo open = entityManager.persist(newTodo("Todo 1", false));
+        Todo done = entityManager.persist(newTodo("Todo 2", true));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        int completed = todoRepository.completeAll(List.of(open.getId(), done.getId()));
+
+        // Assert
+        assertEquals(1, completed);
+        Todo foundTodo = entityManager.find(Todo.class, open.getId());
+        assertTrue(foundTodo.isCompleted());
+        assertEquals(open.getVersion() + 1, foundTodo.getVersion());
+        assertEquals(done.getVersion(), entityManager.find(Todo.class, done.getId()).getVersion());
+    }
+
+    @Test
+    void updateTodo_ShouldReturnAffectedRowCount() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int updated = todoRepository.updateTodo(Todo.DEFAULT_OWNER, todo.getId(), "Updated", true);
+        int missing = todoRepository.updateTodo(Todo.DEFAULT_OWNER, todo.getId() + 1000, "Updated", true);
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        Todo foundTodo = entityManager.find(Todo.class, todo.getId());
+        assertEquals("Updated", foundTodo.getTitle());
+        assertTrue(foundTodo.isCompleted());
+        assertEquals(todo.getVersion() + 1, foundTodo.getVersion());
+    }
+
+    @Test
+    void updateTodo_WithTodoOfAnotherOwner_ShouldNotUpdate() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("alice", "Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int updated = todoRepository.updateTodo("bob", todo.getId(), "Updated", true);
+        int deleted = todoRepository.deleteTodo("bob", todo.getId());
+
+        // Assert
+        assertEquals(0, updated);
+        assertEquals(0, deleted);
+        assertEquals("Todo 1", entityManager.find(Todo.class, todo.getId()).getTitle());
+    }
+
+    @Test
+    void updateTodo_WithVersion_ShouldOnlyUpdateCurrentVersion() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int stale = todoRepository.updateTodo(Todo.DEFAULT_OWNER, todo.getId(), todo.getVersion() + 1, "Stale", true);
+        int updated = todoRepository.updateTodo(Todo.DEFAULT_OWNER, todo.getId(), todo.getVersion(), "Updated", true);
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, updated);
+        Todo foundTodo = entityManager.find(Todo.class, todo.getId());
+        assertEquals("Updated", foundTodo.getTitle());
+        assertEquals(todo.getVersion() + 1, foundTodo.getVersion());
+    }
+
+    @Test
+    void deleteTodo_WithVersion_ShouldOnlyDeleteCurrentVersion() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int stale = todoRepository.deleteTodo(Todo.DEFAULT_OWNER, todo.getId(), todo.getVersion() + 1);
+        int deleted = todoRepository.deleteTodo(Todo.DEFAULT_OWNER, todo.getId(), todo.getVersion());
+
+        // Assert
+        assertEquals(0, stale);
+        assertEquals(1, deleted);
+        assertNull(entityManager.find(Todo.class, todo.getId()));
+    }
+
+    @Test
+    void deleteTodo_ShouldReturnAffectedRowCount() {
+        // Arrange
+        Todo todo = entityManager.persistAndFlush(newTodo("Todo 1", false));
+        entityManager.clear();
+
+        // Act
+        int deleted = todoRepository.deleteTodo(Todo.DEFAULT_OWNER, todo.getId());
+        int missing = todoRepository.deleteTodo(Todo.DEFAULT_OWNER, todo.getId());
+
+        // Assert
+        assertEquals(1, deleted);
+        assertEquals(0, missing);
+        assertNull(entityManager.find(Todo.class, todo.getId()));
+    }
+
+    private static Todo newTodo(String title, boolean completed) {
+        return newTodo(Todo.DEFAULT_OWNER, title, completed);
+    }
+
+    private static Todo newTodo(String owner, String title, boolean completed) {
+        Todo todo = new Todo();
+        todo.setOwner(owner);
+        todo.setTitle(title);
+        todo.setCompleted(completed);
+        return todo;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.bt7878.todoapi.repository;
+
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoStatsSummary;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class TodoStatsRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private TodoStatsRepository todoStatsRepository;
+
+    @Test
+    void add_ShouldAdjustExistingSummaryOnly() {
+        // Arrange
+        entityManager.persistAndFlush(new TodoStatsSummary("alice", 2, 1));
+        entityManager.clear();
+
+        // Act
+        int updated = todoStatsRepository.add("alice", 1, -1);
+        int missing = todoStatsRepository.add("bob", 1, 0);
+
+        // Assert
+        assertEquals(1, updated);
+        assertEquals(0, missing);
+        assertEquals(new TodoStatsSummary("alice", 3, 0), entityManager.find(TodoStatsSummary.class, "alice"));
+    }
+
+    @Test
+    void reconcileAndInsertMissing_ShouldMatchCountsOfTodos() {
+        // Arrange
+        entityManager.persist(newTodo("alice", true));
+        entityManager.persist(newTodo("alice", false));
+        entityManager.persist(newTodo("bob", true));
+        entityManager.persist(new TodoStatsSummary("alice", 5, 0));
+        entityManager.persist(new TodoStatsSummary("carol", 1, 1));
+        entityManager.flush();
+        entityManager.clear();
+
+        // Act
+        int corrected = todoStatsRepository.reconcile();
+        int inserted = todoStatsRepository.insertMissing();
+
+        // Assert
+        assertEquals(2, corrected);
+        assertEquals(1, inserted);
+        assertEquals(new TodoStatsSummary("alice", 2, 1), entityManager.find(TodoStatsSummary.class, "alice"));
+        assertEquals(new TodoStatsSummary("bob", 1, 1), entityManager.find(TodoStatsSummary.class, "bob"));
+        assertEquals(new TodoStatsSummary("carol", 0, 0), entityManager.find(TodoStatsSummary.class, "carol"));
+    }
+
+    private static Todo newTodo(String owner, boolean completed) {
+        Todo todo = new Todo();
+        todo.setOwner(owner);
+        todo.setTitle("Todo");
+        todo.setCompleted(completed);
+        return todo;
+    }
+
+}
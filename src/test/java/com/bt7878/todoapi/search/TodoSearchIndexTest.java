@@ -0,0 +1,109 @@
+package com.bt7878.todoapi.search;
+
+import com.bt7878.todoapi.model.TodoSearchHit;
+import com.bt7878.todoapi.model.TodoSearchPage;
+import com.bt7878.todoapi.search.TodoSearchIndex.Cursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoSearchIndexTest {
+
+    private TodoSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TodoSearchIndex();
+        index.put(1L, 1L, "Buy milk", false);
+        index.put(2L, 1L, "Buy milk and bread for the weekend", false);
+        index.put(3L, 1L, "Call mom", true);
+        index.put(4L, 1L, "milk, MILK, milk!", false);
+    }
+
+    @Test
+    void search_ShouldMatchAllTermsCaseInsensitively() {
+        // Act
+        TodoSearchPage page = index.search("MILK buy", null, 10);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(page));
+        assertNull(page.next());
+    }
+
+    @Test
+    void search_ShouldRankShorterAndRepeatedMatchesFirst() {
+        // Act
+        TodoSearchPage page = index.search("milk", null, 10);
+
+        // Assert
+        assertEquals(List.of(4L, 1L, 2L), ids(page));
+        assertTrue(page.hits().get(0).score() > page.hits().get(1).score());
+    }
+
+    @Test
+    void search_WithCursor_ShouldContinueAfterLastHit() {
+        // Arrange
+        TodoSearchPage first = index.search("milk", null, 2);
+
+        // Act
+        TodoSearchPage second = index.search("milk", Cursor.parse(first.next()).orElseThrow(), 2);
+
+        // Assert
+        assertEquals(List.of(4L, 1L), ids(first));
+        assertEquals(List.of(2L), ids(second));
+        assertNull(second.next());
+    }
+
+    @Test
+    void put_WithOlderSeq_ShouldBeIgnored() {
+        // Arrange
+        index.put(3L, 5L, "Call dad", true);
+
+        // Act
+        index.put(3L, 4L, "Call mom", true);
+
+        // Assert
+        assertEquals(List.of(3L), ids(index.search("dad", null, 10)));
+        assertTrue(index.search("mom", null, 10).hits().isEmpty());
+    }
+
+    @Test
+    void remove_ShouldDropTodoFromResults() {
+        // Act
+        index.remove(1L, 2L);
+
+        // Assert
+        assertEquals(List.of(4L, 2L), ids(index.search("milk", null, 10)));
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_WithUnknownTermOrOnlySeparators_ShouldReturnNoHits() {
+        // Act & Assert
+        assertTrue(index.search("milk cheese", null, 10).hits().isEmpty());
+        assertTrue(index.search("?!", null, 10).hits().isEmpty());
+    }
+
+    @Test
+    void termFrequencies_ShouldSplitOnNonLetters() {
+        // Act & Assert
+        assertEquals(Map.of("café", 1, "2", 2, "go", 1), TodoSearchIndex.termFrequencies("Café 2-go 2"));
+    }
+
+    @Test
+    void parse_WithMalformedCursor_ShouldBeEmpty() {
+        // Act & Assert
+        assertTrue(Cursor.parse("abc").isEmpty());
+        assertTrue(Cursor.parse("1.5").isEmpty());
+        assertEquals(new Cursor(1.5, 7L), Cursor.parse("1.5:7").orElseThrow());
+    }
+
+    private static List<Long> ids(TodoSearchPage page) {
+        return page.hits().stream().map(TodoSearchHit::id).toList();
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.bt7878.todoapi.search;
+
+import com.bt7878.todoapi.exception.TodoChangesExpiredException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.model.TodoSearchHit;
+import com.bt7878.todoapi.service.TodoChangeService;
+import com.bt7878.todoapi.service.TodoService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoSearchServiceTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private TodoChangeService todoChangeService;
+
+    private TodoSearchService todoSearchService;
+
+    @BeforeEach
+    void setUp() {
+        todoSearchService = new TodoSearchService(todoService, todoChangeService);
+    }
+
+    @Test
+    void rebuild_ShouldIndexAllTodos() {
+        // Arrange
+        exportTodos(todo(OWNER, 1L, "Buy milk"), todo(OWNER, 2L, "Call mom"));
+        when(todoChangeService.getCursor()).thenReturn(10L);
+
+        // Act
+        todoSearchService.rebuild();
+
+        // Assert
+        assertEquals(List.of(1L), ids("milk"));
+    }
+
+    @Test
+    void search_ShouldOnlyReturnTodosOfOwner() {
+        // Arrange
+        exportTodos(todo(OWNER, 1L, "Buy milk"), todo("bob", 2L, "Buy more milk"));
+        when(todoChangeService.getCursor()).thenReturn(10L);
+        todoSearchService.rebuild();
+
+        // Act & Assert
+        assertEquals(List.of(1L), ids(OWNER, "milk"));
+        assertEquals(List.of(2L), ids("bob", "milk"));
+        assertEquals(List.of(), ids("carol", "milk"));
+    }
+
+    @Test
+    void refresh_ShouldApplyChangesAfterRebuildCursor() {
+        // Arrange
+        exportTodos(todo(OWNER, 1L, "Buy milk"), todo(OWNER, 2L, "Call mom"));
+        when(todoChangeService.getCursor()).thenReturn(10L);
+        todoSearchService.rebuild();
+        TodoChange update = new TodoChange();
+        update.setSeq(11L);
+        update.setOwner(OWNER);
+        update.setTodoId(2L);
+        update.setTitle("Call milkman");
+        TodoChange delete = TodoChange.tombstone(OWNER, 1L, Instant.now());
+        delete.setSeq(12L);
+        when(todoChangeService.getAllChanges(10L, TodoChangeService.MAX_PAGE_SIZE))
+                .thenReturn(new TodoChangePage(List.of(update, delete), 12L));
+
+        // Act
+        todoSearchService.refresh();
+
+        // Assert
+        assertEquals(List.of(), ids("milk"));
+        assertEquals(List.of(2L), ids("milkman"));
+    }
+
+    @Test
+    void refresh_WithExpiredCursor_ShouldRebuild() {
+        // Arrange
+        when(todoChangeService.getAllChanges(0L, TodoChangeService.MAX_PAGE_SIZE))
+                .thenThrow(new TodoChangesExpiredException(0L));
+        when(todoChangeService.getCursor()).thenReturn(50L);
+        exportTodos(todo(OWNER, 1L, "Buy milk"));
+
+        // Act
+        todoSearchService.refresh();
+
+        // Assert
+        assertEquals(List.of(1L), ids("milk"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportTodos(Todo... todos) {
+        doAnswer(invocation -> {
+            Consumer<Todo> consumer = invocation.getArgument(0);
+            for (Todo todo : todos) {
+                consumer.accept(todo);
+            }
+            return null;
+        }).when(todoService).exportAllTodos(any(Consumer.class));
+    }
+
+    private List<Long> ids(String query) {
+        return ids(OWNER, query);
+    }
+
+    private List<Long> ids(String owner, String query) {
+        return todoSearchService.search(owner, query, null, 10).hits().stream().map(TodoSearchHit::id).toList();
+    }
+
+    private static Todo todo(String owner, Long id, String title) {
+        Todo todo = new Todo();
+        todo.setOwner(owner);
+        todo.setId(id);
+        todo.setTitle(title);
+        return todo;
+    }
+
+}
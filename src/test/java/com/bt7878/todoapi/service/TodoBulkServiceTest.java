@@ -0,0 +1,133 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoBulkJobRunningException;
+import com.bt7878.todoapi.model.TodoBulkJob;
+import com.bt7878.todoapi.model.TodoBulkJob.Operation;
+import com.bt7878.todoapi.model.TodoBulkJob.State;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoBulkServiceTest {
+
+    private static final String OWNER = "alice";
+    private static final TodoBulkProperties PROPERTIES =
+            new TodoBulkProperties(2, Duration.ZERO, Duration.ofHours(1), 100);
+
+    @Mock
+    private TodoService todoService;
+
+    // Runs jobs only when the test calls runQueued()
+    private final List<Runnable> queued = new ArrayList<>();
+
+    private TodoBulkService todoBulkService;
+
+    @BeforeEach
+    void setUp() {
+        todoBulkService = new TodoBulkService(todoService, new TaskExecutorAdapter(queued::add), PROPERTIES);
+    }
+
+    @Test
+    void start_ShouldProcessChunksUntilNoneIsLeft() {
+        // Arrange
+        when(todoService.completeNext(OWNER, 0L, 2)).thenReturn(List.of(1L, 2L));
+        when(todoService.completeNext(OWNER, 2L, 2)).thenReturn(List.of(5L));
+        when(todoService.completeNext(OWNER, 5L, 2)).thenReturn(List.of());
+
+        // Act
+        TodoBulkJob started = todoBulkService.start(OWNER, Operation.COMPLETE_ALL);
+        runQueued();
+
+        // Assert
+        assertEquals(State.RUNNING, started.state());
+        TodoBulkJob finished = todoBulkService.get(OWNER, started.id()).orElseThrow();
+        assertEquals(State.COMPLETED, finished.state());
+        assertEquals(3, finished.processed());
+        assertNotNull(finished.finishedAt());
+    }
+
+    @Test
+    void start_WhileOwnerHasRunningJob_ShouldThrow() {
+        // Arrange
+        TodoBulkJob running = todoBulkService.start(OWNER, Operation.COMPLETE_ALL);
+
+        // Act & Assert
+        TodoBulkJobRunningException exception = assertThrows(TodoBulkJobRunningException.class,
+                () -> todoBulkService.start(OWNER, Operation.DELETE_COMPLETED));
+        assertEquals(running.id(), exception.getJobId());
+        assertDoesNotThrow(() -> todoBulkService.start("bob", Operation.DELETE_COMPLETED));
+    }
+
+    @Test
+    void cancel_ShouldStopJobBeforeNextChunk() {
+        // Arrange
+        TodoBulkJob started = todoBulkService.start(OWNER, Operation.DELETE_COMPLETED);
+
+        // Act
+        TodoBulkJob cancelling = todoBulkService.cancel(OWNER, started.id()).orElseThrow();
+        runQueued();
+
+        // Assert
+        assertEquals(State.CANCELLING, cancelling.state());
+        assertEquals(State.CANCELLED, todoBulkService.get(OWNER, started.id()).orElseThrow().state());
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void run_WhenChunkFails_ShouldReportFailureAndAllowNewJob() {
+        // Arrange
+        when(todoService.deleteNextCompleted(OWNER, 0L, 2)).thenThrow(new IllegalStateException("boom"));
+        TodoBulkJob started = todoBulkService.start(OWNER, Operation.DELETE_COMPLETED);
+
+        // Act
+        runQueued();
+
+        // Assert
+        TodoBulkJob failed = todoBulkService.get(OWNER, started.id()).orElseThrow();
+        assertEquals(State.FAILED, failed.state());
+        assertEquals("boom", failed.error());
+        assertDoesNotThrow(() -> todoBulkService.start(OWNER, Operation.DELETE_COMPLETED));
+    }
+
+    @Test
+    void get_WithJobOfAnotherOwner_ShouldReturnEmpty() {
+        // Arrange
+        TodoBulkJob started = todoBulkService.start(OWNER, Operation.COMPLETE_ALL);
+
+        // Act & Assert
+        assertTrue(todoBulkService.get("bob", started.id()).isEmpty());
+        assertTrue(todoBulkService.cancel("bob", started.id()).isEmpty());
+    }
+
+    @Test
+    void get_WithRunningJobEvictedFromJobs_ShouldStillFindIt() {
+        // Arrange
+        todoBulkService = new TodoBulkService(todoService, new TaskExecutorAdapter(queued::add),
+                new TodoBulkProperties(2, Duration.ZERO, Duration.ofHours(1), 0));
+
+        // Act
+        TodoBulkJob started = todoBulkService.start(OWNER, Operation.COMPLETE_ALL);
+
+        // Assert
+        assertEquals(State.RUNNING, todoBulkService.get(OWNER, started.id()).orElseThrow().state());
+        assertTrue(todoBulkService.get("bob", started.id()).isEmpty());
+    }
+
+    private void runQueued() {
+        List<Runnable> jobs = List.copyOf(queued);
+        queued.clear();
+        jobs.forEach(Runnable::run);
+    }
+
+}
@@ -0,0 +1,132 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoChangesExpiredException;
+import com.bt7878.todoapi.model.TodoChange;
+import com.bt7878.todoapi.model.TodoChangePage;
+import com.bt7878.todoapi.repository.TodoChangeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoChangeServiceTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private TodoChangeRepository todoChangeRepository;
+
+    private TodoChangeService todoChangeService;
+
+    @BeforeEach
+    void setUp() {
+        todoChangeService = new TodoChangeService(todoChangeRepository,
+                new TodoChangeProperties(Duration.ofSeconds(2), Duration.ofDays(7), Duration.ofMinutes(30), 1000));
+    }
+
+    @Test
+    void getChanges_ShouldOnlyAdvanceCursorPastSettledChanges() {
+        // Arrange
+        Instant now = Instant.now();
+        List<TodoChange> changes = List.of(
+                change(11L, now.minusSeconds(10)),
+                change(12L, now),
+                change(13L, now.minusSeconds(5)),
+                change(14L, now));
+        when(todoChangeRepository.findByOwnerAndSeqGreaterThanOrderBySeq(OWNER, 10L, Limit.of(500)))
+                .thenReturn(changes);
+
+        // Act
+        TodoChangePage page = todoChangeService.getChanges(OWNER, 10L, 500);
+
+        // Assert
+        assertEquals(changes, page.changes());
+        assertEquals(13L, page.next());
+    }
+
+    @Test
+    void getChanges_WithOnlyRecentChanges_ShouldKeepCursor() {
+        // Arrange
+        when(todoChangeRepository.findByOwnerAndSeqGreaterThanOrderBySeq(OWNER, 10L, Limit.of(500)))
+                .thenReturn(List.of(change(11L, Instant.now())));
+
+        // Act
+        TodoChangePage page = todoChangeService.getChanges(OWNER, 10L, 500);
+
+        // Assert
+        assertEquals(10L, page.next());
+    }
+
+    @Test
+    void getAllChanges_ShouldReadChangesOfAllOwners() {
+        // Arrange
+        List<TodoChange> changes = List.of(change(11L, Instant.now().minusSeconds(10)));
+        when(todoChangeRepository.findBySeqGreaterThanOrderBySeq(10L, Limit.of(500))).thenReturn(changes);
+
+        // Act
+        TodoChangePage page = todoChangeService.getAllChanges(10L, 500);
+
+        // Assert
+        assertEquals(changes, page.changes());
+        assertEquals(11L, page.next());
+        verify(todoChangeRepository, never()).findByOwnerAndSeqGreaterThanOrderBySeq(any(), anyLong(), any());
+    }
+
+    @Test
+    void getChanges_ShouldClampLimit() {
+        // Act
+        todoChangeService.getChanges(OWNER, 0L, 100_000);
+
+        // Assert
+        verify(todoChangeRepository, times(1))
+                .findByOwnerAndSeqGreaterThanOrderBySeq(OWNER, 0L, Limit.of(TodoChangeService.MAX_PAGE_SIZE));
+    }
+
+    @Test
+    void getChanges_WithPrunedCursor_ShouldThrowExpired() {
+        // Arrange
+        when(todoChangeRepository.findMinSeq()).thenReturn(100L);
+
+        // Act & Assert
+        assertThrows(TodoChangesExpiredException.class, () -> todoChangeService.getChanges(OWNER, 10L, 500));
+        verify(todoChangeRepository, never()).findByOwnerAndSeqGreaterThanOrderBySeq(any(), anyLong(), any());
+    }
+
+    @Test
+    void getChanges_WithCursorJustBeforeOldestChange_ShouldSucceed() {
+        // Arrange
+        when(todoChangeRepository.findMinSeq()).thenReturn(100L);
+
+        // Act & Assert
+        assertDoesNotThrow(() -> todoChangeService.getChanges(OWNER, 99L, 500));
+    }
+
+    @Test
+    void getCursor_WithoutSettledChanges_ShouldReturnZero() {
+        // Arrange
+        when(todoChangeRepository.findFirstByChangedAtLessThanEqualOrderByChangedAtDesc(any()))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertEquals(0L, todoChangeService.getCursor());
+    }
+
+    private static TodoChange change(long seq, Instant changedAt) {
+        TodoChange change = TodoChange.tombstone(OWNER, seq, changedAt);
+        change.setSeq(seq);
+        return change;
+    }
+
+}
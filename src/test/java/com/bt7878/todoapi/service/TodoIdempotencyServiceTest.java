@@ -0,0 +1,262 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.IdempotencyKeyInProgressException;
+import com.bt7878.todoapi.exception.IdempotencyKeyReusedException;
+import com.bt7878.todoapi.exception.InvalidIdempotencyKeyException;
+import com.bt7878.todoapi.model.IdempotencyRecord;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoIdempotencyServiceTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private TodoService todoService;
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TodoIdempotencyService service;
+    private Todo created;
+
+    @BeforeEach
+    void setUp() {
+        service = service(false);
+
+        created = new Todo();
+        created.setId(7L);
+        created.setOwner(OWNER);
+        created.setTitle("Buy milk");
+        created.setVersion(0L);
+    }
+
+    @Test
+    void saveTodo_WithRepeatedKey_ShouldCreateOnceAndReturnSameTodo() {
+        // Arrange
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenReturn(created);
+
+        // Act
+        Todo first = service.saveTodo(OWNER, "key-1", request("Buy milk"));
+        Todo retried = service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Assert
+        assertEquals(created, first);
+        assertEquals(created, retried);
+        verify(todoService, times(1)).saveTodo(eq(OWNER), any(Todo.class));
+    }
+
+    @Test
+    void saveTodo_WithSameKeyAndDifferentRequest_ShouldThrowIdempotencyKeyReused() {
+        // Arrange
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenReturn(created);
+        service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.saveTodo(OWNER, "key-1", request("Buy eggs")));
+    }
+
+    @Test
+    void saveTodo_WithSameKeyOfAnotherOwner_ShouldCreateAnotherTodo() {
+        // Arrange
+        when(todoService.saveTodo(any(), any(Todo.class))).thenReturn(created);
+
+        // Act
+        service.saveTodo(OWNER, "key-1", request("Buy milk"));
+        service.saveTodo("bob", "key-1", request("Buy milk"));
+
+        // Assert
+        verify(todoService, times(2)).saveTodo(any(), any(Todo.class));
+    }
+
+    @Test
+    void saveTodo_AfterFailedAttempt_ShouldTryAgain() {
+        // Arrange
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class)))
+                .thenThrow(new IllegalStateException("Database unavailable"))
+                .thenReturn(created);
+        assertThrows(IllegalStateException.class, () -> service.saveTodo(OWNER, "key-1", request("Buy milk")));
+
+        // Act
+        Todo retried = service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Assert
+        assertEquals(created, retried);
+        verify(todoService, times(2)).saveTodo(eq(OWNER), any(Todo.class));
+    }
+
+    @Test
+    void saveTodo_WithConcurrentRetries_ShouldCreateOnce() throws Exception {
+        // Arrange
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return created;
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        List<Future<Todo>> results = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 8; i++) {
+            results.add(executor.submit(() -> service.saveTodo(OWNER, "key-1", request("Buy milk"))));
+        }
+        Thread.sleep(100);
+        release.countDown();
+
+        // Assert
+        for (Future<Todo> result : results) {
+            assertEquals(created, result.get(5, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        verify(todoService, times(1)).saveTodo(eq(OWNER), any(Todo.class));
+    }
+
+    @Test
+    void saveTodo_WhenFirstRequestOutlastsWaitTimeout_ShouldThrowIdempotencyKeyInProgress() throws Exception {
+        // Arrange
+        service = service(false, Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return created;
+        });
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        Future<Todo> first = executor.submit(() -> service.saveTodo(OWNER, "key-1", request("Buy milk")));
+        started.await(5, TimeUnit.SECONDS);
+
+        // Act & Assert
+        assertThrows(IdempotencyKeyInProgressException.class,
+                () -> service.saveTodo(OWNER, "key-1", request("Buy milk")));
+        release.countDown();
+        assertEquals(created, first.get(5, TimeUnit.SECONDS));
+        executor.shutdown();
+    }
+
+    @Test
+    void requestHash_ShouldTellRequestsApart() {
+        // Arrange
+        Todo completed = request("Buy milk");
+        completed.setCompleted(true);
+
+        // Act & Assert
+        assertEquals(TodoIdempotencyService.requestHash(request("Buy milk")),
+                TodoIdempotencyService.requestHash(request("Buy milk")));
+        assertNotEquals(TodoIdempotencyService.requestHash(request("Buy milk")),
+                TodoIdempotencyService.requestHash(completed));
+        assertNotEquals(TodoIdempotencyService.requestHash(request("Aa")),
+                TodoIdempotencyService.requestHash(request("BB")));
+    }
+
+    @Test
+    void saveTodo_WithInvalidKey_ShouldThrowInvalidIdempotencyKey() {
+        // Act & Assert
+        assertThrows(InvalidIdempotencyKeyException.class, () -> service.saveTodo(OWNER, " ", request("Buy milk")));
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> service.saveTodo(OWNER, "k".repeat(129), request("Buy milk")));
+        verifyNoInteractions(todoService);
+    }
+
+    @Test
+    void saveTodo_WithDatabase_ShouldRecordKeyWithTodo() {
+        // Arrange
+        service = service(true);
+        when(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(OWNER, "key-1")))
+                .thenReturn(Optional.empty());
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenReturn(created);
+
+        // Act
+        service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Assert
+        verify(idempotencyRecordRepository).saveAndFlush(argThat(record ->
+                record.getOwner().equals(OWNER)
+                        && record.getIdempotencyKey().equals("key-1")
+                        && record.getTodoId().equals(7L)));
+    }
+
+    @Test
+    void saveTodo_WithKeyRecordedByAnotherNode_ShouldReturnRecordedTodoWithoutCreating() {
+        // Arrange
+        service = service(true);
+        when(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(OWNER, "key-1")))
+                .thenReturn(Optional.of(record("Buy milk")));
+
+        // Act
+        Todo result = service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Assert
+        assertEquals(created, result);
+        verifyNoInteractions(todoService);
+        verify(transactionManager).getTransaction(argThat(definition -> !definition.isReadOnly()));
+    }
+
+    @Test
+    void saveTodo_WhenAnotherNodeRecordsKeyFirst_ShouldReturnItsTodo() {
+        // Arrange
+        service = service(true);
+        when(idempotencyRecordRepository.findById(new IdempotencyRecord.Key(OWNER, "key-1")))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(record("Buy milk")));
+        Todo lost = new Todo();
+        lost.setId(8L);
+        when(todoService.saveTodo(eq(OWNER), any(Todo.class))).thenReturn(lost);
+        when(idempotencyRecordRepository.saveAndFlush(any(IdempotencyRecord.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        // Act
+        Todo result = service.saveTodo(OWNER, "key-1", request("Buy milk"));
+
+        // Assert
+        assertEquals(created, result);
+        verify(transactionManager).rollback(any());
+    }
+
+    private TodoIdempotencyService service(boolean database) {
+        return service(database, Duration.ofSeconds(5));
+    }
+
+    private TodoIdempotencyService service(boolean database, Duration waitTimeout) {
+        return new TodoIdempotencyService(todoService, idempotencyRecordRepository, transactionManager,
+                new TodoIdempotencyProperties(100, Duration.ofHours(1), database, waitTimeout));
+    }
+
+    private static Todo request(String title) {
+        Todo todo = new Todo();
+        todo.setTitle(title);
+        return todo;
+    }
+
+    private IdempotencyRecord record(String title) {
+        String requestHash = TodoIdempotencyService.requestHash(request(title));
+        return IdempotencyRecord.of(OWNER, "key-1", requestHash, created, Instant.now());
+    }
+
+}
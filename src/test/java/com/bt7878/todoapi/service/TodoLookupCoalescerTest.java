@@ -0,0 +1,185 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.cache.LocalTodoCacheInvalidationChannel;
+import com.bt7878.todoapi.cache.TodoCache;
+import com.bt7878.todoapi.cache.TodoCacheProperties;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.repository.TodoRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoLookupCoalescerTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    // A query answered with blockedQuery() signals queryStarted and returns once the test counts down releaseQuery
+    private final CountDownLatch queryStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseQuery = new CountDownLatch(1);
+
+    private TodoCache todoCache;
+    private Todo todo1;
+    private Todo todo2;
+
+    @BeforeEach
+    void setUp() {
+        todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        todo1 = todo(1L, "Test Todo 1");
+        todo2 = todo(2L, "Test Todo 2");
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void load_WithConcurrentLookupsOfSameTodo_ShouldShareOneQuery() throws Exception {
+        // Arrange
+        TodoLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenAnswer(invocation -> blockedQuery(todo1));
+        CompletableFuture<Optional<Todo>> first = loadAsync(coalescer, OWNER, 1L);
+        queryStarted.await();
+
+        // Act
+        CompletableFuture<Optional<Todo>> second = loadAsync(coalescer, OWNER, 1L);
+        awaitCount("todo.single-flight.shared", 1);
+        releaseQuery.countDown();
+
+        // Assert
+        assertEquals(Optional.of(todo1), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(todo1), second.get(5, TimeUnit.SECONDS));
+        verify(todoRepository, times(1)).findByOwnerAndId(OWNER, 1L);
+        assertEquals(2.0, count("todo.single-flight.lookups"));
+        assertEquals(1.0, count("todo.single-flight.queries"));
+    }
+
+    @Test
+    void load_AfterEviction_ShouldNotJoinLookupStartedBefore() throws Exception {
+        // Arrange
+        TodoLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        Todo updated = todo(1L, "Updated");
+        when(todoRepository.findByOwnerAndId(OWNER, 1L))
+                .thenAnswer(invocation -> blockedQuery(todo1))
+                .thenReturn(Optional.of(updated));
+        CompletableFuture<Optional<Todo>> before = loadAsync(coalescer, OWNER, 1L);
+        queryStarted.await();
+
+        // Act
+        todoCache.evict(1L);
+        Optional<Todo> after = coalescer.load(OWNER, 1L);
+        releaseQuery.countDown();
+
+        // Assert
+        assertEquals(Optional.of(updated), after);
+        assertEquals(Optional.of(todo1), before.get(5, TimeUnit.SECONDS));
+        verify(todoRepository, times(2)).findByOwnerAndId(OWNER, 1L);
+    }
+
+    @Test
+    void load_WithBatchWindow_ShouldLoadTodosOfEachOwnerWithOneQuery() throws Exception {
+        // Arrange
+        TodoLookupCoalescer coalescer = coalescer(Duration.ofSeconds(10), 3);
+        when(todoRepository.findByOwnerAndIdIn(eq(OWNER), any())).thenReturn(List.of(todo1, todo2));
+        when(todoRepository.findByOwnerAndIdIn(eq("bob"), any())).thenReturn(List.of());
+
+        // Act
+        CompletableFuture<Optional<Todo>> first = loadAsync(coalescer, OWNER, 1L);
+        CompletableFuture<Optional<Todo>> second = loadAsync(coalescer, OWNER, 2L);
+        // Fills the batch, which is then loaded without waiting for the window
+        CompletableFuture<Optional<Todo>> third = loadAsync(coalescer, "bob", 3L);
+
+        // Assert
+        assertEquals(Optional.of(todo1), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(todo2), second.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.empty(), third.get(5, TimeUnit.SECONDS));
+        verify(todoRepository).findByOwnerAndIdIn(eq(OWNER), argThat(ids -> ids.size() == 2));
+        verify(todoRepository, never()).findByOwnerAndId(any(), any());
+        assertEquals(2.0, count("todo.single-flight.queries"));
+    }
+
+    @Test
+    void load_WhenSharedQueryFails_ShouldFailEveryLookup() throws Exception {
+        // Arrange
+        TodoLookupCoalescer coalescer = coalescer(Duration.ZERO, 100);
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenAnswer(invocation -> {
+            blockedQuery(todo1);
+            throw new IllegalStateException("boom");
+        });
+        CompletableFuture<Optional<Todo>> first = loadAsync(coalescer, OWNER, 1L);
+        queryStarted.await();
+        CompletableFuture<Optional<Todo>> second = loadAsync(coalescer, OWNER, 1L);
+        awaitCount("todo.single-flight.shared", 1);
+
+        // Act
+        releaseQuery.countDown();
+
+        // Assert
+        for (CompletableFuture<Optional<Todo>> lookup : List.of(first, second)) {
+            ExecutionException exception = assertThrows(ExecutionException.class,
+                    () -> lookup.get(5, TimeUnit.SECONDS));
+            assertEquals("boom", exception.getCause().getMessage());
+        }
+    }
+
+    private TodoLookupCoalescer coalescer(Duration batchWindow, int maxBatchSize) {
+        TodoLookupCoalescer coalescer = new TodoLookupCoalescer(todoRepository, todoCache, batchWindow, maxBatchSize);
+        coalescer.bindTo(registry);
+        return coalescer;
+    }
+
+    private CompletableFuture<Optional<Todo>> loadAsync(TodoLookupCoalescer coalescer, String owner, Long id) {
+        return CompletableFuture.supplyAsync(() -> coalescer.load(owner, id), executor);
+    }
+
+    private Optional<Todo> blockedQuery(Todo todo) throws InterruptedException {
+        queryStarted.countDown();
+        assertTrue(releaseQuery.await(5, TimeUnit.SECONDS));
+        return Optional.of(todo);
+    }
+
+    private double count(String name) {
+        return registry.get(name).functionCounter().count();
+    }
+
+    private void awaitCount(String name, double expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (count(name) < expected) {
+            assertTrue(System.nanoTime() < deadline, name + " did not reach " + expected);
+            Thread.sleep(1);
+        }
+    }
+
+    private static Todo todo(Long id, String title) {
+        Todo todo = new Todo();
+        todo.setId(id);
+        todo.setOwner(OWNER);
+        todo.setTitle(title);
+        return todo;
+    }
+
+}
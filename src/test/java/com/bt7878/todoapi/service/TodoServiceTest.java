@@ -1,17 +1,39 @@
 package com.bt7878.todoapi.service;
 
+import com.bt7878.todoapi.audit.AuditEvent;
+import com.bt7878.todoapi.audit.TodoAuditLog;
+import com.bt7878.todoapi.cache.LocalTodoCacheInvalidationChannel;
+import com.bt7878.todoapi.cache.TodoCache;
+import com.bt7878.todoapi.cache.TodoCacheProperties;
+import com.bt7878.todoapi.exception.TodoVersionMismatchException;
+import com.bt7878.todoapi.model.BatchItemResult;
+import com.bt7878.todoapi.model.BatchItemResult.Status;
 import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoPage;
+import com.bt7878.todoapi.model.TodoPatch;
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.repository.TodoChangeRepository;
 import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.service.TodoWriteBehindBuffer.PendingUpdate;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
 
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -20,10 +42,17 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class TodoServiceTest {
 
+    private static final String OWNER = "alice";
+
     @Mock
     private TodoRepository todoRepository;
 
-    @InjectMocks
+    @Mock
+    private TodoChangeRepository todoChangeRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
     private TodoService todoService;
 
     private Todo todo1;
@@ -31,59 +60,180 @@ class TodoServiceTest {
 
     @BeforeEach
     void setUp() {
+        TodoCache todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        todoService = new TodoService(todoRepository, todoChangeRepository, todoCache, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), null, null, null, null);
+
         // Create test data
         todo1 = new Todo();
         todo1.setId(1L);
+        todo1.setOwner(OWNER);
         todo1.setTitle("Test Todo 1");
         todo1.setCompleted(false);
 
         todo2 = new Todo();
         todo2.setId(2L);
+        todo2.setOwner(OWNER);
         todo2.setTitle("Test Todo 2");
         todo2.setCompleted(true);
     }
 
     @Test
-    void getAllTodos_ShouldReturnAllTodos() {
+    void getTodos_WithMoreRowsThanLimit_ShouldReturnNextCursor() {
+        // Arrange
+        Todo todo3 = new Todo();
+        todo3.setId(3L);
+        todo3.setTitle("Test Todo 3");
+        when(todoRepository.findPage(OWNER, 0L, null, null, Limit.of(3)))
+                .thenReturn(Stream.of(todo1, todo2, todo3).map(TodoView::of).toList());
+
+        // Act
+        TodoPage result = todoService.getTodos(OWNER, 0L, null, null, 2);
+
+        // Assert
+        assertEquals(2, result.items().size());
+        assertEquals(todo1.getId(), result.items().get(0).id());
+        assertEquals(todo2.getId(), result.items().get(1).id());
+        assertEquals(2L, result.nextCursor());
+    }
+
+    @Test
+    void getTodos_OnLastPage_ShouldReturnNullCursor() {
         // Arrange
-        when(todoRepository.findAll()).thenReturn(Arrays.asList(todo1, todo2));
+        when(todoRepository.findPage(OWNER, 1L, true, null, Limit.of(11))).thenReturn(List.of(TodoView.of(todo2)));
 
         // Act
-        List<Todo> result = todoService.getAllTodos();
+        TodoPage result = todoService.getTodos(OWNER, 1L, true, null, 10);
 
         // Assert
-        assertEquals(2, result.size());
-        assertEquals(todo1.getId(), result.get(0).getId());
-        assertEquals(todo2.getId(), result.get(1).getId());
-        verify(todoRepository, times(1)).findAll();
+        assertEquals(1, result.items().size());
+        assertNull(result.nextCursor());
+    }
+
+    @Test
+    void getTodos_ShouldClampLimitAndEscapeTitlePrefix() {
+        // Arrange
+        when(todoRepository.findPage(OWNER, 0L, null, "50\\_off\\%", Limit.of(TodoService.MAX_PAGE_SIZE + 1)))
+                .thenReturn(List.of());
+
+        // Act
+        TodoPage result = todoService.getTodos(OWNER, 0L, null, "50_off%", 10_000);
+
+        // Assert
+        assertTrue(result.items().isEmpty());
+        verify(todoRepository, times(1))
+                .findPage(OWNER, 0L, null, "50\\_off\\%", Limit.of(TodoService.MAX_PAGE_SIZE + 1));
+    }
+
+    @Test
+    void exportTodos_ShouldPassEveryTodoToConsumerAndDetachIt() {
+        // Arrange
+        when(todoRepository.streamByOwner(OWNER)).thenReturn(Stream.of(todo1, todo2));
+        List<Todo> exported = new ArrayList<>();
+
+        // Act
+        todoService.exportTodos(OWNER, exported::add);
+
+        // Assert
+        assertEquals(List.of(todo1, todo2), exported);
+        verify(entityManager, times(1)).detach(todo1);
+        verify(entityManager, times(1)).detach(todo2);
     }
 
     @Test
     void getTodoById_WithExistingId_ShouldReturnTodo() {
         // Arrange
-        when(todoRepository.findById(1L)).thenReturn(Optional.of(todo1));
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenReturn(Optional.of(todo1));
 
         // Act
-        Optional<Todo> result = todoService.getTodoById(1L);
+        Optional<Todo> result = todoService.getTodoById(OWNER, 1L);
 
         // Assert
         assertTrue(result.isPresent());
         assertEquals(1L, result.get().getId());
         assertEquals("Test Todo 1", result.get().getTitle());
-        verify(todoRepository, times(1)).findById(1L);
+        verify(todoRepository, times(1)).findByOwnerAndId(OWNER, 1L);
+    }
+
+    @Test
+    void getTodoById_CalledTwice_ShouldHitRepositoryOnce() {
+        // Arrange
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenReturn(Optional.of(todo1));
+
+        // Act
+        todoService.getTodoById(OWNER, 1L);
+        Optional<Todo> result = todoService.getTodoById(OWNER, 1L);
+
+        // Assert
+        assertEquals(Optional.of(todo1), result);
+        verify(todoRepository, times(1)).findByOwnerAndId(OWNER, 1L);
+    }
+
+    @Test
+    void getTodoById_WithLookupCoalescer_ShouldLoadMissesThroughIt() {
+        // Arrange
+        TodoLookupCoalescer coalescer = mock(TodoLookupCoalescer.class);
+        TodoCache todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        TodoService coalescingService = new TodoService(todoRepository, todoChangeRepository, todoCache,
+                entityManager, Validation.buildDefaultValidatorFactory().getValidator(), null, null, null, coalescer);
+        when(coalescer.load(OWNER, 1L)).thenReturn(Optional.of(todo1));
+
+        // Act
+        coalescingService.getTodoById(OWNER, 1L);
+        Optional<Todo> result = coalescingService.getTodoById(OWNER, 1L);
+
+        // Assert
+        assertEquals(Optional.of(todo1), result);
+        verify(coalescer, times(1)).load(OWNER, 1L);
+        verify(todoRepository, never()).findByOwnerAndId(any(), any());
+    }
+
+    @Test
+    void saveTodo_ShouldIgnoreIdAndVersionAndAssignOwner() {
+        // Arrange
+        Todo newTodo = new Todo();
+        newTodo.setId(2L);
+        newTodo.setVersion(5L);
+        newTodo.setTitle("New Todo");
+        when(todoRepository.save(newTodo)).thenAnswer(invocation -> {
+            newTodo.setId(3L);
+            return newTodo;
+        });
+
+        // Act
+        todoService.saveTodo(OWNER, newTodo);
+
+        // Assert
+        verify(todoRepository).save(argThat(todo -> todo.getVersion() == null && OWNER.equals(todo.getOwner())));
+        verify(todoChangeRepository, times(1)).recordUpserts(eq(List.of(3L)), any());
+    }
+
+    @Test
+    void getTodoById_WithTodoOfAnotherOwner_ShouldReturnEmptyOptional() {
+        // Arrange
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenReturn(Optional.of(todo1));
+        todoService.getTodoById(OWNER, 1L);
+
+        // Act
+        Optional<Todo> result = todoService.getTodoById("bob", 1L);
+
+        // Assert
+        assertTrue(result.isEmpty());
     }
 
     @Test
     void getTodoById_WithNonExistingId_ShouldReturnEmptyOptional() {
         // Arrange
-        when(todoRepository.findById(3L)).thenReturn(Optional.empty());
+        when(todoRepository.findByOwnerAndId(OWNER, 3L)).thenReturn(Optional.empty());
 
         // Act
-        Optional<Todo> result = todoService.getTodoById(3L);
+        Optional<Todo> result = todoService.getTodoById(OWNER, 3L);
 
         // Assert
         assertTrue(result.isEmpty());
-        verify(todoRepository, times(1)).findById(3L);
+        verify(todoRepository, times(1)).findByOwnerAndId(OWNER, 3L);
     }
 
     @Test
@@ -101,7 +251,7 @@ class TodoServiceTest {
         when(todoRepository.save(any(Todo.class))).thenReturn(savedTodo);
 
         // Act
-        Todo result = todoService.saveTodo(newTodo);
+        Todo result = todoService.saveTodo(OWNER, newTodo);
 
         // Assert
         assertNotNull(result);
@@ -111,15 +261,492 @@ class TodoServiceTest {
     }
 
     @Test
-    void deleteTodo_ShouldCallRepositoryDeleteById() {
+    void updateTodo_WithExistingId_ShouldUpdateWithoutLoading() {
+        // Arrange
+        Todo update = new Todo();
+        update.setTitle("Updated");
+        update.setCompleted(true);
+        when(todoRepository.updateTodo(OWNER, 1L, "Updated", true)).thenReturn(1);
+
+        // Act
+        Optional<Todo> result = todoService.updateTodo(OWNER, 1L, update);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(1L, result.get().getId());
+        verify(todoRepository, never()).findByOwnerAndId(any(), any());
+        verify(todoRepository, never()).save(any());
+    }
+
+    @Test
+    void updateTodo_WithNonExistingId_ShouldReturnEmptyOptional() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 99L, "Test Todo 1", false)).thenReturn(0);
+
+        // Act
+        Optional<Todo> result = todoService.updateTodo(OWNER, 99L, todo1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void deleteTodo_WithExistingId_ShouldReturnTrue() {
+        // Arrange
+        when(todoRepository.deleteTodo(OWNER, 1L)).thenReturn(1);
+
+        // Act
+        boolean deleted = todoService.deleteTodo(OWNER, 1L);
+
+        // Assert
+        assertTrue(deleted);
+        verify(todoRepository, times(1)).deleteTodo(OWNER, 1L);
+        verify(todoRepository, never()).findByOwnerAndId(any(), any());
+    }
+
+    @Test
+    void deleteTodo_WithAuditLog_ShouldRecordDeleteOnlyWhenDeleted() {
+        // Arrange
+        TodoAuditLog auditLog = mock(TodoAuditLog.class);
+        TodoCache todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        TodoService auditedService = new TodoService(todoRepository, todoChangeRepository, todoCache, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), null, auditLog, null, null);
+        when(todoRepository.deleteTodo(OWNER, 1L)).thenReturn(1);
+        when(todoRepository.deleteTodo(OWNER, 99L)).thenReturn(0);
+
+        // Act
+        auditedService.deleteTodo(OWNER, 1L);
+        auditedService.deleteTodo(OWNER, 99L);
+
+        // Assert
+        verify(auditLog, times(1)).recordAfterCommit(argThat(events -> events.size() == 1
+                && events.getFirst().action() == AuditEvent.Action.DELETE
+                && events.getFirst().todoId() == 1L
+                && OWNER.equals(events.getFirst().owner())));
+    }
+
+    @Test
+    void deleteTodo_WithNonExistingId_ShouldReturnFalse() {
+        // Arrange
+        when(todoRepository.deleteTodo(OWNER, 99L)).thenReturn(0);
+
+        // Act
+        boolean deleted = todoService.deleteTodo(OWNER, 99L);
+
+        // Assert
+        assertFalse(deleted);
+    }
+
+    @Test
+    void updateTodo_ShouldRecordChange() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 1L, "Test Todo 1", false)).thenReturn(1);
+
+        // Act
+        todoService.updateTodo(OWNER, 1L, todo1);
+
+        // Assert
+        verify(todoChangeRepository, times(1)).recordUpserts(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void updateTodo_WithNonExistingId_ShouldNotRecordChange() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 99L, "Test Todo 1", false)).thenReturn(0);
+
+        // Act
+        todoService.updateTodo(OWNER, 99L, todo1);
+
+        // Assert
+        verifyNoInteractions(todoChangeRepository);
+    }
+
+    @Test
+    void deleteTodo_ShouldRecordTombstone() {
+        // Arrange
+        when(todoRepository.deleteTodo(OWNER, 1L)).thenReturn(1);
+
+        // Act
+        todoService.deleteTodo(OWNER, 1L);
+
+        // Assert
+        verify(todoChangeRepository, times(1)).save(argThat(change -> change.isDeleted() && change.getTodoId() == 1L));
+    }
+
+    @Test
+    void updateTodo_WithCurrentVersion_ShouldUpdateWithoutLoadingAndReturnNextVersion() {
         // Arrange
-        Long id = 1L;
-        doNothing().when(todoRepository).deleteById(id);
+        Todo update = new Todo();
+        update.setTitle("Updated");
+        when(todoRepository.updateTodo(OWNER, 1L, 3L, "Updated", false)).thenReturn(1);
 
         // Act
-        todoService.deleteTodo(id);
+        Optional<Todo> result = todoService.updateTodo(OWNER, 1L, update, 3L);
 
         // Assert
-        verify(todoRepository, times(1)).deleteById(id);
+        assertTrue(result.isPresent());
+        assertEquals(4L, result.get().getVersion());
+        verify(todoRepository, never()).findByOwnerAndId(any(), any());
+        verify(todoRepository, never()).existsByOwnerAndId(any(), any());
+    }
+
+    @Test
+    void updateTodo_WithStaleVersion_ShouldThrowVersionMismatch() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 1L, 2L, "Test Todo 1", false)).thenReturn(0);
+        when(todoRepository.existsByOwnerAndId(OWNER, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(TodoVersionMismatchException.class, () -> todoService.updateTodo(OWNER, 1L, todo1, 2L));
+    }
+
+    @Test
+    void updateTodo_WithVersionAndNonExistingId_ShouldReturnEmptyOptional() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 99L, 2L, "Test Todo 1", false)).thenReturn(0);
+        when(todoRepository.existsByOwnerAndId(OWNER, 99L)).thenReturn(false);
+
+        // Act
+        Optional<Todo> result = todoService.updateTodo(OWNER, 99L, todo1, 2L);
+
+        // Assert
+        assertTrue(result.isEmpty());
+    }
+
+    @Test
+    void deleteTodo_WithStaleVersion_ShouldThrowVersionMismatch() {
+        // Arrange
+        when(todoRepository.deleteTodo(OWNER, 1L, 2L)).thenReturn(0);
+        when(todoRepository.existsByOwnerAndId(OWNER, 1L)).thenReturn(true);
+
+        // Act & Assert
+        assertThrows(TodoVersionMismatchException.class, () -> todoService.deleteTodo(OWNER, 1L, 2L));
+    }
+
+    @Test
+    void updateTodo_ShouldAdvanceChangeTag() {
+        // Arrange
+        when(todoRepository.updateTodo(OWNER, 1L, "Test Todo 1", false)).thenReturn(1);
+        String before = todoService.getChangeTag();
+
+        // Act
+        todoService.updateTodo(OWNER, 1L, todo1);
+
+        // Assert
+        assertNotEquals(before, todoService.getChangeTag());
+    }
+
+    @Test
+    void createTodos_ShouldSaveValidTodosAndReportInvalidOnes() {
+        // Arrange
+        Todo valid = new Todo();
+        valid.setTitle("Valid");
+        Todo invalid = new Todo();
+        invalid.setTitle("");
+        when(todoRepository.saveAll(List.of(valid))).thenAnswer(invocation -> {
+            valid.setId(10L);
+            return List.of(valid);
+        });
+
+        // Act
+        List<BatchItemResult> results = todoService.createTodos(OWNER, Arrays.asList(invalid, valid));
+
+        // Assert
+        assertEquals(2, results.size());
+        assertEquals(Status.INVALID, results.get(0).status());
+        assertTrue(results.get(0).errors().containsKey("title"));
+        assertEquals(BatchItemResult.of(1, 10L, Status.CREATED), results.get(1));
+    }
+
+    @Test
+    void createTodos_ShouldAdvanceChangeTag() {
+        // Arrange
+        Todo todo = new Todo();
+        todo.setTitle("New");
+        when(todoRepository.saveAll(List.of(todo))).thenAnswer(invocation -> {
+            todo.setId(10L);
+            return List.of(todo);
+        });
+        String before = todoService.getChangeTag();
+
+        // Act
+        todoService.createTodos(OWNER, List.of(todo));
+
+        // Assert
+        assertNotEquals(before, todoService.getChangeTag());
+    }
+
+    @Test
+    void updateTodos_ShouldPatchExistingTodosAndReportMissingOnes() {
+        // Arrange
+        when(todoRepository.findByOwnerAndIdIn(OWNER, Set.of(1L, 99L))).thenReturn(List.of(todo1));
+
+        // Act
+        List<BatchItemResult> results = todoService.updateTodos(OWNER, List.of(
+                new TodoPatch(1L, null, true),
+                new TodoPatch(99L, "Missing", null)));
+
+        // Assert
+        assertEquals(BatchItemResult.of(0, 1L, Status.UPDATED), results.get(0));
+        assertEquals(BatchItemResult.of(1, 99L, Status.NOT_FOUND), results.get(1));
+        assertEquals("Test Todo 1", todo1.getTitle());
+        assertTrue(todo1.isCompleted());
+    }
+
+    @Test
+    void updateTodos_WithInvalidPatch_ShouldNotApplyIt() {
+        // Arrange
+        when(todoRepository.findByOwnerAndIdIn(OWNER, Set.of(1L))).thenReturn(List.of(todo1));
+
+        // Act
+        List<BatchItemResult> results = todoService.updateTodos(OWNER, List.of(new TodoPatch(1L, "", true)));
+
+        // Assert
+        assertEquals(Status.INVALID, results.getFirst().status());
+        assertTrue(results.getFirst().errors().containsKey("title"));
+        assertFalse(todo1.isCompleted());
+    }
+
+    @Test
+    void deleteTodos_ShouldDeleteExistingTodosInOneStatement() {
+        // Arrange
+        when(todoRepository.findExistingIds(OWNER, Set.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+
+        // Act
+        List<BatchItemResult> results = todoService.deleteTodos(OWNER, List.of(1L, 99L, 2L));
+
+        // Assert
+        assertEquals(List.of(
+                BatchItemResult.of(0, 1L, Status.DELETED),
+                BatchItemResult.of(1, 99L, Status.NOT_FOUND),
+                BatchItemResult.of(2, 2L, Status.DELETED)), results);
+        verify(todoRepository, times(1)).deleteAllByIdInBatch(Set.of(1L, 2L));
+        verify(todoChangeRepository, times(1)).recordDeletes(eq(Set.of(1L, 2L)), any());
+    }
+
+    @Test
+    void getStats_WithoutStatsCounters_ShouldCountTodos() {
+        // Arrange
+        when(todoRepository.countStats(OWNER)).thenReturn(new TodoStats(2, 1));
+
+        // Act
+        TodoStats stats = todoService.getStats(OWNER);
+
+        // Assert
+        assertEquals(new TodoStats(2, 1), stats);
+    }
+
+    @Test
+    void updateTodo_WithStatsCounters_WhenCompletedFlips_ShouldCountIt() {
+        // Arrange
+        TodoStatsCounters statsCounters = mock(TodoStatsCounters.class);
+        when(todoRepository.updateTodoIfCompleted(OWNER, 1L, true, "Test Todo 1", true)).thenReturn(0);
+        when(todoRepository.updateTodoIfCompleted(OWNER, 1L, false, "Test Todo 1", true)).thenReturn(1);
+        todo1.setCompleted(true);
+
+        // Act
+        Optional<Todo> result = statsService(statsCounters).updateTodo(OWNER, 1L, todo1);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(statsCounters, times(1)).add(OWNER, 0, 1);
+        verify(todoRepository, never()).updateTodo(any(), any(), any(), anyBoolean());
+    }
+
+    @Test
+    void deleteTodo_WithStatsCounters_WhenTodoIsMissing_ShouldNotCount() {
+        // Arrange
+        TodoStatsCounters statsCounters = mock(TodoStatsCounters.class);
+        when(todoRepository.existsByOwnerAndId(OWNER, 99L)).thenReturn(false);
+
+        // Act
+        boolean deleted = statsService(statsCounters).deleteTodo(OWNER, 99L);
+
+        // Assert
+        assertFalse(deleted);
+        verify(todoRepository, times(2)).deleteTodoIfCompleted(eq(OWNER), eq(99L), anyBoolean());
+        verifyNoInteractions(statsCounters);
+    }
+
+    @Test
+    void deleteTodos_WithStatsCounters_ShouldCountDeletedTodos() {
+        // Arrange
+        TodoStatsCounters statsCounters = mock(TodoStatsCounters.class);
+        when(todoRepository.findExistingIds(OWNER, Set.of(1L, 2L, 99L))).thenReturn(List.of(1L, 2L));
+        when(todoRepository.countCompleted(OWNER, Set.of(1L, 2L))).thenReturn(1L);
+
+        // Act
+        statsService(statsCounters).deleteTodos(OWNER, List.of(1L, 99L, 2L));
+
+        // Assert
+        verify(statsCounters, times(1)).add(OWNER, -2, -1);
+    }
+
+    @Test
+    void completeNext_ShouldCompleteLockedChunkAndCountIt() {
+        // Arrange
+        TodoStatsCounters statsCounters = mock(TodoStatsCounters.class);
+        when(todoRepository.lockIdsAfter(OWNER, false, 10L, Limit.of(2))).thenReturn(List.of(11L, 12L));
+        when(todoRepository.completeAll(List.of(11L, 12L))).thenReturn(2);
+
+        // Act
+        List<Long> ids = statsService(statsCounters).completeNext(OWNER, 10L, 2);
+
+        // Assert
+        assertEquals(List.of(11L, 12L), ids);
+        verify(statsCounters, times(1)).add(OWNER, 0, 2);
+        verify(todoChangeRepository, times(1)).recordUpserts(eq(List.of(11L, 12L)), any());
+    }
+
+    @Test
+    void completeNext_WhenNoOpenTodoIsLeft_ShouldWriteNothing() {
+        // Arrange
+        when(todoRepository.lockIdsAfter(OWNER, false, 12L, Limit.of(2))).thenReturn(List.of());
+
+        // Act
+        List<Long> ids = todoService.completeNext(OWNER, 12L, 2);
+
+        // Assert
+        assertTrue(ids.isEmpty());
+        verify(todoRepository, never()).completeAll(any());
+        verifyNoInteractions(todoChangeRepository);
+    }
+
+    @Test
+    void deleteNextCompleted_ShouldRecordTombstonesBeforeDeleting() {
+        // Arrange
+        TodoStatsCounters statsCounters = mock(TodoStatsCounters.class);
+        when(todoRepository.lockIdsAfter(OWNER, true, 0L, Limit.of(2))).thenReturn(List.of(1L, 2L));
+
+        // Act
+        List<Long> ids = statsService(statsCounters).deleteNextCompleted(OWNER, 0L, 2);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids);
+        InOrder inOrder = inOrder(todoChangeRepository, todoRepository);
+        inOrder.verify(todoChangeRepository).recordDeletes(eq(List.of(1L, 2L)), any());
+        inOrder.verify(todoRepository).deleteAllByIdInBatch(List.of(1L, 2L));
+        verify(statsCounters, times(1)).add(OWNER, -2, -2);
+    }
+
+    @Test
+    void updateTodo_WithWriteBehind_ShouldBufferUpdateAndServeItFromReads() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        TodoService writeBehindService = writeBehindService(buffer);
+        when(todoRepository.findByOwnerAndId(OWNER, 1L)).thenReturn(Optional.of(todo1));
+        Todo update = new Todo();
+        update.setTitle("Toggled");
+        update.setCompleted(true);
+
+        // Act
+        Optional<Todo> result = writeBehindService.updateTodo(OWNER, 1L, update);
+        Optional<Todo> read = writeBehindService.getTodoById(OWNER, 1L);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals(Optional.of(new PendingUpdate(OWNER, "Toggled", true)), buffer.get(1L));
+        assertTrue(read.isPresent());
+        assertEquals("Toggled", read.get().getTitle());
+        assertTrue(read.get().isCompleted());
+        verify(todoRepository, never()).updateTodo(any(), any(), any(), anyBoolean());
+        verifyNoInteractions(todoChangeRepository);
+    }
+
+    @Test
+    void updateTodo_WithWriteBehindAndNonExistingId_ShouldNotBuffer() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        when(todoRepository.findByOwnerAndId(OWNER, 99L)).thenReturn(Optional.empty());
+
+        // Act
+        Optional<Todo> result = writeBehindService(buffer).updateTodo(OWNER, 99L, todo1);
+
+        // Assert
+        assertTrue(result.isEmpty());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void applyUpdates_ShouldWriteLoadedTodosAndRecordChanges() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Flushed", true));
+        buffer.offer(99L, new PendingUpdate(OWNER, "Gone", true));
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+        when(todoRepository.lockAllById(Set.of(1L, 99L))).thenReturn(List.of(todo1));
+
+        // Act
+        writeBehindService(buffer).applyUpdates(batch);
+
+        // Assert
+        assertEquals("Flushed", todo1.getTitle());
+        assertTrue(todo1.isCompleted());
+        verify(todoChangeRepository, times(1)).recordUpserts(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void applyUpdates_WithUpdateTakenOverByDirectWrite_ShouldSkipIt() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Flushed", true));
+        buffer.offer(2L, new PendingUpdate(OWNER, "Taken", true));
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+        buffer.drain(List.of(2L));
+        when(todoRepository.lockAllById(Set.of(1L, 2L))).thenReturn(List.of(todo1, todo2));
+
+        // Act
+        writeBehindService(buffer).applyUpdates(batch);
+
+        // Assert
+        assertEquals("Flushed", todo1.getTitle());
+        assertEquals("Test Todo 2", todo2.getTitle());
+        verify(todoChangeRepository, times(1)).recordUpserts(eq(List.of(1L)), any());
+    }
+
+    @Test
+    void updateTodo_WithVersionAndBufferedUpdate_ShouldWriteBufferedUpdateFirst() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Buffered", true));
+        when(todoRepository.updateTodo(OWNER, 1L, "Buffered", true)).thenReturn(1);
+        when(todoRepository.updateTodo(OWNER, 1L, 3L, "Test Todo 1", false)).thenReturn(1);
+
+        // Act
+        writeBehindService(buffer).updateTodo(OWNER, 1L, todo1, 3L);
+
+        // Assert
+        verify(todoRepository, times(1)).updateTodo(OWNER, 1L, "Buffered", true);
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.get(1L).isEmpty());
+    }
+
+    @Test
+    void deleteTodo_WithBufferedUpdate_ShouldDiscardIt() {
+        // Arrange
+        TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(10, 10);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Buffered", true));
+        when(todoRepository.deleteTodo(OWNER, 1L)).thenReturn(1);
+
+        // Act
+        writeBehindService(buffer).deleteTodo(OWNER, 1L);
+
+        // Assert
+        assertTrue(buffer.get(1L).isEmpty());
+    }
+
+    private TodoService statsService(TodoStatsCounters statsCounters) {
+        TodoCache todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        return new TodoService(todoRepository, todoChangeRepository, todoCache, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), null, null, statsCounters, null);
+    }
+
+    private TodoService writeBehindService(TodoWriteBehindBuffer buffer) {
+        TodoCache todoCache = new TodoCache(new TodoCacheProperties(100, Duration.ofMinutes(10), Duration.ZERO),
+                new LocalTodoCacheInvalidationChannel());
+        return new TodoService(todoRepository, todoChangeRepository, todoCache, entityManager,
+                Validation.buildDefaultValidatorFactory().getValidator(), buffer, null, null, null);
     }
-}
\ No newline at end of file
+}
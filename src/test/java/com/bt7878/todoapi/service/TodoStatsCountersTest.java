@@ -0,0 +1,109 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.model.TodoStats;
+import com.bt7878.todoapi.model.TodoStatsSummary;
+import com.bt7878.todoapi.repository.TodoRepository;
+import com.bt7878.todoapi.repository.TodoStatsRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TodoStatsCountersTest {
+
+    private static final String OWNER = "alice";
+
+    @Mock
+    private TodoRepository todoRepository;
+
+    @Mock
+    private TodoStatsRepository todoStatsRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void get_BeforeFirstReconciliation_ShouldCountTodos() {
+        // Arrange
+        TodoStatsCounters counters = counters(false);
+        when(todoRepository.countStats(OWNER)).thenReturn(new TodoStats(3, 1));
+
+        // Act
+        TodoStats stats = counters.get(OWNER);
+
+        // Assert
+        assertEquals(new TodoStats(3, 1), stats);
+    }
+
+    @Test
+    void reconcile_InMemory_ShouldCorrectCountsAndServeThem() {
+        // Arrange
+        TodoStatsCounters counters = counters(false);
+        counters.add(OWNER, 1, 0);
+        counters.add("bob", 2, 2);
+        when(todoRepository.countStatsByOwner()).thenReturn(List.of(new TodoStatsSummary(OWNER, 5, 2)));
+
+        // Act
+        counters.reconcile();
+        counters.add(OWNER, 1, 1);
+
+        // Assert
+        assertEquals(new TodoStats(6, 3), counters.get(OWNER));
+        assertEquals(new TodoStats(0, 0), counters.get("bob"));
+        assertEquals(new TodoStats(0, 0), counters.get("carol"));
+        verify(todoRepository, never()).countStats(any());
+    }
+
+    @Test
+    void add_InDatabase_ShouldUpdateSummaryRow() {
+        // Arrange
+        TodoStatsCounters counters = counters(true);
+
+        // Act
+        counters.add(OWNER, -1, 0);
+        counters.add(OWNER, 0, 0);
+
+        // Assert
+        verify(todoStatsRepository, times(1)).add(OWNER, -1, 0);
+    }
+
+    @Test
+    void get_InDatabaseWithoutSummary_ShouldCountTodos() {
+        // Arrange
+        TodoStatsCounters counters = counters(true);
+        when(todoStatsRepository.findById(OWNER)).thenReturn(Optional.empty());
+        when(todoRepository.countStats(OWNER)).thenReturn(new TodoStats(4, 0));
+
+        // Act
+        TodoStats stats = counters.get(OWNER);
+
+        // Assert
+        assertEquals(new TodoStats(4, 0), stats);
+    }
+
+    @Test
+    void reconcile_InDatabase_WhenSummariesAreCreatedConcurrently_ShouldNotFail() {
+        // Arrange
+        TodoStatsCounters counters = counters(true);
+        when(todoStatsRepository.reconcile()).thenReturn(2);
+        when(todoStatsRepository.insertMissing()).thenThrow(new DataIntegrityViolationException("duplicate"));
+
+        // Act & Assert
+        assertDoesNotThrow(counters::reconcile);
+        verify(todoStatsRepository, times(1)).insertMissing();
+    }
+
+    private TodoStatsCounters counters(boolean database) {
+        return new TodoStatsCounters(todoRepository, todoStatsRepository, transactionManager, database);
+    }
+
+}
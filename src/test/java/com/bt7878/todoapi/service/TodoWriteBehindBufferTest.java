@@ -0,0 +1,156 @@
+package com.bt7878.todoapi.service;
+
+import com.bt7878.todoapi.exception.TodoWriteBehindFullException;
+import com.bt7878.todoapi.model.Todo;
+import com.bt7878.todoapi.model.TodoView;
+import com.bt7878.todoapi.service.TodoWriteBehindBuffer.PendingUpdate;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TodoWriteBehindBufferTest {
+
+    private static final String OWNER = "alice";
+
+    private final TodoWriteBehindBuffer buffer = new TodoWriteBehindBuffer(2, 10);
+
+    @Test
+    void offer_WithPendingUpdateToSameTodo_ShouldKeepOnlyLatest() {
+        // Act
+        buffer.offer(1L, new PendingUpdate(OWNER, "Todo", true));
+        buffer.offer(1L, new PendingUpdate(OWNER, "Todo", false));
+
+        // Assert
+        assertEquals(1, buffer.size());
+        assertEquals(Optional.of(new PendingUpdate(OWNER, "Todo", false)), buffer.get(1L));
+    }
+
+    @Test
+    void offer_WhenFull_ShouldRejectNewTodosButCoalesceExistingOnes() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "One", true));
+        buffer.offer(2L, new PendingUpdate(OWNER, "Two", true));
+
+        // Act & Assert
+        assertThrows(TodoWriteBehindFullException.class,
+                () -> buffer.offer(3L, new PendingUpdate(OWNER, "Three", true)));
+        assertDoesNotThrow(() -> buffer.offer(1L, new PendingUpdate(OWNER, "One", false)));
+    }
+
+    @Test
+    void drain_ShouldKeepUpdatesReadableUntilFlushed() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "Todo", true));
+
+        // Act
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+
+        // Assert
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.get(1L).isPresent());
+        buffer.flushed(batch);
+        assertTrue(buffer.get(1L).isEmpty());
+    }
+
+    @Test
+    void requeue_ShouldNotOverwriteNewerUpdates() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "Old", true));
+        buffer.offer(2L, new PendingUpdate(OWNER, "Two", true));
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+        buffer.offer(1L, new PendingUpdate(OWNER, "New", true));
+
+        // Act
+        buffer.requeue(batch);
+
+        // Assert
+        assertEquals(2, buffer.size());
+        assertEquals(Optional.of(new PendingUpdate(OWNER, "New", true)), buffer.get(1L));
+        assertEquals(Optional.of(new PendingUpdate(OWNER, "Two", true)), buffer.get(2L));
+    }
+
+    @Test
+    void requeue_WithUpdateTakenOverByDirectWrite_ShouldDropIt() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "Old", true));
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+        Map<Long, PendingUpdate> taken = buffer.drain(List.of(1L));
+
+        // Act
+        buffer.requeue(batch);
+
+        // Assert
+        assertEquals(Map.of(1L, new PendingUpdate(OWNER, "Old", true)), taken);
+        assertFalse(buffer.claim(1L, batch));
+        assertEquals(0, buffer.size());
+        buffer.flushed(taken);
+        assertTrue(buffer.get(1L).isEmpty());
+    }
+
+    @Test
+    void requeue_WithClaimedUpdateSupersededByDirectWrite_ShouldDropIt() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "Old", true));
+        Map<Long, PendingUpdate> batch = buffer.drain(10);
+        assertTrue(buffer.claim(1L, batch));
+        Map<Long, PendingUpdate> direct = buffer.drain(List.of(1L));
+
+        // Act
+        buffer.requeue(batch);
+
+        // Assert
+        assertTrue(direct.isEmpty());
+        assertEquals(0, buffer.size());
+        assertTrue(buffer.get(1L).isEmpty());
+    }
+
+    @Test
+    void overlay_ShouldReturnUpdatedCopyWithoutVersion() {
+        // Arrange
+        Todo todo = new Todo();
+        todo.setId(1L);
+        todo.setTitle("Todo");
+        todo.setVersion(4L);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Todo", true));
+
+        // Act
+        Todo result = buffer.overlay(todo);
+
+        // Assert
+        assertTrue(result.isCompleted());
+        assertNull(result.getVersion());
+        assertFalse(todo.isCompleted());
+    }
+
+    @Test
+    void overlay_WithView_ShouldReturnUpdatedViewWithoutVersion() {
+        // Arrange
+        TodoView todo = new TodoView(1L, "Todo", false, 4L);
+        buffer.offer(1L, new PendingUpdate(OWNER, "Renamed", true));
+
+        // Act
+        TodoView result = buffer.overlay(todo);
+        TodoView other = new TodoView(2L, "Other", false, 0L);
+
+        // Assert
+        assertEquals(new TodoView(1L, "Renamed", true, null), result);
+        assertSame(other, buffer.overlay(other));
+    }
+
+    @Test
+    void discard_ShouldDropPendingUpdates() {
+        // Arrange
+        buffer.offer(1L, new PendingUpdate(OWNER, "Todo", true));
+
+        // Act
+        buffer.discard(List.of(1L));
+
+        // Assert
+        assertEquals(0, buffer.size());
+    }
+
+}